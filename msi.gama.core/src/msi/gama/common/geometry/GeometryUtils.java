@@ -116,6 +116,9 @@ public class GeometryUtils {
 	/** The Constant pl. */
 	public final static PointLocator POINT_LOCATOR = new PointLocator();
 
+	/** The point in which each thread computes the centers of the geometries it translates. */
+	private final static ThreadLocal<GamaPoint> SCRATCH_CENTER = ThreadLocal.withInitial(GamaPoint::new);
+
 	/**
 	 * Distance on polyline.
 	 *
@@ -1469,6 +1472,21 @@ public class GeometryUtils {
 		translate(geometry, dx, dy, dz);
 	}
 
+	/**
+	 * Translates a geometry so that the center of its contour is at this location. The center is computed in a point
+	 * owned by the current thread, so that moving a shape does not allocate any point.
+	 *
+	 * @param geometry
+	 *            the geometry
+	 * @param location
+	 *            the location
+	 */
+	public static void translateTo(final Geometry geometry, final GamaPoint location) {
+		final GamaPoint center = SCRATCH_CENTER.get();
+		getContourCoordinates(geometry).getCenter(center);
+		translate(geometry, location.x - center.x, location.y - center.y, location.z - center.z);
+	}
+
 	/**
 	 * Translate.
 	 *
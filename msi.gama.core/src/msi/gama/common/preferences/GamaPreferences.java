@@ -881,6 +881,16 @@ public class GamaPreferences {
 							CoreException e) {}
 						}).hidden();
 
+		/** The Constant CONSTANT_FOLDING. */
+		public static final Pref<Boolean> CONSTANT_FOLDING = create("pref_fold_constant_expressions",
+				"Compute constant int, float, bool and string expressions when compiling models", true, IType.BOOL,
+				true).in(NAME, OPTIMIZATIONS);
+
+		/** The Constant CONTAINER_PIPELINES. */
+		public static final Pref<Boolean> CONTAINER_PIPELINES = create("pref_fuse_container_operators",
+				"Evaluate chains of container operators (where, collect, count...) in one pass", true, IType.BOOL,
+				true).in(NAME, OPTIMIZATIONS);
+
 		/** The Constant AT_DISTANCE_OPTIMIZATION. */
 		public static final Pref<Boolean> AT_DISTANCE_OPTIMIZATION =
 				create("pref_optimize_at_distance", "Optimize the 'at_distance' operator", true, IType.BOOL, true)
@@ -1001,6 +1011,36 @@ public class GamaPreferences {
 				"Forces the spatial index to synchronize its operations. Useful for interactive models where the users interfere or parallel models with concurrency errors. Note that it may slow down simulations with a lot of mobile agents",
 				true, IType.BOOL, true).in(NAME, CATEGORY);
 
+		/** The Constant INDEX_REFLEX_GUARDS. */
+		public static final Pref<Boolean> INDEX_REFLEX_GUARDS = create("pref_index_reflex_guards",
+				"Index the simple 'when:' guards of reflexes (tests of an attribute against a constant) instead of evaluating them for every agent at every step",
+				false, IType.BOOL, true).in(NAME, CATEGORY);
+
+		/** The Constant COMPILE_EXPRESSIONS. */
+		public static final Pref<Boolean> COMPILE_EXPRESSIONS = create("pref_compile_expressions",
+				"Compile into JVM code the arithmetic, comparison and logical expressions on int, float and bool that are evaluated very often",
+				false, IType.BOOL, true).in(NAME, CATEGORY);
+
+		/** The Constant CACHE_COMPILED_MODELS. */
+		public static final Pref<Boolean> CACHE_COMPILED_MODELS = create("pref_cache_compiled_models",
+				"Keep the validated descriptions of the models run from the interface, and reuse them when they are run again, as long as the contents of the models and of their imports do not change",
+				false, IType.BOOL, true).in(NAME, CATEGORY);
+
+		/** The Constant DISPATCH_OPERATORS. */
+		public static final Pref<Boolean> DISPATCH_OPERATORS = create("pref_dispatch_operators",
+				"Choose the version of overloaded operators applied to 'unknown' operands from the actual values of the operands, instead of the one chosen at compile time",
+				false, IType.BOOL, true).in(NAME, CATEGORY);
+
+		/** The Constant PRIMITIVE_CONTAINERS. */
+		public static final Pref<Boolean> PRIMITIVE_CONTAINERS = create("pref_primitive_containers",
+				"Store the elements of lists of int and float, and the keys of maps of int, as primitive values instead of objects",
+				false, IType.BOOL, true).in(NAME, CATEGORY);
+
+		/** The Constant SPARSE_MATRICES. */
+		public static final Pref<Boolean> SPARSE_MATRICES = create("pref_sparse_matrices",
+				"Only store the non-null elements of the large matrices of int and float filled with 0",
+				false, IType.BOOL, true).in(NAME, CATEGORY);
+
 	}
 
 	/** The prefs. */
@@ -10,26 +10,33 @@
  ********************************************************************************************************/
 package msi.gama.common.util;
 
-import java.util.LinkedHashSet;
-import java.util.Queue;
+import java.util.Arrays;
 import java.util.Set;
-
-import com.google.common.collect.Queues;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.LongAdder;
 
 import msi.gama.common.interfaces.IDisposable;
 import msi.gama.common.preferences.GamaPreferences;
 import ummisco.gama.dev.utils.DEBUG;
 
 /**
- * The Class PoolUtils.
+ * The Class PoolUtils. Pools are striped to avoid contention between threads (for instance when species are executed
+ * in parallel): each thread gets and releases objects in its own small stack (its "magazine") and only exchanges them,
+ * by batches, with a shared overflow stack when it is empty or full.
  */
 public class PoolUtils {
 
 	/** The pools. */
-	static Set<ObjectPool> POOLS = new LinkedHashSet<>();
-	
+	static Set<ObjectPool> POOLS = new CopyOnWriteArraySet<>();
+
+	/** The number of objects kept by each thread in each pool. */
+	static final int MAGAZINE_SIZE = 64;
+
+	/** The maximal number of objects kept in the overflow stack of each pool. */
+	static final int OVERFLOW_SIZE = 4096;
+
 	/** The pool. */
-	static public boolean POOL = GamaPreferences.External.USE_POOLING.getValue();
+	static public volatile boolean POOL = GamaPreferences.External.USE_POOLING.getValue();
 	static {
 		DEBUG.OFF();
 		GamaPreferences.External.USE_POOLING.onChange(v -> {
@@ -45,9 +52,12 @@ public class PoolUtils {
 		if (!DEBUG.IS_ON()) return;
 		DEBUG.SECTION("Pool statistics");
 		POOLS.forEach(p -> {
-			long percentage = p.accessed == 0 ? 100 : 100 - (long) (p.created * 100d / p.accessed);
-			DEBUG.OUT(p.name, 30, "instances created " + p.created + " / instances asked " + p.accessed + " = "
-					+ percentage + "% of coverage");
+			final long accessed = p.accessed.sum();
+			final long created = p.created.sum();
+			long percentage = accessed == 0 ? 100 : 100 - (long) (created * 100d / accessed);
+			DEBUG.OUT(p.name, 30, "instances created " + created + " / instances asked " + accessed + " = "
+					+ percentage + "% of coverage; instances released " + p.released.sum() + " (discarded "
+					+ p.discarded.sum() + ")");
 		});
 	}
 
@@ -101,9 +111,10 @@ public class PoolUtils {
 		/** The name. */
 		private String name;
 		
-		/** The created. */
-		private long accessed, released, created;
-		
+		/** The statistics. Discarded counts the objects released when the overflow stack was full. */
+		private final LongAdder accessed = new LongAdder(), released = new LongAdder(), created = new LongAdder(),
+				discarded = new LongAdder();
+
 		/** The factory. */
 		private final ObjectFactory<T> factory;
 		
@@ -113,9 +124,18 @@ public class PoolUtils {
 		/** The cleaner. */
 		private final ObjectCleaner<T> cleaner;
 		
-		/** The objects. */
-		private final Queue<T> objects;
-		
+		/** The magazine of each thread. */
+		private final ThreadLocal<Magazine> magazines = ThreadLocal.withInitial(Magazine::new);
+
+		/** The overflow stack, shared by all the threads. Accesses are synchronized on it. */
+		private final Object[] overflow = new Object[OVERFLOW_SIZE];
+
+		/** The number of objects in the overflow stack. */
+		private int overflowSize;
+
+		/** Incremented when the pool is disposed, so that each magazine empties itself the next time it is used. */
+		private volatile int generation;
+
 		/** The active. */
 		public boolean active;
 
@@ -130,7 +150,73 @@ public class PoolUtils {
 			this.factory = factory;
 			this.copy = copy;
 			this.cleaner = cleaner;
-			objects = Queues.synchronizedDeque(Queues.newArrayDeque());
+		}
+
+		/**
+		 * The objects kept by one thread.
+		 */
+		private static final class Magazine {
+
+			/** The objects. */
+			final Object[] objects = new Object[MAGAZINE_SIZE];
+
+			/** The number of objects. */
+			int size;
+
+			/** The generation of the pool when the magazine was last emptied. */
+			int generation;
+		}
+
+		/**
+		 * Returns the magazine of the current thread, emptied if the pool has been disposed since its last use.
+		 *
+		 * @return the magazine
+		 */
+		private Magazine magazine() {
+			final Magazine m = magazines.get();
+			final int g = generation;
+			if (m.generation != g) {
+				Arrays.fill(m.objects, 0, m.size, null);
+				m.size = 0;
+				m.generation = g;
+			}
+			return m;
+		}
+
+		/**
+		 * Moves half a magazine of objects (at most) from the overflow stack to the (empty) magazine.
+		 *
+		 * @param m
+		 *            the magazine
+		 */
+		private void refill(final Magazine m) {
+			synchronized (overflow) {
+				final int n = Math.min(overflowSize, MAGAZINE_SIZE / 2);
+				overflowSize -= n;
+				System.arraycopy(overflow, overflowSize, m.objects, 0, n);
+				Arrays.fill(overflow, overflowSize, overflowSize + n, null);
+				m.size = n;
+			}
+		}
+
+		/**
+		 * Moves half of the (full) magazine to the overflow stack. The objects that do not fit in it are left to the
+		 * garbage collector.
+		 *
+		 * @param m
+		 *            the magazine
+		 */
+		private void spill(final Magazine m) {
+			final int half = MAGAZINE_SIZE / 2;
+			final int n;
+			synchronized (overflow) {
+				n = Math.min(half, OVERFLOW_SIZE - overflowSize);
+				System.arraycopy(m.objects, MAGAZINE_SIZE - half, overflow, overflowSize, n);
+				overflowSize += n;
+			}
+			if (n < half) { discarded.add(half - n); }
+			Arrays.fill(m.objects, MAGAZINE_SIZE - half, MAGAZINE_SIZE, null);
+			m.size -= half;
 		}
 
 		/**
@@ -138,15 +224,18 @@ public class PoolUtils {
 		 *
 		 * @return the t
 		 */
+		@SuppressWarnings ("unchecked")
 		public T get() {
 			if (!POOL || !active) return factory.createNew();
-			accessed++;
-
-			T result = objects.poll();
-			if (result == null) {
-				created++;
-				result = factory.createNew();
+			accessed.increment();
+			final Magazine m = magazine();
+			if (m.size == 0) { refill(m); }
+			if (m.size == 0) {
+				created.increment();
+				return factory.createNew();
 			}
+			final T result = (T) m.objects[--m.size];
+			m.objects[m.size] = null;
 			return result;
 		}
 
@@ -170,10 +259,13 @@ public class PoolUtils {
 		public void release(@SuppressWarnings ("unchecked") final T... tt) {
 			if (tt == null) return;
 			for (T t : tt) {
+				if (t == null) { continue; }
 				if (cleaner != null) { cleaner.clean(t); }
 				if (POOL && active) {
-					released++;
-					objects.offer(t);
+					released.increment();
+					final Magazine m = magazine();
+					if (m.size == MAGAZINE_SIZE) { spill(m); }
+					m.objects[m.size++] = t;
 				}
 			}
 
@@ -181,7 +273,11 @@ public class PoolUtils {
 
 		@Override
 		public void dispose() {
-			objects.clear();
+			synchronized (overflow) {
+				Arrays.fill(overflow, 0, overflowSize, null);
+				overflowSize = 0;
+				generation++;
+			}
 		}
 	}
 
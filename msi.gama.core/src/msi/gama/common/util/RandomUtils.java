@@ -16,14 +16,23 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Random;
+import java.util.stream.IntStream;
 
 import msi.gama.common.interfaces.IKeyword;
 import msi.gama.common.preferences.GamaPreferences;
+import msi.gama.kernel.experiment.IExperimentAgent;
+import msi.gama.kernel.experiment.ITopLevelAgent;
+import msi.gama.kernel.simulation.SimulationAgent;
+import msi.gama.kernel.simulation.SimulationClock;
+import msi.gama.metamodel.agent.IAgent;
 import msi.gama.metamodel.shape.GamaPoint;
+import msi.gama.runtime.IScope;
+import msi.gama.runtime.concurrent.GamaExecutorService;
 import msi.gama.util.random.IGamaRNG;
 import msi.gama.util.random.JavaRNG;
 import msi.gama.util.random.MersenneTwisterRNG;
 import msi.gama.util.random.ParallelMersenneTwisterRNG;
+import msi.gama.util.random.PhiloxRNG;
 import msi.gama.util.random.ThreadLocalRNG;
 import msi.gaml.operators.Maths;
 
@@ -39,7 +48,7 @@ public class RandomUtils {
 
 	/** The Constant DOC. */
 	public static final String DOC =
-			"The random number generator to use. Four different ones are at the disposal of the modeler: " + "'"
+			"The random number generator to use. Five different ones are at the disposal of the modeler: " + "'"
 					+ IKeyword.MERSENNE + "'"
 					+ " represents the default generator, based on the Mersenne-Twister algorithm. Very reliable, fast and deterministic (that is, using the same seed and the same sequence of calls, it will return the same stream of pseudo-random numbers). This algorithm is however not safe to use in simulations where agents can behave in parallel; "
 					+ "'threaded'"
@@ -47,7 +56,9 @@ public class RandomUtils {
 					+ "'" + IKeyword.PARALLEL + "'"
 					+ " is a version of the Mersenne-Twister algorithm that can be safely used in parallel simulations by preventing a concurrent access to its internal state. Determinism is guaranteed (in terms of generation, but not in terms of execution, as the sequence in which the threads will access it cannot be determined) and it performs a bit slower than its base version."
 					+ "'" + IKeyword.JAVA + "'"
-					+ " invokes the standard generator provided by the JDK, deterministic and thread-safe, albeit slower than all the other ones";
+					+ " invokes the standard generator provided by the JDK, deterministic and thread-safe, albeit slower than all the other ones;"
+					+ "'philox'"
+					+ " is a counter-based generator, based on the Philox algorithm, that can be safely used in parallel simulations without locks. Each agent draws its numbers from its own stream, derived from the seed, the cycle and its identity, when it is initialized or stepped, and when it is asked with the 'parallel' facet: determinism is guaranteed, whatever the number of threads and the order in which agents are executed";
 
 	/**
 	 * The Enum GeneratorNames.
@@ -64,7 +75,10 @@ public class RandomUtils {
 				" invokes the standard generator provided by the JDK, deterministic and thread-safe, albeit slower than all the other ones; "),
 		/** The threaded. */
 		THREADED("threaded",
-				" is a very fast generator, based on the DotMix algorithm, that can be safely used in parallel simulations as it creates one instance per thread. However, determinism cannot be guaranteed and this algorithm does not accept a seed as each instance will compute its own; ");
+				" is a very fast generator, based on the DotMix algorithm, that can be safely used in parallel simulations as it creates one instance per thread. However, determinism cannot be guaranteed and this algorithm does not accept a seed as each instance will compute its own; "),
+		/** The philox. */
+		PHILOX("philox",
+				" is a counter-based generator, based on the Philox algorithm, that can be safely used in parallel simulations without locks. Each agent draws its numbers from its own stream, derived from the seed, the cycle and its identity, when it is initialized or stepped, and when it is asked with the 'parallel' facet: determinism is guaranteed, whatever the number of threads and the order in which agents are executed; ");
 
 		/** The name. */
 		private String name;
@@ -109,6 +123,28 @@ public class RandomUtils {
 		}
 	}
 
+	/** The number of values drawn from the same stream when an array is filled by the 'philox' generator. */
+	private static final int CHUNK = 1 << 14;
+
+	/**
+	 * Draws the values of a part of an array.
+	 */
+	@FunctionalInterface
+	private interface ChunkFiller {
+
+		/**
+		 * Fills the positions from (inclusive) to (exclusive) with values drawn from the generator.
+		 *
+		 * @param rng
+		 *            the rng
+		 * @param from
+		 *            the from
+		 * @param to
+		 *            the to
+		 */
+		void fill(IGamaRNG rng, int from, int to);
+	}
+
 	/** The Constant SEED_SOURCE. */
 	private static final SecureRandom SEED_SOURCE = new SecureRandom();
 
@@ -158,11 +194,98 @@ public class RandomUtils {
 			case JAVA -> new JavaRNG(this);
 			case THREADED -> new ThreadLocalRNG(this);
 			case PARALLEL -> new ParallelMersenneTwisterRNG(this);
+			case PHILOX -> new PhiloxRNG(this);
 			default -> new MersenneTwisterRNG(this);
 		};
 
 	}
 
+	/**
+	 * Whether the generator draws numbers from one stream per agent (see {@link #enterStream(IScope, IAgent, boolean)}).
+	 *
+	 * @return true, if successful
+	 */
+	public boolean hasStreams() {
+		return generator instanceof PhiloxRNG;
+	}
+
+	/**
+	 * Makes the current thread draw numbers from the stream of an agent, in the current cycle, if the generator
+	 * supports it. The identity of the agent is made of its species and index, and of those of its hosts.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param agent
+	 *            the agent
+	 * @param init
+	 *            whether the agent is initialized (or stepped)
+	 * @return the stream previously used by the thread, to pass to {@link #leaveStream(Object)}
+	 */
+	public Object enterStream(final IScope scope, final IAgent agent, final boolean init) {
+		if (!(generator instanceof PhiloxRNG)) return null;
+		final SimulationClock clock = scope.getClock();
+		return enterStream(PhiloxRNG.mix(clock == null ? 0 : clock.getCycle(), init ? 1 : 2), agent);
+	}
+
+	/**
+	 * Makes the current thread draw numbers from the stream of an agent derived from a base (see
+	 * {@link #nextStreamBase()}), if the generator supports it. The identity of the agent is made of its species and
+	 * index, and of those of its hosts.
+	 *
+	 * @param base
+	 *            the base of the identifier of the stream
+	 * @param agent
+	 *            the agent
+	 * @return the stream previously used by the thread, to pass to {@link #leaveStream(Object)}
+	 */
+	public Object enterStream(final long base, final IAgent agent) {
+		if (!(generator instanceof PhiloxRNG rng)) return null;
+		long id = base;
+		for (IAgent a = agent; a != null; a = a.getHost()) {
+			id = PhiloxRNG.mix(id, (long) a.getSpeciesName().hashCode() << 32 | a.getIndex() & 0xFFFFFFFFL);
+		}
+		return rng.enterStream(id);
+	}
+
+	/**
+	 * Draws from the current stream the base of the identifiers of new streams, for instance those of the agents
+	 * asked in parallel (see {@link #enterStream(long, IAgent)}). As it is drawn by the thread that creates these
+	 * streams, before they are used, the numbers drawn from them do not depend on the number of threads.
+	 *
+	 * @return the base, or 0 if the generator does not support streams
+	 */
+	public long nextStreamBase() {
+		if (!(generator instanceof PhiloxRNG rng)) return 0;
+		return (long) rng.nextInt() << 32 ^ rng.nextInt() & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * Returns the random number generator of the root of a scope if it draws numbers from one stream per agent, null
+	 * otherwise.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @return the random utils
+	 */
+	public static RandomUtils getStreamedRandom(final IScope scope) {
+		final ITopLevelAgent root = scope.getRoot();
+		// The platform agent creates a new generator each time
+		if (!(root instanceof SimulationAgent) && !(root instanceof IExperimentAgent)) return null;
+		final RandomUtils random = root.getRandomGenerator();
+		return random != null && random.hasStreams() ? random : null;
+	}
+
+	/**
+	 * Makes the current thread go back to the stream it used before the last call to
+	 * {@link #enterStream(IScope, IAgent, boolean)}.
+	 *
+	 * @param previous
+	 *            the value returned by enterStream()
+	 */
+	public void leaveStream(final Object previous) {
+		if (generator instanceof PhiloxRNG rng) { rng.leaveStream(previous); }
+	}
+
 	/**
 	 * Sets the usage.
 	 *
@@ -441,6 +564,113 @@ public class RandomUtils {
 		return generator.nextDouble();
 	}
 
+	/**
+	 * Fills an array of the given length. The generators draw the values in sequence, like successive calls to the
+	 * scalar methods would do, except the 'philox' generator: the array is split in chunks, each drawn from its own
+	 * stream (derived from a value drawn from the current one), which are filled in parallel. The result only depends
+	 * on the state of the current stream, not on the number of threads.
+	 *
+	 * @param length
+	 *            the length of the array
+	 * @param filler
+	 *            the filler
+	 */
+	private void fill(final int length, final ChunkFiller filler) {
+		if (!(generator instanceof PhiloxRNG rng)) {
+			filler.fill(generator, 0, length);
+			return;
+		}
+		final long base = nextStreamBase();
+		final int chunks = (length + CHUNK - 1) / CHUNK;
+		final IntStream stream = IntStream.range(0, chunks);
+		final Runnable r = () -> (chunks > 1 ? stream.parallel() : stream).forEach(c -> {
+			final Object previous = rng.enterStream(PhiloxRNG.mix(base, c));
+			try {
+				filler.fill(rng, c * CHUNK, Math.min(length, (c + 1) * CHUNK));
+			} finally {
+				rng.leaveStream(previous);
+			}
+		});
+		if (chunks > 1) {
+			GamaExecutorService.executeThreaded(r);
+		} else {
+			r.run();
+		}
+	}
+
+	/**
+	 * Fills an array with uniformly distributed floats in [min, max] (see {@link #between(double, double)}).
+	 *
+	 * @param values
+	 *            the values
+	 * @param min
+	 *            the min
+	 * @param max
+	 *            the max
+	 */
+	public void fillBetween(final double[] values, final double min, final double max) {
+		final double range = max + Double.MIN_VALUE - min;
+		fill(values.length, (rng, from, to) -> {
+			for (int i = from; i < to; i++) { values[i] = min + range * rng.nextDouble(); }
+		});
+	}
+
+	/**
+	 * Fills an array with uniformly distributed ints in [min, max] (see {@link #between(int, int)}).
+	 *
+	 * @param values
+	 *            the values
+	 * @param min
+	 *            the min
+	 * @param max
+	 *            the max
+	 */
+	public void fillBetween(final int[] values, final int min, final int max) {
+		final long range = 1L + max - min;
+		fill(values.length, (rng, from, to) -> {
+			for (int i = from; i < to; i++) { values[i] = (int) (min + (long) (range * rng.nextDouble())); }
+		});
+	}
+
+	/**
+	 * Fills an array with normally distributed floats (see {@link #createGaussian(double, double)}).
+	 *
+	 * @param values
+	 *            the values
+	 * @param mean
+	 *            the mean
+	 * @param stdv
+	 *            the stdv
+	 */
+	public void fillGaussian(final double[] values, final double mean, final double stdv) {
+		fill(values.length, (rng, from, to) -> {
+			for (int i = from; i < to; i++) { values[i] = rng.nextGaussian() * stdv + mean; }
+		});
+	}
+
+	/**
+	 * Fills an array with ints following a Poisson distribution (drawn like the 'poisson' operator does).
+	 *
+	 * @param values
+	 *            the values
+	 * @param mean
+	 *            the mean
+	 */
+	public void fillPoisson(final int[] values, final double mean) {
+		fill(values.length, (rng, from, to) -> {
+			for (int i = from; i < to; i++) {
+				int x = 0;
+				double t = 0.0;
+				while (true) {
+					t -= Math.log(rng.nextDouble()) / mean;
+					if (t > 1.0) { break; }
+					++x;
+				}
+				values[i] = x;
+			}
+		});
+	}
+
 	/**
 	 * @return
 	 */
@@ -325,7 +325,7 @@ public class BatchAgent extends ExperimentAgent {
 		List<Map<String, Object>> simsToRun = new Vector<>();
 
 		for (int i = 0; i < nb; i++) { simsToRun.add(sims.remove(0)); }
-		Map<IAgent, ParametersSet> simToParameter = GamaMapFactory.create();
+		Map<IAgent, ParametersSet> simToParameter = GamaMapFactory.createAgentMap();
 		Iterator<Map<String, Object>> it = simsToRun.iterator();
 		while (it.hasNext()) { createSimulation(it.next(), simToParameter); }
 
@@ -393,6 +393,11 @@ public class PlatformAgent extends GamlAgent implements ITopLevelAgent, IExpress
 		return this;
 	}
 
+	@Override
+	public int intValue(final IScope scope) {
+		return ITopLevelAgent.super.intValue(scope);
+	}
+
 	@Override
 	public boolean isConst() { return false; }
 
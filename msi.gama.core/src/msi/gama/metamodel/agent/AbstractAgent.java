@@ -127,6 +127,7 @@ public abstract class AbstractAgent implements IAgent {
 		if (s != null) { s.dispose(); }
 		if (attributes != null) {
 			attributes.clear();
+			if (p != null) { p.releaseAttributes(attributes); }
 			attributes = null;
 		}
 	}
@@ -195,7 +196,10 @@ public abstract class AbstractAgent implements IAgent {
 	 */
 	@Override
 	public IMap<String, Object> getAttributes(final boolean createIfNeeded) {
-		if (attributes == null && createIfNeeded) { attributes = GamaMapFactory.create(Types.STRING, Types.NO_TYPE); }
+		if (attributes == null && createIfNeeded) {
+			final IPopulation<? extends IAgent> p = getPopulation();
+			attributes = p == null ? GamaMapFactory.create(Types.STRING, Types.NO_TYPE) : p.createAttributes();
+		}
 		return attributes;
 	}
 
@@ -22,15 +22,21 @@ import static msi.gama.common.interfaces.IKeyword.TARGET;
 import static msi.gaml.descriptions.VariableDescription.INIT_DEPENDENCIES_FACETS;
 import static msi.gaml.descriptions.VariableDescription.UPDATE_DEPENDENCIES_FACETS;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jgrapht.graph.DirectedAcyclicGraph;
 
@@ -57,13 +63,16 @@ import msi.gama.runtime.GAMA;
 import msi.gama.runtime.IScope;
 import msi.gama.runtime.benchmark.StopWatch;
 import msi.gama.runtime.concurrent.GamaExecutorService;
+import msi.gama.runtime.concurrent.ParallelAgentRunner;
 import msi.gama.runtime.exceptions.GamaRuntimeException;
 import msi.gama.util.GamaList;
 import msi.gama.util.GamaListFactory;
 import msi.gama.util.GamaMapFactory;
 import msi.gama.util.IContainer;
 import msi.gama.util.IList;
+import msi.gama.util.IMap;
 import msi.gama.util.graph.AbstractGraphNodeAgent;
+import msi.gaml.architecture.reflex.ReflexGuard;
 import msi.gaml.compilation.IAgentConstructor;
 import msi.gaml.descriptions.ActionDescription;
 import msi.gaml.descriptions.TypeDescription;
@@ -74,9 +83,11 @@ import msi.gaml.species.ISpecies;
 import msi.gaml.statements.IExecutable;
 import msi.gaml.statements.RemoteSequence;
 import msi.gaml.types.GamaTopologyType;
+import msi.gaml.types.GamaType;
 import msi.gaml.types.IType;
 import msi.gaml.types.Types;
 import msi.gaml.variables.IVariable;
+import msi.gaml.variables.Variable;
 import ummisco.gama.dev.utils.DEBUG;
 
 /**
@@ -91,6 +102,41 @@ public class GamaPopulation<T extends IAgent> extends GamaList<T> implements IPo
 		DEBUG.ON();
 	}
 
+	/** The number of attribute maps a recycling population can always keep, whatever its size */
+	private static final int MIN_ATTRIBUTES_POOL = 1024;
+
+	/** The pools of the living populations that recycle attribute maps, so that benchmarks can report their use */
+	private static final Map<AttributesPool, String> ATTRIBUTES_POOLS = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the number of attribute maps created and reused by the pools of the living populations that recycle
+	 * them, to be passed later to {@link #describeAttributesPools(Map)}.
+	 *
+	 * @return the number of maps created and reused by each pool
+	 */
+	public static Map<Object, long[]> getAttributesPools() {
+		final Map<Object, long[]> result = new HashMap<>();
+		ATTRIBUTES_POOLS.keySet().forEach(pool -> result.put(pool, pool.counts()));
+		return result;
+	}
+
+	/**
+	 * Describes the use of the attribute maps of the recycling populations since a previous call to
+	 * {@link #getAttributesPools()}.
+	 *
+	 * @param before
+	 *            the number of maps created and reused by each pool at that time
+	 * @return the description, empty if no population has created or reused maps in the meantime
+	 */
+	public static String describeAttributesPools(final Map<Object, long[]> before) {
+		final StringBuilder sb = new StringBuilder();
+		ATTRIBUTES_POOLS.forEach((pool, species) -> {
+			final String use = pool.describeSince(before.getOrDefault(pool, new long[2]));
+			if (use != null) { sb.append("\n  population of '").append(species).append("': ").append(use); }
+		});
+		return sb.toString();
+	}
+
 	/**
 	 * The agent hosting this population which is considered as the direct macro-agent.
 	 */
@@ -107,6 +153,15 @@ public class GamaPopulation<T extends IAgent> extends GamaList<T> implements IPo
 	/** The updatable vars. */
 	protected final IVariable[] orderedVars, updatableVars;
 
+	/**
+	 * The updatable variables that only depend on the agent itself (and can be updated in bulk before the step of the
+	 * population) and the other ones
+	 */
+	private final IVariable[] bulkUpdatableVars, sequentialUpdatableVars;
+
+	/** The indices of the agents whose variables have been updated in bulk during the current step, if any */
+	private volatile BitSet updatedInBulk;
+
 	/** The current agent index. */
 	protected int currentAgentIndex;
 
@@ -124,6 +179,93 @@ public class GamaPopulation<T extends IAgent> extends GamaList<T> implements IPo
 	 */
 	private final PopulationNotifier notifier = new PopulationNotifier();
 
+	/**
+	 * The indexes of the reflex guards evaluated by the agents of this population, created in a lazy way
+	 */
+	private final Map<ReflexGuard, ReflexGuard.Index> guardIndexes = new ConcurrentHashMap<>();
+
+	/** The array of agents used to step this population and the version of the list it corresponds to */
+	private volatile IAgent[] agentsArray;
+
+	/** The agents array version. */
+	private int agentsArrayVersion;
+
+	/** The pool of attribute maps released by dead agents. Null if the species does not declare 'recycle: true' */
+	private final AttributesPool attributesPool;
+
+	/**
+	 * A bounded pool of the (cleared) attribute maps of the dead agents of a population, which are handed back to the
+	 * agents created afterwards. Agents can die and be created concurrently, hence the synchronization.
+	 */
+	private static class AttributesPool {
+
+		/** The maps available for reuse. */
+		final Deque<IMap<String, Object>> maps = new ArrayDeque<>();
+
+		/** The number of maps created and reused by the pool. */
+		long created, reused;
+
+		/**
+		 * Returns a map, either reused or created.
+		 *
+		 * @return the map
+		 */
+		synchronized IMap<String, Object> get() {
+			final IMap<String, Object> result = maps.poll();
+			if (result != null) {
+				reused++;
+				return result;
+			}
+			created++;
+			return GamaMapFactory.create(Types.STRING, Types.NO_TYPE);
+		}
+
+		/**
+		 * Gives a cleared map back to the pool, unless the pool is larger than the population itself.
+		 *
+		 * @param map
+		 *            the map
+		 * @param limit
+		 *            the maximal number of maps to keep
+		 */
+		synchronized void release(final IMap<String, Object> map, final int limit) {
+			if (maps.size() < limit) { maps.push(map); }
+		}
+
+		/**
+		 * Returns the number of maps created and reused so far.
+		 *
+		 * @return an array containing the number of maps created and the number of maps reused
+		 */
+		synchronized long[] counts() {
+			return new long[] { created, reused };
+		}
+
+		/**
+		 * Describes the use of the pool since a previous call to {@link #counts()}.
+		 *
+		 * @param before
+		 *            the number of maps created and reused at that time
+		 * @return the number of maps created and reused since then, and the ratio of reuse, or null if no map has
+		 *         been requested
+		 */
+		synchronized String describeSince(final long[] before) {
+			final long newlyCreated = created - before[0];
+			final long newlyReused = reused - before[1];
+			final long total = newlyCreated + newlyReused;
+			if (total == 0) return null;
+			return newlyCreated + " attribute map(s) created, " + newlyReused + " reused ("
+					+ newlyReused * 100 / total + "%)";
+		}
+
+		/**
+		 * Empties the pool.
+		 */
+		synchronized void dispose() {
+			maps.clear();
+		}
+	}
+
 	/** The ordered var names. */
 	public final LinkedHashSet<String> orderedVarNames = new LinkedHashSet<>();
 
@@ -280,11 +422,27 @@ public class GamaPopulation<T extends IAgent> extends GamaList<T> implements IPo
 		orderedVars = orderAttributes(this, ecd, Predicates.alwaysTrue(), INIT_DEPENDENCIES_FACETS);
 		for (IVariable v : orderedVars) { orderedVarNames.add(v.getName()); }
 		updatableVars = orderAttributes(this, ecd, VariableDescription::isUpdatable, UPDATE_DEPENDENCIES_FACETS);
+		final Set<String> bulk = new HashSet<>();
+		final List<IVariable> bulkVars = new ArrayList<>(), sequentialVars = new ArrayList<>();
+		for (final IVariable v : updatableVars) {
+			if (v instanceof Variable var && var.isUpdateIndependent(n -> canBeReadInBulkUpdate(n, bulk))) {
+				bulk.add(v.getName());
+				bulkVars.add(v);
+			} else {
+				sequentialVars.add(v);
+			}
+		}
+		bulkUpdatableVars = bulkVars.toArray(new IVariable[bulkVars.size()]);
+		sequentialUpdatableVars = sequentialVars.toArray(new IVariable[sequentialVars.size()]);
 		if (species.isMirror() && host != null) {
 			mirrorManagement = new MirrorPopulationManagement(species.getFacet(MIRRORS));
 		} else {
 			mirrorManagement = null;
 		}
+		final IExpression recycle = species.getFacet(IKeyword.RECYCLE);
+		attributesPool = recycle != null && recycle.isConst() && Cast.asBool(null, recycle.getConstValue())
+				? new AttributesPool() : null;
+		if (attributesPool != null) { ATTRIBUTES_POOLS.put(attributesPool, species.getName()); }
 
 		/*
 		 * PATRICK TAILLANDIER: the problem of having the host here is that depending on the simulation the hashcode
@@ -358,8 +516,11 @@ public class GamaPopulation<T extends IAgent> extends GamaList<T> implements IPo
 	 */
 	@Override
 	public IList<T> listValue(final IScope scope, final IType contentsType, final boolean copy) {
-		if (copy) return GamaListFactory.create(scope, contentsType, this);
-		return this;
+		if (!copy) return this;
+		// The agents array is never modified (only rebuilt when agents are added or removed): copies can share it
+		if (!GamaType.requiresCasting(contentsType, getGamlType().getContentType()))
+			return GamaListFactory.copyOnWrite(contentsType, (T[]) getAgentsArray());
+		return GamaListFactory.create(scope, contentsType, this);
 	}
 
 	/**
@@ -370,9 +531,71 @@ public class GamaPopulation<T extends IAgent> extends GamaList<T> implements IPo
 		return listValue(scope, getGamlType().getContentType(), true);
 	}
 
+	/**
+	 * Whether an attribute can be read by the 'update:' expression of a variable updated in bulk. Attributes computed
+	 * by Java code cannot, nor can the updatable ones that are not themselves updated in bulk (as the bulk update
+	 * would then read their previous value).
+	 *
+	 * @param name
+	 *            the name of the attribute
+	 * @param bulk
+	 *            the names of the variables already known to be updated in bulk
+	 * @return true, if successful
+	 */
+	private boolean canBeReadInBulkUpdate(final String name, final Set<String> bulk) {
+		if (bulk.contains(name) || LOCATION.equals(name)) return true;
+		final IVariable var = species.getVar(name);
+		return var instanceof Variable v && !v.isUpdatable() && v.getter == null && !v.isFunction();
+	}
+
+	/**
+	 * Updates in parallel, before the population is stepped, the variables of the agents whose 'update:' facet only
+	 * depends on the agent itself. These variables are then skipped when the agents update their variables during
+	 * their step, until {@link #clearBulkUpdate()} is called. Only done if enabled in the preferences and if the
+	 * agents are themselves stepped in parallel, i.e. if the species is not declared with 'parallel: false' and if
+	 * there are more agents than the threshold it uses.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param agents
+	 *            the agents about to be stepped
+	 * @param threshold
+	 *            the parallelism of the species, as returned by {@link GamaExecutorService#getParallelism}
+	 * @return true if the variables have been updated
+	 */
+	public boolean updateVariablesInBulk(final IScope scope, final IAgent[] agents, final int threshold) {
+		if (threshold == 0 || agents.length <= threshold || bulkUpdatableVars.length == 0
+				|| !GamaExecutorService.CONCURRENCY_UPDATES.getValue())
+			return false;
+		final BitSet updated = new BitSet();
+		ParallelAgentRunner.execute(scope, s -> {
+			final IAgent a = s.getAgent();
+			for (final IVariable v : bulkUpdatableVars) {
+				try (StopWatch w = GAMA.benchmark(s, v)) {
+					s.setCurrentSymbol(v);
+					s.setAgentVarValue(a, v.getName(), v.getUpdatedValue(s));
+				}
+			}
+			s.setCurrentSymbol(null);
+			return null;
+		}, agents, threshold);
+		for (final IAgent a : agents) { if (a != null && !a.dead()) { updated.set(a.getIndex()); } }
+		updatedInBulk = updated;
+		return true;
+	}
+
+	/**
+	 * Ends the step of the population: the agents will update again all their variables.
+	 */
+	public void clearBulkUpdate() {
+		updatedInBulk = null;
+	}
+
 	@Override
 	public void updateVariables(final IScope scope, final IAgent a) {
-		for (final IVariable v : updatableVars) {
+		final BitSet bulk = updatedInBulk;
+		final IVariable[] vars = bulk != null && bulk.get(a.getIndex()) ? sequentialUpdatableVars : updatableVars;
+		for (final IVariable v : vars) {
 			try (StopWatch w = GAMA.benchmark(scope, v)) {
 				scope.setCurrentSymbol(v);
 				scope.setAgentVarValue(a, v.getName(), v.getUpdatedValue(scope));
@@ -457,6 +680,12 @@ public class GamaPopulation<T extends IAgent> extends GamaList<T> implements IPo
 	public void dispose() {
 		killMembers();
 		clear();
+		guardIndexes.clear();
+		agentsArray = null;
+		if (attributesPool != null) {
+			ATTRIBUTES_POOLS.remove(attributesPool);
+			attributesPool.dispose();
+		}
 		final IScope scope = getHost() == null ? GAMA.getRuntimeScope() : getHost().getScope();
 		firePopulationCleared(scope);
 		if (topology != null) {
@@ -471,6 +700,31 @@ public class GamaPopulation<T extends IAgent> extends GamaList<T> implements IPo
 		return (T[]) super.toArray(new IAgent[0]);
 	}
 
+	/**
+	 * Returns a dense array of the agents of this population, which is only rebuilt when agents have been added or
+	 * removed since the last call (using the modification count of the list). The array returned must not be
+	 * modified, as it is shared between successive steps.
+	 *
+	 * @return the agents array
+	 */
+	public IAgent[] getAgentsArray() {
+		final int version = modCount;
+		IAgent[] result = agentsArray;
+		if (result == null || agentsArrayVersion != version) {
+			result = super.toArray(new IAgent[size()]);
+			agentsArrayVersion = version;
+			agentsArray = result;
+		}
+		return result;
+	}
+
+	@Override
+	public T set(final int index, final T element) {
+		// set() does not change the modification count of the list
+		agentsArray = null;
+		return super.set(index, element);
+	}
+
 	/**
 	 * Special case for creating agents directly from geometries
 	 *
@@ -603,6 +857,7 @@ public class GamaPopulation<T extends IAgent> extends GamaList<T> implements IPo
 			final List<? extends Map<String, Object>> initialValues) throws GamaRuntimeException {
 		if (agents == null || agents.isEmpty()) return;
 		final boolean empty = initialValues == null || initialValues.isEmpty();
+		final boolean concurrent = createIndependentVariablesFor(scope, agents, empty ? null : initialValues);
 		Map<String, Object> inits;
 		for (int i = 0, n = agents.size(); i < n; i++) {
 			final IAgent a = agents.get(i);
@@ -610,6 +865,7 @@ public class GamaPopulation<T extends IAgent> extends GamaList<T> implements IPo
 			for (final IVariable var : orderedVars) {
 				final Object initGet =
 						empty || !allowVarInitToBeOverridenByExternalInit(var) ? null : inits.get(var.getName());
+				if (concurrent && isInitializationIndependent(var, initGet)) { continue; }
 				var.initializeWith(scope, a, initGet);
 			}
 			// Added to fix #3266 -- saves the values of the "extra" attributes found in the files
@@ -619,6 +875,58 @@ public class GamaPopulation<T extends IAgent> extends GamaList<T> implements IPo
 		}
 	}
 
+	/**
+	 * Initializes, in parallel, the variables of the agents whose initialization does not depend on other agents or
+	 * variables (i.e. whose value is constant or provided in the initial values, like the rows of a file). As these
+	 * variables do not depend on anything, initializing them before the others does not change the result. The
+	 * remaining ones, including the built-in ones, are left to the sequential initialization.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param agents
+	 *            the agents, created with consecutive indices
+	 * @param initialValues
+	 *            the initial values (or null)
+	 * @return true if the independent variables have been initialized
+	 */
+	private boolean createIndependentVariablesFor(final IScope scope, final List<T> agents,
+			final List<? extends Map<String, Object>> initialValues) {
+		final int n = agents.size();
+		final int threshold = GamaExecutorService.CONCURRENCY_THRESHOLD.getValue();
+		if (!GamaExecutorService.CONCURRENCY_CREATION.getValue() || n <= threshold) return false;
+		final int first = agents.get(0).getIndex();
+		// The initial values are retrieved using the indices of the agents
+		if (initialValues != null && agents.get(n - 1).getIndex() - first != n - 1) return false;
+		final IVariable[] vars = Iterables.toArray(Iterables.filter(Arrays.asList(orderedVars),
+				v -> v instanceof Variable var && var.isInitializationIndependent(initialValues != null)),
+				IVariable.class);
+		if (vars.length == 0) return false;
+		ParallelAgentRunner.execute(scope, s -> {
+			final IAgent a = s.getAgent();
+			final Map<String, Object> inits = initialValues == null ? EMPTY_MAP : initialValues.get(a.getIndex() - first);
+			for (final IVariable var : vars) {
+				final Object initGet = initialValues == null || !allowVarInitToBeOverridenByExternalInit(var) ? null
+						: inits.get(var.getName());
+				if (isInitializationIndependent(var, initGet)) { var.initializeWith(s, a, initGet); }
+			}
+			return null;
+		}, agents.toArray(new IAgent[n]), threshold);
+		return true;
+	}
+
+	/**
+	 * Whether this variable can be initialized independently of the others, given its initial value.
+	 *
+	 * @param var
+	 *            the var
+	 * @param initGet
+	 *            the initial value provided for this variable, or null
+	 * @return true, if successful
+	 */
+	private static boolean isInitializationIndependent(final IVariable var, final Object initGet) {
+		return var instanceof Variable v && v.isInitializationIndependent(initGet != null);
+	}
+
 	/**
 	 * Allow var init to be overriden by external init.
 	 *
@@ -661,6 +969,33 @@ public class GamaPopulation<T extends IAgent> extends GamaList<T> implements IPo
 		return species.getVar(s);
 	}
 
+	@Override
+	public ReflexGuard.Index getGuardIndex(final ReflexGuard guard) {
+		if (!ReflexGuard.ENABLED) return null;
+		// Published empty, then filled, so that the writes made meanwhile are reported to it
+		final ReflexGuard.Index index = guardIndexes.computeIfAbsent(guard, g -> g.createIndexFor(this));
+		index.fill(this);
+		return index;
+	}
+
+	@Override
+	public void attributeChanged(final IAgent agent, final String attribute, final Object value) {
+		for (final ReflexGuard.Index index : guardIndexes.values()) {
+			if (attribute.equals(index.getAttribute())) { index.update(agent, value); }
+		}
+	}
+
+	@Override
+	public IMap<String, Object> createAttributes() {
+		if (attributesPool == null) return IPopulation.super.createAttributes();
+		return attributesPool.get();
+	}
+
+	@Override
+	public void releaseAttributes(final IMap<String, Object> attributes) {
+		if (attributesPool != null) { attributesPool.release(attributes, Math.max(MIN_ATTRIBUTES_POOL, size())); }
+	}
+
 	@Override
 	public boolean hasUpdatableVariables() {
 		return updatableVars.length > 0;
@@ -26,10 +26,14 @@ import msi.gama.metamodel.topology.ITopology;
 import msi.gama.runtime.IScope;
 import msi.gama.runtime.exceptions.GamaRuntimeException;
 import msi.gama.util.IContainer;
+import msi.gama.util.GamaMapFactory;
 import msi.gama.util.IList;
+import msi.gama.util.IMap;
+import msi.gaml.architecture.reflex.ReflexGuard;
 import msi.gaml.species.ISpecies;
 import msi.gaml.statements.IExecutable;
 import msi.gaml.statements.RemoteSequence;
+import msi.gaml.types.Types;
 import msi.gaml.variables.IVariable;
 
 /**
@@ -435,4 +439,48 @@ public interface IPopulation<T extends IAgent>
 	 */
 	T getOrCreateAgent(final IScope scope, final Integer index);
 
-}
\ No newline at end of file
+	/**
+	 * Returns the index maintained by this population for the reflex guard passed in parameter, creating it if
+	 * necessary. Returns null if the population does not support the indexing of guards (or if it is disabled).
+	 *
+	 * @param guard
+	 *            the guard
+	 * @return the index of the guard or null
+	 */
+	default ReflexGuard.Index getGuardIndex(final ReflexGuard guard) {
+		return null;
+	}
+
+	/**
+	 * Called when an indexed attribute of one of the agents of this population is written, in order to maintain the
+	 * indexes of reflex guards
+	 *
+	 * @param agent
+	 *            the agent
+	 * @param attribute
+	 *            the name of the attribute
+	 * @param value
+	 *            the new value of the attribute
+	 */
+	default void attributeChanged(final IAgent agent, final String attribute, final Object value) {}
+
+	/**
+	 * Returns a new, empty, map to store the attributes of one of the agents of this population. Populations that
+	 * recycle attribute maps (see {@link #releaseAttributes(IMap)}) may return a map previously used by a dead agent
+	 *
+	 * @return an empty map
+	 */
+	default IMap<String, Object> createAttributes() {
+		return GamaMapFactory.create(Types.STRING, Types.NO_TYPE);
+	}
+
+	/**
+	 * Called when an agent of this population dies, with its (already cleared) map of attributes, so that the
+	 * population can reuse it for the next agents it creates. Does nothing by default
+	 *
+	 * @param attributes
+	 *            the attributes, cleared
+	 */
+	default void releaseAttributes(final IMap<String, Object> attributes) {}
+
+}
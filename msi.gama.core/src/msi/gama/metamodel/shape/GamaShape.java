@@ -12,7 +12,7 @@ package msi.gama.metamodel.shape;
 import static msi.gama.common.geometry.GeometryUtils.GEOMETRY_FACTORY;
 import static msi.gama.common.geometry.GeometryUtils.getContourCoordinates;
 import static msi.gama.common.geometry.GeometryUtils.rotate;
-import static msi.gama.common.geometry.GeometryUtils.translate;
+import static msi.gama.common.geometry.GeometryUtils.translateTo;
 import static msi.gama.util.GamaListFactory.create;
 import static msi.gaml.types.Types.POINT;
 
@@ -396,7 +396,7 @@ public class GamaShape implements IShape {
 		if (isPoint()) {
 			geometry = GEOMETRY_FACTORY.createPoint(l);
 		} else {
-			translate(geometry, getLocation(), l);
+			translateTo(geometry, l);
 		}
 		return l;
 	}
@@ -285,15 +285,9 @@ public abstract class AbstractTopology implements ITopology {
 			return point;
 		}
 
-		// final Point pt = GeometryUtils.GEOMETRY_FACTORY.createPoint(point);
-		// final AffineTransformation at = new AffineTransformation();
-		GamaPoint p = new GamaPoint();
-		for (int cnt = 0; cnt < 8; cnt++) {
-			// at.setToTranslation(getAdjustedXYVector()[cnt][0], getAdjustedXYVector()[cnt][1]);
-			// final GamaPoint newPt = new GamaPoint(at.transform(pt).getCoordinate());
-			p.setLocation(point).add(getAdjustedXYVector()[cnt][0], getAdjustedXYVector()[cnt][1], 0);
-			if (environment.getGeometry().covers(p)) return p;
-		}
+		// The point passed may be shared (the location of an agent, for instance): a new one is returned
+		final GamaPoint p = new GamaPoint(point);
+		if (wrapInPlace(p)) return p;
 
 		// See if rounding errors of double do not interfere with the
 		// computation.
@@ -325,13 +319,37 @@ public abstract class AbstractTopology implements ITopology {
 		return nullIfOutside ? null : point;
 	}
 
+	/**
+	 * Moves a point outside of the environment of a torus to the corresponding point inside it, without allocating any
+	 * other point. The point is left unchanged if there is no such point.
+	 *
+	 * @param point
+	 *            the point, which must not be shared
+	 * @return true if the point has been moved inside the environment
+	 */
+	private boolean wrapInPlace(final GamaPoint point) {
+		final double x = point.x, y = point.y;
+		final double[][] vectors = getAdjustedXYVector();
+		for (int cnt = 0; cnt < 8; cnt++) {
+			point.x = x + vectors[cnt][0];
+			point.y = y + vectors[cnt][1];
+			if (environment.getGeometry().covers(point)) return true;
+		}
+		point.x = x;
+		point.y = y;
+		return false;
+	}
+
 	@Override
 	public GamaPoint getDestination(final GamaPoint source, final double direction, final double distance,
 			final boolean nullIfOutside) {
 		final double cos = distance * Maths.cos(direction);
 		final double sin = distance * Maths.sin(direction);
-		final GamaPoint result = source.plus(cos, sin, 0);
-		return normalizeLocation(result, nullIfOutside);
+		// The destination is the only point allocated: it is normalized in place
+		final GamaPoint result = new GamaPoint(source.x + cos, source.y + sin, source.z);
+		if (environment.getGeometry().covers(result)) return result;
+		if (isTorus() && wrapInPlace(result)) return result;
+		return nullIfOutside ? null : result;
 	}
 
 	@Override
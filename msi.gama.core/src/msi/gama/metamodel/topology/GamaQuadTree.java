@@ -294,7 +294,7 @@ public class GamaQuadTree implements ISpatialIndex {
 		 * Addresses part of Issue 722 -- Need to keep the agents ordered (by insertion order)
 		 **/
 		protected final Map<IAgent, IIntersectable> objects =
-				parallel ? GamaMapFactory.synchronizedOrderedMap() : GamaMapFactory.create();
+				parallel ? GamaMapFactory.synchronizedAgentMap() : GamaMapFactory.createAgentMap();
 
 		/** The can split. */
 		protected final boolean canSplit;
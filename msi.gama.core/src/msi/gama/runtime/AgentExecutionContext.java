@@ -20,14 +20,10 @@ import msi.gama.metamodel.agent.IAgent;
  */
 public class AgentExecutionContext implements IDisposable {
 
-	/** The Constant POOL. */
-	// Disactivated for the moment
+	/** The Constant POOL. Only used when pooling is enabled in the preferences */
 	private static final PoolUtils.ObjectPool<AgentExecutionContext> POOL =
 			PoolUtils.create("Agent Execution Context", true, AgentExecutionContext::new, null, null);
 
-	/** The Constant POOL_ACTIVE. */
-	private static final boolean POOL_ACTIVE = false;
-
 	/**
 	 * Creates the.
 	 *
@@ -39,12 +35,7 @@ public class AgentExecutionContext implements IDisposable {
 	 */
 	public static AgentExecutionContext create(final IAgent agent, final AgentExecutionContext outer) {
 
-		final AgentExecutionContext result;
-		if (POOL_ACTIVE) {
-			result = POOL.get();
-		} else {
-			result = new AgentExecutionContext();
-		}
+		final AgentExecutionContext result = POOL.get();
 		result.agent = agent;
 		result.outer = outer;
 		return result;
@@ -84,16 +75,17 @@ public class AgentExecutionContext implements IDisposable {
 	public void dispose() {
 		agent = null;
 		outer = null;
-		if (POOL_ACTIVE) { POOL.release(this); }
+		POOL.release(this);
 	}
 
 	/**
-	 * Creates the copy.
+	 * Creates the copy. The outer contexts are copied too, as a context is released to the pool when it is popped
+	 * from its scope: the copy must not share them with the original.
 	 *
 	 * @return the agent execution context
 	 */
 	public AgentExecutionContext createCopy() {
-		return create(agent, outer);
+		return create(agent, outer == null ? null : outer.createCopy());
 	}
 
 	/**
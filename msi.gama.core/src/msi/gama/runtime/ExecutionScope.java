@@ -576,6 +576,8 @@ public class ExecutionScope implements IScope {
 	public ExecutionResult step(final IAgent agent) {
 		if (agent == null || agent.dead() || interrupted()) return FAILED;
 		final boolean pushed = push(agent);
+		final RandomUtils random = RandomUtils.getStreamedRandom(this);
+		final Object stream = random == null ? null : random.enterStream(this, agent, false);
 		try {
 			try (StopWatch w = GAMA.benchmark(this, agent)) {
 				return withValue(agent.step(this));
@@ -589,6 +591,7 @@ public class ExecutionScope implements IScope {
 				return FAILED;
 			}
 		} finally {
+			if (random != null) { random.leaveStream(stream); }
 			if (pushed) { pop(agent); }
 		}
 	}
@@ -597,6 +600,8 @@ public class ExecutionScope implements IScope {
 	public ExecutionResult init(final IAgent agent) {
 		if (agent == null || agent.dead() || interrupted()) return FAILED;
 		final boolean pushed = push(agent);
+		final RandomUtils random = RandomUtils.getStreamedRandom(this);
+		final Object stream = random == null ? null : random.enterStream(this, agent, true);
 		try {
 			try (StopWatch w = GAMA.benchmark(this, agent)) {
 				return withValue(agent.init(this));
@@ -610,6 +615,7 @@ public class ExecutionScope implements IScope {
 				return FAILED;
 			}
 		} finally {
+			if (random != null) { random.leaveStream(stream); }
 			if (pushed) { pop(agent); }
 		}
 	}
@@ -23,6 +23,7 @@ import java.io.OutputStreamWriter;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.lang.management.RuntimeMXBean;
+import java.lang.management.ThreadMXBean;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -50,6 +51,38 @@ public final class MemoryUtils {
 	/** A static reference to {@link Runtime#getRuntime()}. */
 	public final static Runtime RUNTIME = Runtime.getRuntime();
 
+	/** The bean used to measure the memory allocated by threads. */
+	private final static ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+	/** Whether the JVM can measure the memory allocated by threads. */
+	private final static boolean ALLOCATION_SUPPORTED = isAllocationSupported();
+
+	/**
+	 * Checks if the JVM can measure the memory allocated by threads.
+	 *
+	 * @return true, if supported
+	 */
+	private static boolean isAllocationSupported() {
+		try {
+			return THREADS instanceof com.sun.management.ThreadMXBean bean && bean.isThreadAllocatedMemorySupported()
+					&& bean.isThreadAllocatedMemoryEnabled();
+		} catch (final Throwable e) {
+			// The package com.sun.management might not be available
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the total number of bytes allocated so far by the current thread, or -1 if this measure is not
+	 * supported by the JVM.
+	 *
+	 * @return the number of bytes allocated by the current thread
+	 */
+	public static long allocatedBytes() {
+		if (!ALLOCATION_SUPPORTED) return -1;
+		return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
 	/**
 	 * Returns true if less then a percentage of the available memory is free.
 	 *
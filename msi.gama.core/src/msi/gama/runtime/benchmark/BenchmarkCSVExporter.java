@@ -65,6 +65,7 @@ public class BenchmarkCSVExporter {
 		scopes.forEach((scopeRecord, record) -> {
 			headers.add("Time in ms in " + scopeRecord);
 			headers.add("Invocations in " + scopeRecord);
+			headers.add("Allocated bytes in " + scopeRecord);
 		});
 		contents.add(headers);
 		records.tree.visit(Order.PRE_ORDER, n -> {
@@ -76,6 +77,7 @@ public class BenchmarkCSVExporter {
 				final BenchmarkRecord record1 = scopeRecord.find(r);
 				line.add(record1.isUnrecorded() ? "" : String.valueOf(record1.milliseconds));
 				line.add(record1.isUnrecorded() ? "" : String.valueOf(record1.times));
+				line.add(record1.isUnrecorded() ? "" : String.valueOf(record1.bytes));
 			});
 		});
 
@@ -31,13 +31,14 @@ public class BenchmarkConsolePrinter {
 		final StringBuilder sb = new StringBuilder();
 		scopes.forEach((s, r) -> {
 			final BenchmarkRecord sr = r.ownRecord;
-			sb.append(S).append(sr.object.getNameForBenchmarks()).append(" (").append(sr.milliseconds).append(" ms)")
-					.append(S);
+			sb.append(S).append(sr.object.getNameForBenchmarks()).append(" (").append(sr.milliseconds).append(" ms, ")
+					.append(sr.bytes.longValue() / 1024).append(" KB allocated)").append(S);
 			scopes.tree.visit(Order.PRE_ORDER, (n) -> {
 				final BenchmarkRecord br = r.find(n.getData());
 				if (br != BenchmarkRecord.NULL && !br.isUnrecorded()) {
 					sb.append(Strings.LN)
-							.append(String.format("%30s", "[" + br.milliseconds + " ms, " + br.times + " calls] "));
+							.append(String.format("%45s", "[" + br.milliseconds + " ms, " + br.times + " calls, "
+									+ br.bytes.longValue() / br.times.longValue() + " bytes/call] "));
 					for (int i = 0; i < n.getWeight(); i++) {
 						sb.append("-" + Strings.TAB);
 					}
@@ -24,6 +24,9 @@ public class BenchmarkRecord {
 	
 	/** The times. */
 	public final LongAdder milliseconds = new LongAdder(), times = new LongAdder();
+
+	/** The number of bytes allocated (by the thread that runs the object) */
+	public final LongAdder bytes = new LongAdder();
 	
 	/** The object. */
 	public final IBenchmarkable object;
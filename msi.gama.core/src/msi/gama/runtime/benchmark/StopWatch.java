@@ -13,6 +13,8 @@ package msi.gama.runtime.benchmark;
 import java.io.Closeable;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import msi.gama.runtime.MemoryUtils;
+
 /**
  * The Class StopWatch.
  */
@@ -29,6 +31,9 @@ public class StopWatch implements Closeable {
 	
 	/** The last start. */
 	private long lastStart = notRunning;
+
+	/** The number of bytes allocated by the current thread at the last start. */
+	private long lastAllocated;
 	
 	/** The reentrant. */
 	private final AtomicInteger reentrant = new AtomicInteger();
@@ -52,6 +57,7 @@ public class StopWatch implements Closeable {
 	public StopWatch start() {
 		if (lastStart == notRunning) {
 			lastStart = System.currentTimeMillis();
+			lastAllocated = MemoryUtils.allocatedBytes();
 		}
 		reentrant.incrementAndGet();
 		return this;
@@ -66,6 +72,14 @@ public class StopWatch implements Closeable {
 				numbers.milliseconds.add(milli);
 				scope.milliseconds.add(milli);
 				numbers.times.increment();
+				if (lastAllocated >= 0) {
+					final long bytes = MemoryUtils.allocatedBytes() - lastAllocated;
+					// Only meaningful if the watch is closed by the thread that started it
+					if (bytes > 0) {
+						numbers.bytes.add(bytes);
+						scope.bytes.add(bytes);
+					}
+				}
 				lastStart = notRunning;
 			}
 		}
@@ -31,8 +31,21 @@ public class AgentSpliterator implements Spliterator<IAgent> {
 	 * @return the spliterator
 	 */
 	public static Spliterator<IAgent> of(final IShape[] agents, final int threshold) {
-		if (agents == null || agents.length == 0) { return Spliterators.<IAgent> emptySpliterator(); }
-		return new AgentSpliterator(agents, 0, agents.length, threshold);
+		if (agents == null) { return Spliterators.<IAgent> emptySpliterator(); }
+		return of(agents, agents.length, threshold);
+	}
+
+	/**
+	 * Of.
+	 *
+	 * @param agents the agents
+	 * @param length the number of agents to consider, starting from the beginning of the array
+	 * @param threshold the threshold
+	 * @return the spliterator
+	 */
+	public static Spliterator<IAgent> of(final IShape[] agents, final int length, final int threshold) {
+		if (agents == null || length == 0) { return Spliterators.<IAgent> emptySpliterator(); }
+		return new AgentSpliterator(agents, 0, length, threshold);
 	}
 
 	/**
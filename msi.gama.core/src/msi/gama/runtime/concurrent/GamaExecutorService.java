@@ -13,15 +13,21 @@ package msi.gama.runtime.concurrent;
 import static msi.gama.common.preferences.GamaPreferences.create;
 
 import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ForkJoinTask;
 
 import msi.gama.common.preferences.GamaPreferences;
 import msi.gama.common.preferences.Pref;
+import msi.gama.common.util.RandomUtils;
 import msi.gama.kernel.experiment.IExperimentAgent;
 import msi.gama.metamodel.agent.IAgent;
+import msi.gama.metamodel.population.GamaPopulation;
 import msi.gama.metamodel.shape.IShape;
+import msi.gama.runtime.ExecutionResult;
 import msi.gama.runtime.FlowStatus;
 import msi.gama.runtime.GAMA;
 import msi.gama.runtime.IScope;
@@ -85,6 +91,12 @@ public abstract class GamaExecutorService {
 	/** The agent parallel executor. */
 	public static volatile ForkJoinPool AGENT_PARALLEL_EXECUTOR;
 
+	/**
+	 * The buffers used to step the agents returned by the 'schedules:' facets, kept per thread and reused from one
+	 * step to the other. A stack is used as the step of an agent can trigger the step of its micro-populations
+	 */
+	private static final ThreadLocal<Deque<IAgent[]>> SCHEDULE_BUFFERS = ThreadLocal.withInitial(ArrayDeque::new);
+
 	/** The Constant CONCURRENCY_SIMULATIONS. */
 	public static final Pref<Boolean> CONCURRENCY_SIMULATIONS =
 			create("pref_parallel_simulations", "Make experiments run simulations in parallel", true, IType.BOOL, true)
@@ -106,6 +118,21 @@ public abstract class GamaExecutorService {
 			"Make species schedule their agents in parallel (beware that setting this to true no longer allows GAMA to ensure the reproducibility of simulations)",
 			false, IType.BOOL, true).in(GamaPreferences.Runtime.NAME, GamaPreferences.Runtime.CONCURRENCY);
 
+	/** The Constant CONCURRENCY_CREATION. */
+	public static final Pref<Boolean> CONCURRENCY_CREATION = create("pref_parallel_creation",
+			"Initialize in parallel the attributes of created agents whose values are constant or read from files",
+			false, IType.BOOL, true).in(GamaPreferences.Runtime.NAME, GamaPreferences.Runtime.CONCURRENCY);
+
+	/** The Constant CONCURRENCY_UPDATES. */
+	public static final Pref<Boolean> CONCURRENCY_UPDATES = create("pref_parallel_updates",
+			"Update in parallel, before stepping their species, the attributes of agents whose 'update:' facet only depends on the agent itself (beware that the step of an agent will no longer be able to change the values used in the updates of the agents scheduled after it)",
+			false, IType.BOOL, true).in(GamaPreferences.Runtime.NAME, GamaPreferences.Runtime.CONCURRENCY);
+
+	/** The Constant CONCURRENCY_CONTAINERS. */
+	public static final Pref<Boolean> CONCURRENCY_CONTAINERS = create("pref_parallel_containers",
+			"Apply in parallel the container operators (where, collect, count, sum_of, group_by, sort_by...) whose expressions have no side effects to containers of more than 10000 elements (beware that sums of floats may slightly differ)",
+			false, IType.BOOL, true).in(GamaPreferences.Runtime.NAME, GamaPreferences.Runtime.CONCURRENCY);
+
 	/** The Constant CONCURRENCY_THRESHOLD. */
 	public static final Pref<Integer> CONCURRENCY_THRESHOLD =
 			create("pref_parallel_threshold", "Number under which agents are executed sequentially", 20, IType.INT,
@@ -232,10 +259,21 @@ public abstract class GamaExecutorService {
 	public static <A extends IAgent> Boolean step(final IScope scope, final IList<A> pop, final ISpecies species)
 			throws GamaRuntimeException {
 		final IExpression schedule = species.getSchedule();
-		final IList<? extends IAgent> agents = schedule == null ? pop : Cast.asList(scope, schedule.value(scope));
 		final int threshold =
 				getParallelism(scope, species.getConcurrency(), species.isGrid() ? Caller.GRID : Caller.SPECIES);
-		return doStep(scope, agents.toArray(new IAgent[agents.size()]), threshold, species);
+		if (schedule != null) return stepScheduled(scope, Cast.asList(scope, schedule.value(scope)), threshold, species);
+		// Populations maintain an array of their agents that is only rebuilt when agents are added or removed
+		if (!(pop instanceof GamaPopulation<?> gp)) {
+			final IShape[] agents = pop.toArray(new IAgent[pop.size()]);
+			return doStep(scope, agents, agents.length, threshold, species);
+		}
+		final IAgent[] agents = gp.getAgentsArray();
+		final boolean updated = gp.updateVariablesInBulk(scope, agents, threshold);
+		try {
+			return doStep(scope, agents, agents.length, threshold, species);
+		} finally {
+			if (updated) { gp.clearBulkUpdate(); }
+		}
 	}
 
 	/**
@@ -256,16 +294,40 @@ public abstract class GamaExecutorService {
 	public static <A extends IShape> Boolean step(final IScope scope, final A[] array, final ISpecies species)
 			throws GamaRuntimeException {
 		final IExpression schedule = species.getSchedule();
-		final IShape[] scheduledAgents;
-		if (schedule == null) {
-			scheduledAgents = array;
-		} else {
-			final List<IAgent> agents = Cast.asList(scope, schedule.value(scope));
-			scheduledAgents = agents.toArray(new IAgent[agents.size()]);
-		}
 		final int threshold =
 				getParallelism(scope, species.getConcurrency(), species.isGrid() ? Caller.GRID : Caller.SPECIES);
-		return doStep(scope, scheduledAgents, threshold, species);
+		if (schedule != null) return stepScheduled(scope, Cast.asList(scope, schedule.value(scope)), threshold, species);
+		return doStep(scope, array, array.length, threshold, species);
+	}
+
+	/**
+	 * Steps the agents returned by the 'schedules:' facet of a species, using a buffer borrowed from the pool of the
+	 * current thread instead of allocating a new array
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param agents
+	 *            the agents to schedule
+	 * @param threshold
+	 *            the threshold
+	 * @param species
+	 *            the species
+	 * @return the boolean
+	 */
+	private static Boolean stepScheduled(final IScope scope, final List<? extends IAgent> agents, final int threshold,
+			final ISpecies species) {
+		final int size = agents.size();
+		final Deque<IAgent[]> buffers = SCHEDULE_BUFFERS.get();
+		IAgent[] buffer = buffers.pollFirst();
+		if (buffer == null || buffer.length < size) { buffer = new IAgent[size]; }
+		final IAgent[] array = agents.toArray(buffer);
+		try {
+			return doStep(scope, array, array == buffer ? size : array.length, threshold, species);
+		} finally {
+			// The references to the agents are cleared so as not to retain them
+			Arrays.fill(buffer, 0, Math.min(size, buffer.length), null);
+			buffers.offerFirst(buffer);
+		}
 	}
 
 	/**
@@ -277,21 +339,23 @@ public abstract class GamaExecutorService {
 	 *            the scope
 	 * @param array
 	 *            the array
+	 * @param length
+	 *            the number of agents to step in the array
 	 * @param threshold
 	 *            the threshold
 	 * @param species
 	 *            the species
 	 * @return the boolean
 	 */
-	private static <A extends IShape> Boolean doStep(final IScope scope, final A[] array, final int threshold,
-			final ISpecies species) {
+	private static <A extends IShape> Boolean doStep(final IScope scope, final A[] array, final int length,
+			final int threshold, final ISpecies species) {
 		try (final StopWatch w = GAMA.benchmark(scope, species)) {
 			int concurrency = threshold;
-			if (array.length <= threshold) { concurrency = 0; }
+			if (length <= threshold) { concurrency = 0; }
 			switch (concurrency) {
 				case 0:
-					for (final A aa : array) {
-						final IAgent agent = (IAgent) aa;
+					for (int i = 0; i < length; i++) {
+						final IAgent agent = (IAgent) array[i];
 						if (agent.dead()) {
 							continue; // add this condition to avoid the activation of dead agents
 						}
@@ -299,10 +363,13 @@ public abstract class GamaExecutorService {
 					}
 					break;
 				case 1:
-					for (final A agent : array) { executeThreaded(() -> scope.step((IAgent) agent)); }
+					for (int i = 0; i < length; i++) {
+						final IAgent agent = (IAgent) array[i];
+						executeThreaded(() -> scope.step(agent));
+					}
 					break;
 				default:
-					ParallelAgentRunner.step(scope, array, threshold);
+					ParallelAgentRunner.step(scope, array, length, threshold);
 			}
 		}
 		return true;
@@ -328,19 +395,51 @@ public abstract class GamaExecutorService {
 			final IExpression parallel) throws GamaRuntimeException {
 		int threshold = getParallelism(scope, parallel, Caller.NONE);
 		if (array.length <= threshold) { threshold = 0; }
+		// When the execution can be parallel, the agents draw their numbers from their own streams (if the generator
+		// supports them), whatever the number of threads
+		final RandomUtils random = parallel == null ? null : RandomUtils.getStreamedRandom(scope);
+		final long base = random == null ? 0 : random.nextStreamBase();
 		switch (threshold) {
 			case 0:
 				for (final A agent : array) {
-					scope.execute(executable, (IAgent) agent, null);
+					execute(scope, executable, (IAgent) agent, random, base);
 					if (scope.getAndClearBreakStatus() == FlowStatus.BREAK) { break; }
 				}
 				return;
 			// Break doesnt really make sense for parallel execution
 			case 1:
-				for (final A agent : array) { executeThreaded(() -> scope.execute(executable, (IAgent) agent, null)); }
+				for (final A agent : array) {
+					executeThreaded(() -> execute(scope, executable, (IAgent) agent, random, base));
+				}
 				return;
 			default:
-				ParallelAgentRunner.execute(scope, executable, array, threshold);
+				ParallelAgentRunner.execute(scope, executable, array, threshold, random, base);
+		}
+	}
+
+	/**
+	 * Executes a statement on an agent, which draws its numbers from its own stream if a generator is passed.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param executable
+	 *            the executable
+	 * @param agent
+	 *            the agent
+	 * @param random
+	 *            the generator that supports streams, or null
+	 * @param base
+	 *            the base of the identifiers of the streams (see {@link RandomUtils#nextStreamBase()})
+	 * @return the execution result
+	 */
+	static ExecutionResult execute(final IScope scope, final IExecutable executable, final IAgent agent,
+			final RandomUtils random, final long base) {
+		if (random == null) return scope.execute(executable, agent, null);
+		final Object stream = random.enterStream(base, agent);
+		try {
+			return scope.execute(executable, agent, null);
+		} finally {
+			random.leaveStream(stream);
 		}
 	}
 
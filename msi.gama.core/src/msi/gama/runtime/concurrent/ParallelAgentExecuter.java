@@ -12,6 +12,7 @@ package msi.gama.runtime.concurrent;
 
 import java.util.Spliterator;
 
+import msi.gama.common.util.RandomUtils;
 import msi.gama.metamodel.agent.IAgent;
 import msi.gama.runtime.IScope;
 import msi.gama.runtime.exceptions.GamaRuntimeException;
@@ -25,6 +26,12 @@ public class ParallelAgentExecuter extends ParallelAgentRunner<Object> {
 	/** The executable. */
 	final IExecutable executable;
 
+	/** The generator whose streams the agents draw their numbers from, or null. */
+	final RandomUtils random;
+
+	/** The base of the identifiers of the streams. */
+	final long base;
+
 	/**
 	 * Instantiates a new parallel agent executer.
 	 *
@@ -33,8 +40,24 @@ public class ParallelAgentExecuter extends ParallelAgentRunner<Object> {
 	 * @param agents the agents
 	 */
 	public ParallelAgentExecuter(final IScope scope, final IExecutable executable, final Spliterator<IAgent> agents) {
+		this(scope, executable, agents, null, 0);
+	}
+
+	/**
+	 * Instantiates a new parallel agent executer whose agents draw their numbers from their own streams.
+	 *
+	 * @param scope the scope
+	 * @param executable the executable
+	 * @param agents the agents
+	 * @param random the generator that supports streams, or null
+	 * @param base the base of the identifiers of the streams
+	 */
+	public ParallelAgentExecuter(final IScope scope, final IExecutable executable, final Spliterator<IAgent> agents,
+			final RandomUtils random, final long base) {
 		super(scope, agents);
 		this.executable = executable;
+		this.random = random;
+		this.base = base;
 	}
 
 	@Override
@@ -44,7 +67,7 @@ public class ParallelAgentExecuter extends ParallelAgentRunner<Object> {
 		agents.forEachRemaining(each -> {
 			if (mutableBoolean[0].booleanValue()) {
 				// if (result.passed()) {
-				mutableBoolean[0] = scope.execute(executable, each, null).passed();
+				mutableBoolean[0] = GamaExecutorService.execute(scope, executable, each, random, base).passed();
 				// result.accept(scope.execute(executable, each, null));
 			}
 		});
@@ -54,7 +77,7 @@ public class ParallelAgentExecuter extends ParallelAgentRunner<Object> {
 
 	@Override
 	ParallelAgentExecuter subTask(final Spliterator<IAgent> sub) {
-		return new ParallelAgentExecuter(originalScope, executable, sub);
+		return new ParallelAgentExecuter(originalScope, executable, sub, random, base);
 	}
 
 }
\ No newline at end of file
@@ -14,6 +14,7 @@ import java.util.Spliterator;
 import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.RecursiveTask;
 
+import msi.gama.common.util.RandomUtils;
 import msi.gama.metamodel.agent.IAgent;
 import msi.gama.metamodel.shape.IShape;
 import msi.gama.runtime.IScope;
@@ -58,8 +59,25 @@ public abstract class ParallelAgentRunner<T> extends RecursiveTask<T> implements
 	 */
 	public static <A extends IShape> Boolean step(final IScope scope, final A[] array, final int threshold)
 			throws GamaRuntimeException {
-		final ParallelAgentStepper runner = from(scope, array, threshold);
-		if (array.length <= threshold) { return runner.executeOn(scope); }
+		return step(scope, array, array.length, threshold);
+	}
+
+	/**
+	 * Step the first agents of an array (which can be larger, like the buffers used for schedules).
+	 *
+	 * @param <A> the generic type
+	 * @param scope the scope
+	 * @param array the array
+	 * @param length the number of agents to step
+	 * @param threshold the threshold
+	 * @return the boolean
+	 * @throws GamaRuntimeException the gama runtime exception
+	 */
+	public static <A extends IShape> Boolean step(final IScope scope, final A[] array, final int length,
+			final int threshold) throws GamaRuntimeException {
+		final ParallelAgentStepper runner =
+				new ParallelAgentStepper(scope, AgentSpliterator.of(array, length, threshold));
+		if (length <= threshold) { return runner.executeOn(scope); }
 		return execute(runner);
 	}
 
@@ -75,26 +93,29 @@ public abstract class ParallelAgentRunner<T> extends RecursiveTask<T> implements
 	 */
 	public static <A extends IShape> void execute(final IScope scope, final IExecutable executable, final A[] array,
 			final int threshold) throws GamaRuntimeException {
-		final ParallelAgentRunner<?> runner = from(scope, executable, array, threshold);
-		if (array.length <= threshold) {
-			runner.executeOn(scope);
-		} else {
-			execute(runner);
-		}
+		execute(scope, executable, array, threshold, null, 0);
 	}
 
 	/**
-	 * From.
+	 * Execute, each agent drawing its numbers from its own stream if a generator is passed.
 	 *
 	 * @param <A> the generic type
 	 * @param scope the scope
+	 * @param executable the executable
 	 * @param array the array
 	 * @param threshold the threshold
-	 * @return the parallel agent stepper
+	 * @param random the generator that supports streams, or null
+	 * @param base the base of the identifiers of the streams
+	 * @throws GamaRuntimeException the gama runtime exception
 	 */
-	private static <A extends IShape> ParallelAgentStepper from(final IScope scope, final A[] array,
-			final int threshold) {
-		return new ParallelAgentStepper(scope, AgentSpliterator.of(array, threshold));
+	public static <A extends IShape> void execute(final IScope scope, final IExecutable executable, final A[] array,
+			final int threshold, final RandomUtils random, final long base) throws GamaRuntimeException {
+		final ParallelAgentRunner<?> runner = from(scope, executable, array, threshold, random, base);
+		if (array.length <= threshold) {
+			runner.executeOn(scope);
+		} else {
+			execute(runner);
+		}
 	}
 
 	/**
@@ -105,11 +126,13 @@ public abstract class ParallelAgentRunner<T> extends RecursiveTask<T> implements
 	 * @param executable the executable
 	 * @param array the array
 	 * @param threshold the threshold
+	 * @param random the generator that supports streams, or null
+	 * @param base the base of the identifiers of the streams
 	 * @return the parallel agent executer
 	 */
 	private static <A extends IShape> ParallelAgentExecuter from(final IScope scope, final IExecutable executable,
-			final A[] array, final int threshold) {
-		return new ParallelAgentExecuter(scope, executable, AgentSpliterator.of(array, threshold));
+			final A[] array, final int threshold, final RandomUtils random, final long base) {
+		return new ParallelAgentExecuter(scope, executable, AgentSpliterator.of(array, threshold), random, base);
 	}
 
 	/**
@@ -0,0 +1,490 @@
+/*******************************************************************************************************
+ *
+ * GamaAgentMap.java, in msi.gama.core, is part of the source code of the GAMA modeling and simulation platform
+ * (v.1.9.3).
+ *
+ * (c) 2007-2023 UMI 209 UMMISCO IRD/SU & Partners (IRIT, MIAT, TLU, CTU)
+ *
+ * Visit https://github.com/gama-platform/gama for license information and contacts.
+ *
+ ********************************************************************************************************/
+package msi.gama.util;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import msi.gama.metamodel.agent.IAgent;
+import msi.gama.metamodel.population.IPopulation;
+
+/**
+ * An ordered map whose keys are agents, used by the runtime for its bookkeeping (the agents of the nodes of the
+ * quadtree, the messages waiting for an agent...). Agents are compared by identity and located by their population and
+ * their index, without calling hashCode() or equals() and without allocating a node per entry like HashMap or GamaMap.
+ *
+ * The entries are kept in two parallel arrays (agents and values) in the order of their insertion. As long as all the
+ * agents belong to the same population and their indices are compact, the position of an agent in these arrays is
+ * read directly in an array indexed by the index of the agent. Otherwise, it is found in an open-addressing table
+ * hashed on the population and the index. Removed entries leave a hole, reclaimed when the arrays are compacted. The
+ * arrays are only allocated when the first entry is added, as many of these maps stay empty (like those of the nodes
+ * of the quadtree that have been split). Use GamaMapFactory to create it.
+ *
+ * @param <V>
+ *            the value type
+ * @since 1.9.3
+ */
+@SuppressWarnings ("unchecked")
+public class GamaAgentMap<V> extends AbstractMap<IAgent, V> {
+
+	/** The marker, in the array of agents, of an entry that has been removed. */
+	private static final Object REMOVED = new Object();
+
+	/** The marker, in the direct index or the table, of a free slot. Positions are stored +1. */
+	private static final int FREE = 0;
+
+	/** The marker, in the table, of a slot whose entry has been removed. */
+	private static final int DELETED = -1;
+
+	/** The minimal length of the direct index. */
+	private static final int MIN_DIRECT = 64;
+
+	/** The arrays of entries of an empty map, shared until the first entry is added. */
+	private static final Object[] NO_ENTRIES = {};
+
+	/** The direct index of an empty map, shared until the first entry is added. */
+	private static final int[] NO_INDEX = {};
+
+	/** How many times larger than the number of entries the largest index can be for the direct index to be used. */
+	private static final int DIRECT_SPREAD = 4;
+
+	/** The agents of the entries (or REMOVED), in their order of insertion. */
+	private Object[] agents;
+
+	/** The values of the entries, in their order of insertion. */
+	private Object[] values;
+
+	/** The number of positions used in the arrays (including the removed entries). */
+	private int used;
+
+	/** The number of entries. */
+	private int size;
+
+	/** The number of structural modifications, for the iterators. */
+	private int modCount;
+
+	/** The population of the agents while the direct index is used. Null until an agent is added. */
+	private IPopulation<?> population;
+
+	/** The direct index: the position + 1 of the agent of each index, or FREE. Null when the table is used. */
+	private int[] direct;
+
+	/** The table: the positions + 1 of the entries, or FREE or DELETED. Its length is a power of 2. */
+	private int[] table;
+
+	/**
+	 * Instantiates a new agent map.
+	 */
+	GamaAgentMap() {
+		agents = NO_ENTRIES;
+		values = NO_ENTRIES;
+		direct = NO_INDEX;
+	}
+
+	/**
+	 * The size of the table for a number of entries: a power of 2, filled at most at 50%.
+	 *
+	 * @param n
+	 *            the n
+	 * @return the int
+	 */
+	private static int tableSizeFor(final int n) {
+		return Integer.highestOneBit(Math.max(4, n) * 2 - 1) << 1;
+	}
+
+	/**
+	 * The hash of an agent, computed from its population and its index.
+	 *
+	 * @param agent
+	 *            the agent
+	 * @return the int
+	 */
+	private static int hash(final IAgent agent) {
+		if (agent == null) return 0;
+		final int h = (System.identityHashCode(agent.getPopulation()) + agent.getIndex()) * 0x9E3779B9;
+		return h ^ h >>> 16;
+	}
+
+	/**
+	 * Whether an agent can be added to the direct index.
+	 *
+	 * @param agent
+	 *            the agent
+	 * @return true, if successful
+	 */
+	private boolean fitsDirect(final IAgent agent) {
+		if (agent == null || population != null && agent.getPopulation() != population) return false;
+		final int index = agent.getIndex();
+		if (index < 0 || index >= Math.max(MIN_DIRECT, DIRECT_SPREAD * (size + 1))) return false;
+		// Another agent with the same index (the indices of a population can be reused)
+		return index >= direct.length || direct[index] == FREE;
+	}
+
+	/**
+	 * Returns the position of an agent in the arrays, or -1 if it is not in the map.
+	 *
+	 * @param agent
+	 *            the agent
+	 * @return the int
+	 */
+	private int positionOf(final IAgent agent) {
+		if (direct != null) {
+			if (agent == null || agent.getPopulation() != population) return -1;
+			final int index = agent.getIndex();
+			if (index < 0 || index >= direct.length) return -1;
+			final int p = direct[index] - 1;
+			return p >= 0 && agents[p] == agent ? p : -1;
+		}
+		final int mask = table.length - 1;
+		for (int slot = hash(agent) & mask;; slot = slot + 1 & mask) {
+			final int p = table[slot];
+			if (p == FREE) return -1;
+			if (p != DELETED && agents[p - 1] == agent) return p - 1;
+		}
+	}
+
+	/**
+	 * Records the position of an agent in the direct index or the table.
+	 *
+	 * @param agent
+	 *            the agent
+	 * @param position
+	 *            the position
+	 */
+	private void link(final IAgent agent, final int position) {
+		if (direct != null) {
+			if (population == null) { population = agent.getPopulation(); }
+			final int index = agent.getIndex();
+			// Grows with the indices (MIN_DIRECT is only the largest index accepted for small maps)
+			if (index >= direct.length) { direct = Arrays.copyOf(direct, Math.max(8, Integer.highestOneBit(index) << 1)); }
+			direct[index] = position + 1;
+		} else {
+			final int mask = table.length - 1;
+			int slot = hash(agent) & mask;
+			while (table[slot] != FREE && table[slot] != DELETED) { slot = slot + 1 & mask; }
+			table[slot] = position + 1;
+		}
+	}
+
+	/**
+	 * Forgets the position of an agent in the direct index or the table.
+	 *
+	 * @param agent
+	 *            the agent
+	 * @param position
+	 *            the position
+	 */
+	private void unlink(final IAgent agent, final int position) {
+		if (direct != null) {
+			direct[agent.getIndex()] = FREE;
+			return;
+		}
+		final int mask = table.length - 1;
+		for (int slot = hash(agent) & mask;; slot = slot + 1 & mask) {
+			if (table[slot] == position + 1) {
+				table[slot] = DELETED;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Switches from the direct index to the table.
+	 */
+	private void switchToTable() {
+		direct = null;
+		population = null;
+		reindex();
+	}
+
+	/**
+	 * Rebuilds the arrays, without the removed entries, with room for at least one more entry.
+	 */
+	private void compact() {
+		final int capacity = Math.max(8, size + (size >> 1) + 1);
+		final Object[] a = new Object[capacity];
+		final Object[] v = new Object[capacity];
+		int j = 0;
+		for (int i = 0; i < used; i++) {
+			if (agents[i] != REMOVED) {
+				a[j] = agents[i];
+				v[j++] = values[i];
+			}
+		}
+		agents = a;
+		values = v;
+		used = j;
+		reindex();
+	}
+
+	/**
+	 * Rebuilds the direct index or the table from the arrays.
+	 */
+	private void reindex() {
+		if (direct != null) {
+			Arrays.fill(direct, FREE);
+		} else {
+			table = new int[tableSizeFor(agents.length)];
+		}
+		for (int i = 0; i < used; i++) { if (agents[i] != REMOVED) { link((IAgent) agents[i], i); } }
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean containsKey(final Object key) {
+		return (key == null || key instanceof IAgent) && positionOf((IAgent) key) >= 0;
+	}
+
+	@Override
+	public V get(final Object key) {
+		if (key != null && !(key instanceof IAgent)) return null;
+		final int p = positionOf((IAgent) key);
+		return p < 0 ? null : (V) values[p];
+	}
+
+	@Override
+	public V put(final IAgent agent, final V value) {
+		final int p = positionOf(agent);
+		if (p >= 0) {
+			final V old = (V) values[p];
+			values[p] = value;
+			return old;
+		}
+		if (direct != null) {
+			// An empty map can start again with agents of another population
+			if (size == 0) { population = null; }
+			if (!fitsDirect(agent)) { switchToTable(); }
+		}
+		if (used == agents.length) { compact(); }
+		agents[used] = agent;
+		values[used] = value;
+		link(agent, used++);
+		size++;
+		modCount++;
+		return null;
+	}
+
+	@Override
+	public V remove(final Object key) {
+		if (key != null && !(key instanceof IAgent)) return null;
+		final IAgent agent = (IAgent) key;
+		final int p = positionOf(agent);
+		if (p < 0) return null;
+		unlink(agent, p);
+		final V old = (V) values[p];
+		agents[p] = REMOVED;
+		values[p] = null;
+		size--;
+		modCount++;
+		return old;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(agents, 0, used, null);
+		Arrays.fill(values, 0, used, null);
+		used = size = 0;
+		modCount++;
+		population = null;
+		table = null;
+		if (direct == null) {
+			direct = NO_INDEX;
+		} else {
+			Arrays.fill(direct, FREE);
+		}
+	}
+
+	@Override
+	public void forEach(final BiConsumer<? super IAgent, ? super V> action) {
+		final int expectedModCount = modCount;
+		for (int i = 0; i < used; i++) {
+			if (agents[i] != REMOVED) { action.accept((IAgent) agents[i], (V) values[i]); }
+			if (modCount != expectedModCount) throw new ConcurrentModificationException();
+		}
+	}
+
+	@Override
+	public Set<Entry<IAgent, V>> entrySet() {
+		return new AbstractSet<>() {
+
+			@Override
+			public Iterator<Entry<IAgent, V>> iterator() {
+				return new Itr<>() {
+
+					@Override
+					Entry<IAgent, V> element(final int p) {
+						return new SimpleEntry<>((IAgent) agents[p], (V) values[p]) {
+
+							@Override
+							public V setValue(final V value) {
+								values[p] = value;
+								return super.setValue(value);
+							}
+						};
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+
+			@Override
+			public void clear() {
+				GamaAgentMap.this.clear();
+			}
+		};
+	}
+
+	@Override
+	public Set<IAgent> keySet() {
+		return new AbstractSet<>() {
+
+			@Override
+			public Iterator<IAgent> iterator() {
+				return new Itr<>() {
+
+					@Override
+					IAgent element(final int p) {
+						return (IAgent) agents[p];
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+
+			@Override
+			public boolean contains(final Object o) {
+				return containsKey(o);
+			}
+
+			@Override
+			public boolean remove(final Object o) {
+				if (!containsKey(o)) return false;
+				GamaAgentMap.this.remove(o);
+				return true;
+			}
+
+			@Override
+			public void clear() {
+				GamaAgentMap.this.clear();
+			}
+		};
+	}
+
+	@Override
+	public Collection<V> values() {
+		return new AbstractCollection<>() {
+
+			@Override
+			public Iterator<V> iterator() {
+				return new Itr<>() {
+
+					@Override
+					V element(final int p) {
+						return (V) values[p];
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+
+			@Override
+			public void clear() {
+				GamaAgentMap.this.clear();
+			}
+		};
+	}
+
+	/**
+	 * The iterator over the entries, in their order of insertion.
+	 *
+	 * @param <T>
+	 *            the type of the elements returned
+	 */
+	private abstract class Itr<T> implements Iterator<T> {
+
+		/** The position of the next entry. */
+		int next;
+
+		/** The position of the last entry returned, or -1. */
+		int last = -1;
+
+		/** The expected mod count. */
+		int expectedModCount = modCount;
+
+		/**
+		 * Instantiates a new iterator.
+		 */
+		Itr() {
+			advance();
+		}
+
+		/**
+		 * Skips the removed entries.
+		 */
+		private void advance() {
+			while (next < used && agents[next] == REMOVED) { next++; }
+		}
+
+		/**
+		 * The element returned for the entry at this position.
+		 *
+		 * @param p
+		 *            the position
+		 * @return the t
+		 */
+		abstract T element(int p);
+
+		@Override
+		public boolean hasNext() {
+			return next < used;
+		}
+
+		@Override
+		public T next() {
+			if (modCount != expectedModCount) throw new ConcurrentModificationException();
+			if (next >= used) throw new NoSuchElementException();
+			last = next++;
+			advance();
+			return element(last);
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) throw new IllegalStateException();
+			if (modCount != expectedModCount) throw new ConcurrentModificationException();
+			GamaAgentMap.this.remove(agents[last]);
+			last = -1;
+			expectedModCount = modCount;
+		}
+	}
+
+}
@@ -0,0 +1,164 @@
+/*******************************************************************************************************
+ *
+ * GamaCopyOnWriteList.java, in msi.gama.core, is part of the source code of the GAMA modeling and simulation platform
+ * (v.1.9.3).
+ *
+ * (c) 2007-2023 UMI 209 UMMISCO IRD/SU & Partners (IRIT, MIAT, TLU, CTU)
+ *
+ * Visit https://github.com/gama-platform/gama for license information and contacts.
+ *
+ ********************************************************************************************************/
+package msi.gama.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import msi.gama.runtime.IScope;
+import msi.gaml.types.GamaType;
+import msi.gaml.types.IContainerType;
+import msi.gaml.types.IType;
+import msi.gaml.types.Types;
+
+/**
+ * A list that shares the array of its elements with other lists (its copies, or the snapshot of a population) as long
+ * as none of them modifies it: the array is only copied by the first list that writes to it. Copying such a list,
+ * which GAML does whenever a list is passed by value, is then done in constant time. Use GamaListFactory to create it.
+ *
+ * @param <E>
+ *            the element type
+ * @since 1.9.3
+ */
+public class GamaCopyOnWriteList<E> extends AbstractList<E> implements IList<E>, RandomAccess {
+
+	/** The type. */
+	private final IContainerType type;
+
+	/** The elements. Only the first size ones belong to the list. */
+	private Object[] elements;
+
+	/** The size. */
+	private int size;
+
+	/** Whether the array is (or may be) shared with other lists, in which case it must be copied before any write. */
+	private boolean shared;
+
+	/**
+	 * Instantiates a new copy on write list sharing an array.
+	 *
+	 * @param contentType
+	 *            the content type
+	 * @param elements
+	 *            the array, which will not be modified
+	 * @param size
+	 *            the number of elements
+	 */
+	GamaCopyOnWriteList(final IType contentType, final Object[] elements, final int size) {
+		type = Types.LIST.of(contentType);
+		this.elements = elements;
+		this.size = size;
+		shared = true;
+	}
+
+	/**
+	 * Makes the array of this list its own, before a write.
+	 *
+	 * @param capacity
+	 *            the minimal capacity needed
+	 */
+	private void own(final int capacity) {
+		if (shared) {
+			elements = Arrays.copyOf(elements, Math.max(capacity, size));
+			shared = false;
+		} else if (capacity > elements.length) {
+			elements = Arrays.copyOf(elements, Math.max(capacity, size + (size >> 1) + 1));
+		}
+	}
+
+	@Override
+	public IContainerType<?> getGamlType() { return type; }
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@SuppressWarnings ("unchecked")
+	@Override
+	public E get(final int index) {
+		Objects.checkIndex(index, size);
+		return (E) elements[index];
+	}
+
+	@Override
+	public Object[] toArray() {
+		return Arrays.copyOf(elements, size);
+	}
+
+	@Override
+	public E set(final int index, final E element) {
+		final E old = get(index);
+		own(size);
+		elements[index] = element;
+		return old;
+	}
+
+	@Override
+	public void add(final int index, final E element) {
+		Objects.checkIndex(index, size + 1);
+		own(size + 1);
+		System.arraycopy(elements, index, elements, index + 1, size - index);
+		elements[index] = element;
+		size++;
+		modCount++;
+	}
+
+	@Override
+	public E remove(final int index) {
+		final E old = get(index);
+		own(size);
+		System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+		elements[--size] = null;
+		modCount++;
+		return old;
+	}
+
+	@Override
+	public void clear() {
+		// No need to copy anything: the array is simply dropped
+		elements = new Object[10];
+		shared = false;
+		size = 0;
+		modCount++;
+	}
+
+	@Override
+	public IList<E> copy(final IScope scope) {
+		shared = true;
+		return new GamaCopyOnWriteList<>(type.getContentType(), elements, size);
+	}
+
+	@Override
+	public IList<E> listValue(final IScope scope, final IType contentsType, final boolean copy) {
+		if (!GamaType.requiresCasting(contentsType, type.getContentType())) {
+			if (!copy) return this;
+			shared = true;
+			return new GamaCopyOnWriteList<>(contentsType, elements, size);
+		}
+		return IList.super.listValue(scope, contentsType, copy);
+	}
+
+	@Override
+	public boolean equals(final Object other) {
+		if (other == this) return true;
+		if (!(other instanceof IList)) return false;
+		return GamaListFactory.equals(this, (IList) other);
+	}
+
+	@Override
+	public int hashCode() {
+		return super.hashCode();
+	}
+
+}
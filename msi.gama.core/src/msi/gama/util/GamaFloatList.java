@@ -0,0 +1,125 @@
+/*******************************************************************************************************
+ *
+ * GamaFloatList.java, in msi.gama.core, is part of the source code of the GAMA modeling and simulation platform
+ * (v.1.9.3).
+ *
+ * (c) 2007-2023 UMI 209 UMMISCO IRD/SU & Partners (IRIT, MIAT, TLU, CTU)
+ *
+ * Visit https://github.com/gama-platform/gama for license information and contacts.
+ *
+ ********************************************************************************************************/
+package msi.gama.util;
+
+import java.util.Arrays;
+
+import msi.gaml.types.Types;
+
+/**
+ * A list<float> backed by an array of double. Use GamaListFactory to create it.
+ *
+ * @since 1.9.3
+ */
+public class GamaFloatList extends GamaPrimitiveList<Double> {
+
+	/** The values. */
+	private double[] data;
+
+	/**
+	 * Instantiates a new empty list of float.
+	 *
+	 * @param capacity
+	 *            the capacity
+	 */
+	GamaFloatList(final int capacity) {
+		super(Types.FLOAT);
+		data = new double[capacity];
+	}
+
+	/**
+	 * Instantiates a new list of float containing the values (which are copied).
+	 *
+	 * @param values
+	 *            the values
+	 */
+	GamaFloatList(final double[] values) {
+		super(Types.FLOAT);
+		data = values.clone();
+		size = values.length;
+	}
+
+	/**
+	 * Returns the element at this index, without boxing it. The list must be unboxed.
+	 *
+	 * @param index
+	 *            the index
+	 * @return the double
+	 */
+	public double getDouble(final int index) {
+		return data[index];
+	}
+
+	@Override
+	protected Double box(final int index) {
+		return data[index];
+	}
+
+	@Override
+	protected boolean canStore(final Object o) {
+		return o instanceof Double;
+	}
+
+	@Override
+	protected void store(final int index, final Double value) {
+		data[index] = value;
+	}
+
+	@Override
+	protected Object array() {
+		return data;
+	}
+
+	@Override
+	protected void grow(final int capacity) {
+		data = Arrays.copyOf(data, capacity);
+	}
+
+	@Override
+	protected int capacity() {
+		return data.length;
+	}
+
+	@Override
+	protected IList<Double> copyUnboxed() {
+		return new GamaFloatList(Arrays.copyOf(data, size));
+	}
+
+	@Override
+	protected void sortUnboxed() {
+		// Same total order as Double.compareTo()
+		Arrays.sort(data, 0, size);
+	}
+
+	@Override
+	public Double sum() {
+		double result = 0d;
+		for (int i = 0; i < size; i++) { result += data[i]; }
+		return result;
+	}
+
+	@Override
+	public Double max() {
+		if (size == 0) return null;
+		double result = data[0];
+		for (int i = 1; i < size; i++) { if (data[i] > result) { result = data[i]; } }
+		return result;
+	}
+
+	@Override
+	public Double min() {
+		if (size == 0) return null;
+		double result = data[0];
+		for (int i = 1; i < size; i++) { if (data[i] < result) { result = data[i]; } }
+		return result;
+	}
+
+}
@@ -0,0 +1,380 @@
+/*******************************************************************************************************
+ *
+ * GamaIntKeyMap.java, in msi.gama.core, is part of the source code of the GAMA modeling and simulation platform
+ * (v.1.9.3).
+ *
+ * (c) 2007-2023 UMI 209 UMMISCO IRD/SU & Partners (IRIT, MIAT, TLU, CTU)
+ *
+ * Visit https://github.com/gama-platform/gama for license information and contacts.
+ *
+ ********************************************************************************************************/
+package msi.gama.util;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import msi.gaml.types.IContainerType;
+import msi.gaml.types.IType;
+import msi.gaml.types.Types;
+
+/**
+ * An ordered map<int, ...> that stores its keys unboxed, in an open-addressing table, instead of allocating a node per
+ * entry like GamaMap. The entries are kept in two parallel arrays (keys and values) in the order of their insertion;
+ * the table only contains the positions of the entries in these arrays. Removed entries leave a hole, reclaimed when
+ * the arrays are compacted. Use GamaMapFactory to create it.
+ *
+ * Like the primitive lists (see {@link GamaPrimitiveList}), a key that is not an Integer (nil for instance) makes the
+ * map store its entries, from then on, in a regular LinkedHashMap.
+ *
+ * @param <V>
+ *            the value type
+ * @since 1.9.3
+ */
+@SuppressWarnings ({ "unchecked", "rawtypes" })
+public class GamaIntKeyMap<V> extends AbstractMap<Integer, V> implements IMap<Integer, V>, Serializable {
+
+	/** The marker, in the table, of a free slot. Positions are stored +1. */
+	private static final int FREE = 0;
+
+	/** The marker, in the table, of a slot whose entry has been removed. */
+	private static final int REMOVED = -1;
+
+	/** The type. */
+	private final IContainerType type;
+
+	/** The keys of the entries, in their order of insertion. */
+	private int[] keys;
+
+	/** The values of the entries, in their order of insertion. */
+	private Object[] values;
+
+	/** Whether the entry at this position has been removed. */
+	private boolean[] removed;
+
+	/** The table: the positions + 1 of the entries, or FREE or REMOVED. Its length is a power of 2. */
+	private int[] table;
+
+	/** The number of positions used in the arrays (including the removed entries). */
+	private int used;
+
+	/** The number of entries. */
+	private int size;
+
+	/** The number of structural modifications, for the iterators. */
+	private int modCount;
+
+	/** The entries, once a key that is not an Integer has been added. Null until then. */
+	private LinkedHashMap<Object, V> boxed;
+
+	/**
+	 * Instantiates a new int key map.
+	 *
+	 * @param capacity
+	 *            the capacity
+	 * @param contents
+	 *            the contents
+	 */
+	GamaIntKeyMap(final int capacity, final IType contents) {
+		type = Types.MAP.of(Types.INT, contents);
+		final int n = Math.max(4, capacity);
+		keys = new int[n];
+		values = new Object[n];
+		removed = new boolean[n];
+		table = new int[tableSizeFor(n)];
+	}
+
+	/**
+	 * The size of the table for a number of entries: a power of 2, filled at most at 50%.
+	 *
+	 * @param n
+	 *            the n
+	 * @return the int
+	 */
+	private static int tableSizeFor(final int n) {
+		return Integer.highestOneBit(Math.max(4, n) * 2 - 1) << 1;
+	}
+
+	/**
+	 * The slot of a key in the table.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the int
+	 */
+	private int slotOf(final int key) {
+		final int h = key * 0x9E3779B9;
+		return (h ^ h >>> 16) & table.length - 1;
+	}
+
+	/**
+	 * Returns the position of a key in the arrays, or -1 if it is not in the map.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the int
+	 */
+	private int positionOf(final int key) {
+		final int mask = table.length - 1;
+		for (int slot = slotOf(key);; slot = slot + 1 & mask) {
+			final int p = table[slot];
+			if (p == FREE) return -1;
+			if (p != REMOVED && keys[p - 1] == key) return p - 1;
+		}
+	}
+
+	/**
+	 * Whether the map still stores its keys unboxed.
+	 *
+	 * @return true, if is unboxed
+	 */
+	public boolean isUnboxed() { return boxed == null; }
+
+	/**
+	 * Moves the entries to a LinkedHashMap.
+	 */
+	private void spill() {
+		final LinkedHashMap<Object, V> map = new LinkedHashMap<>(Math.max(16, size * 2));
+		for (int i = 0; i < used; i++) { if (!removed[i]) { map.put(keys[i], (V) values[i]); } }
+		boxed = map;
+		keys = null;
+		values = null;
+		removed = null;
+		table = null;
+		used = size = 0;
+		modCount++;
+	}
+
+	/**
+	 * Rebuilds the arrays, without the removed entries, and the table, with room for at least one more entry.
+	 */
+	private void rehash() {
+		final int capacity = Math.max(4, size + (size >> 1) + 1);
+		final int[] k = new int[capacity];
+		final Object[] v = new Object[capacity];
+		int j = 0;
+		for (int i = 0; i < used; i++) {
+			if (!removed[i]) {
+				k[j] = keys[i];
+				v[j++] = values[i];
+			}
+		}
+		keys = k;
+		values = v;
+		removed = new boolean[capacity];
+		used = j;
+		table = new int[tableSizeFor(capacity)];
+		final int mask = table.length - 1;
+		for (int i = 0; i < used; i++) {
+			int slot = slotOf(keys[i]);
+			while (table[slot] != FREE) { slot = slot + 1 & mask; }
+			table[slot] = i + 1;
+		}
+	}
+
+	@Override
+	public IContainerType getGamlType() { return type; }
+
+	@Override
+	public boolean isOrdered() { return true; }
+
+	@Override
+	public int size() {
+		return boxed == null ? size : boxed.size();
+	}
+
+	@Override
+	public boolean containsKey(final Object key) {
+		if (boxed != null) return boxed.containsKey(key);
+		return key instanceof Integer i && positionOf(i) >= 0;
+	}
+
+	@Override
+	public V get(final Object key) {
+		if (boxed != null) return boxed.get(key);
+		if (!(key instanceof Integer i)) return null;
+		final int p = positionOf(i);
+		return p < 0 ? null : (V) values[p];
+	}
+
+	@Override
+	public V put(final Integer key, final V value) {
+		// Raw uses of the map can put keys of other types
+		if (boxed == null && !(((Object) key) instanceof Integer)) { spill(); }
+		if (boxed != null) return boxed.put(key, value);
+		final int k = key;
+		final int p = positionOf(k);
+		if (p >= 0) {
+			final V old = (V) values[p];
+			values[p] = value;
+			return old;
+		}
+		if (used == keys.length) { rehash(); }
+		keys[used] = k;
+		values[used] = value;
+		final int mask = table.length - 1;
+		int slot = slotOf(k);
+		while (table[slot] != FREE && table[slot] != REMOVED) { slot = slot + 1 & mask; }
+		table[slot] = ++used;
+		size++;
+		modCount++;
+		return null;
+	}
+
+	@Override
+	public V remove(final Object key) {
+		if (boxed != null) return boxed.remove(key);
+		if (!(key instanceof Integer i)) return null;
+		final int mask = table.length - 1;
+		for (int slot = slotOf(i);; slot = slot + 1 & mask) {
+			final int p = table[slot];
+			if (p == FREE) return null;
+			if (p != REMOVED && keys[p - 1] == i) {
+				table[slot] = REMOVED;
+				return removeAt(p - 1);
+			}
+		}
+	}
+
+	/**
+	 * Marks the entry at this position as removed. Its slot in the table must have already been freed.
+	 *
+	 * @param position
+	 *            the position
+	 * @return the value of the entry
+	 */
+	private V removeAt(final int position) {
+		final V old = (V) values[position];
+		removed[position] = true;
+		values[position] = null;
+		size--;
+		modCount++;
+		return old;
+	}
+
+	@Override
+	public void clear() {
+		if (boxed != null) {
+			boxed.clear();
+			return;
+		}
+		Arrays.fill(table, FREE);
+		Arrays.fill(values, 0, used, null);
+		Arrays.fill(removed, 0, used, false);
+		used = size = 0;
+		modCount++;
+	}
+
+	@Override
+	public Set<Entry<Integer, V>> entrySet() {
+		if (boxed != null) return (Set) boxed.entrySet();
+		return new AbstractSet<>() {
+
+			@Override
+			public Iterator<Entry<Integer, V>> iterator() {
+				return new EntryIterator();
+			}
+
+			@Override
+			public int size() {
+				return GamaIntKeyMap.this.size();
+			}
+
+			@Override
+			public void clear() {
+				GamaIntKeyMap.this.clear();
+			}
+		};
+	}
+
+	/**
+	 * The iterator over the entries, in their order of insertion. It fails fast: any structural modification of the map
+	 * that it has not made itself, including the move of the entries to a LinkedHashMap or the compaction of the
+	 * arrays, makes its next call throw a ConcurrentModificationException. The entries it returns write their values
+	 * through the map, so they remain valid after such a modification.
+	 */
+	private class EntryIterator implements Iterator<Entry<Integer, V>> {
+
+		/** The position of the next entry. */
+		int next;
+
+		/** The position of the last entry returned, or -1. */
+		int last = -1;
+
+		/** The expected mod count. */
+		int expectedModCount = modCount;
+
+		/**
+		 * Instantiates a new entry iterator.
+		 */
+		EntryIterator() {
+			advance();
+		}
+
+		/**
+		 * Skips the removed entries.
+		 */
+		private void advance() {
+			while (next < used && removed[next]) { next++; }
+		}
+
+		/**
+		 * Throws a ConcurrentModificationException if the map has been modified by someone else. Must be called before
+		 * accessing the arrays, which are null once the entries have been moved to a LinkedHashMap.
+		 */
+		private void checkForComodification() {
+			if (modCount != expectedModCount) throw new ConcurrentModificationException();
+		}
+
+		@Override
+		public boolean hasNext() {
+			checkForComodification();
+			return next < used;
+		}
+
+		@Override
+		public Entry<Integer, V> next() {
+			checkForComodification();
+			if (next >= used) throw new NoSuchElementException();
+			last = next++;
+			advance();
+			return new SimpleEntry<>(keys[last], (V) values[last]) {
+
+				@Override
+				public V setValue(final V value) {
+					// Not a structural modification: goes through put() as the entry may have moved since
+					GamaIntKeyMap.this.put(getKey(), value);
+					return super.setValue(value);
+				}
+			};
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) throw new IllegalStateException();
+			checkForComodification();
+			GamaIntKeyMap.this.remove(keys[last]);
+			last = -1;
+			expectedModCount = modCount;
+		}
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (o == this) return true;
+		if (!(o instanceof IMap)) return false;
+		return GamaMapFactory.equals(this, (IMap) o);
+	}
+
+	@Override
+	public int hashCode() {
+		return super.hashCode();
+	}
+
+}
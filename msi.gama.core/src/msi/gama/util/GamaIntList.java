@@ -0,0 +1,124 @@
+/*******************************************************************************************************
+ *
+ * GamaIntList.java, in msi.gama.core, is part of the source code of the GAMA modeling and simulation platform
+ * (v.1.9.3).
+ *
+ * (c) 2007-2023 UMI 209 UMMISCO IRD/SU & Partners (IRIT, MIAT, TLU, CTU)
+ *
+ * Visit https://github.com/gama-platform/gama for license information and contacts.
+ *
+ ********************************************************************************************************/
+package msi.gama.util;
+
+import java.util.Arrays;
+
+import msi.gaml.types.Types;
+
+/**
+ * A list<int> backed by an array of int. Use GamaListFactory to create it.
+ *
+ * @since 1.9.3
+ */
+public class GamaIntList extends GamaPrimitiveList<Integer> {
+
+	/** The values. */
+	private int[] data;
+
+	/**
+	 * Instantiates a new empty list of int.
+	 *
+	 * @param capacity
+	 *            the capacity
+	 */
+	GamaIntList(final int capacity) {
+		super(Types.INT);
+		data = new int[capacity];
+	}
+
+	/**
+	 * Instantiates a new list of int containing the values (which are copied).
+	 *
+	 * @param values
+	 *            the values
+	 */
+	GamaIntList(final int[] values) {
+		super(Types.INT);
+		data = values.clone();
+		size = values.length;
+	}
+
+	/**
+	 * Returns the element at this index, without boxing it. The list must be unboxed.
+	 *
+	 * @param index
+	 *            the index
+	 * @return the int
+	 */
+	public int getInt(final int index) {
+		return data[index];
+	}
+
+	@Override
+	protected Integer box(final int index) {
+		return data[index];
+	}
+
+	@Override
+	protected boolean canStore(final Object o) {
+		return o instanceof Integer;
+	}
+
+	@Override
+	protected void store(final int index, final Integer value) {
+		data[index] = value;
+	}
+
+	@Override
+	protected Object array() {
+		return data;
+	}
+
+	@Override
+	protected void grow(final int capacity) {
+		data = Arrays.copyOf(data, capacity);
+	}
+
+	@Override
+	protected int capacity() {
+		return data.length;
+	}
+
+	@Override
+	protected IList<Integer> copyUnboxed() {
+		return new GamaIntList(Arrays.copyOf(data, size));
+	}
+
+	@Override
+	protected void sortUnboxed() {
+		Arrays.sort(data, 0, size);
+	}
+
+	@Override
+	public Integer sum() {
+		int result = 0;
+		for (int i = 0; i < size; i++) { result += data[i]; }
+		return result;
+	}
+
+	@Override
+	public Integer max() {
+		if (size == 0) return null;
+		int result = data[0];
+		for (int i = 1; i < size; i++) { if (data[i] > result) { result = data[i]; } }
+		return result;
+	}
+
+	@Override
+	public Integer min() {
+		if (size == 0) return null;
+		int result = data[0];
+		for (int i = 1; i < size; i++) { if (data[i] < result) { result = data[i]; } }
+		return result;
+	}
+
+}
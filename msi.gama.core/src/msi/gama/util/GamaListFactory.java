@@ -30,6 +30,7 @@ import org.apache.commons.lang3.ArrayUtils;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 
+import msi.gama.common.preferences.GamaPreferences;
 import msi.gama.runtime.IScope;
 import msi.gama.runtime.concurrent.GamaExecutorService;
 import msi.gaml.expressions.IExpression;
@@ -166,6 +167,7 @@ public class GamaListFactory {
 	 * @return
 	 */
 	public static IList<Integer> createWithoutCasting(final IType contentType, final int[] objects) {
+		if (contentType == Types.INT && usePrimitives()) return new GamaIntList(objects);
 		final IList<Integer> list = create(contentType, objects.length);
 		list.addAll(Arrays.asList(ArrayUtils.toObject(objects)));
 		return list;
@@ -180,6 +182,7 @@ public class GamaListFactory {
 	 * @return
 	 */
 	public static IList<Double> createWithoutCasting(final IType contentType, final double[] objects) {
+		if (contentType == Types.FLOAT && usePrimitives()) return new GamaFloatList(objects);
 		final IList<Double> list = create(contentType, objects.length);
 		list.addAll(Arrays.asList(ArrayUtils.toObject(objects)));
 		return list;
@@ -482,9 +485,36 @@ public class GamaListFactory {
 	 * @return the i list
 	 */
 	public static <T> IList<T> create(final IType contentType, final int size) {
+		if (contentType == Types.INT && usePrimitives()) return (IList<T>) new GamaIntList(size);
+		if (contentType == Types.FLOAT && usePrimitives()) return (IList<T>) new GamaFloatList(size);
 		return new GamaList<>(size, contentType);
 	}
 
+	/**
+	 * Creates a list that shares the array passed, which is only copied when the list (or one of its copies) is
+	 * modified for the first time. The array must not be modified afterwards.
+	 *
+	 * @param <E>
+	 *            the element type
+	 * @param contentType
+	 *            the content type
+	 * @param elements
+	 *            the elements
+	 * @return the i list
+	 */
+	public static <E> IList<E> copyOnWrite(final IType contentType, final E[] elements) {
+		return new GamaCopyOnWriteList<>(contentType, elements, elements.length);
+	}
+
+	/**
+	 * Whether the lists of int and float store their elements as primitive values.
+	 *
+	 * @return true, if successful
+	 */
+	static boolean usePrimitives() {
+		return GamaPreferences.Experimental.PRIMITIVE_CONTAINERS.getValue();
+	}
+
 	/**
 	 * Creates the.
 	 *
@@ -17,6 +17,7 @@ import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
+import msi.gama.metamodel.agent.IAgent;
 import msi.gama.runtime.IScope;
 import msi.gaml.types.IType;
 import msi.gaml.types.Types;
@@ -133,6 +134,29 @@ public class GamaMapFactory {
 		return Collections.synchronizedMap(create());
 	}
 
+	/**
+	 * Creates an ordered map whose keys are agents, compared by identity, for the bookkeeping of the runtime (see
+	 * {@link GamaAgentMap}). Like synchronizedOrderedMap(), does not return a IMap
+	 *
+	 * @param <V>
+	 *            the value type
+	 * @return the map
+	 */
+	public static <V> Map<IAgent, V> createAgentMap() {
+		return new GamaAgentMap<>();
+	}
+
+	/**
+	 * Creates a synchronized ordered map whose keys are agents (see {@link GamaAgentMap}).
+	 *
+	 * @param <V>
+	 *            the value type
+	 * @return the map
+	 */
+	public static <V> Map<IAgent, V> synchronizedAgentMap() {
+		return Collections.synchronizedMap(new GamaAgentMap<>());
+	}
+
 	/**
 	 * Concurrent map.
 	 *
@@ -271,6 +295,7 @@ public class GamaMapFactory {
 	 * @return the i map
 	 */
 	public static IMap create(final IType key, final IType contents, final int size, final boolean ordered) {
+		if (ordered && key == Types.INT && GamaListFactory.usePrimitives()) return new GamaIntKeyMap<>(size, contents);
 		if (ordered) return new GamaMap<>(size, key, contents);
 		return new GamaMapWrapper<>(new HashMap(size), key, contents, false);
 	}
@@ -0,0 +1,255 @@
+/*******************************************************************************************************
+ *
+ * GamaPrimitiveList.java, in msi.gama.core, is part of the source code of the GAMA modeling and simulation platform
+ * (v.1.9.3).
+ *
+ * (c) 2007-2023 UMI 209 UMMISCO IRD/SU & Partners (IRIT, MIAT, TLU, CTU)
+ *
+ * Visit https://github.com/gama-platform/gama for license information and contacts.
+ *
+ ********************************************************************************************************/
+package msi.gama.util;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import msi.gama.runtime.IScope;
+import msi.gaml.types.IContainerType;
+import msi.gaml.types.IType;
+import msi.gaml.types.Types;
+
+/**
+ * The base class of the lists of int and float that store their elements in an array of primitive values. Elements are
+ * only boxed when they are read through the List API; the statistical operators (sum, mean, max, min, sort) work
+ * directly on the array.
+ *
+ * As lists can receive values that have not been casted to their content type (see
+ * {@link GamaListFactory#createWithoutCasting(IType, Object...)}), a value that cannot be stored unboxed (nil, or a
+ * value of another type) makes the list store its elements, from then on, in a regular list of objects.
+ *
+ * @param <E>
+ *            the type of the elements (Integer or Double)
+ * @since 1.9.3
+ */
+public abstract class GamaPrimitiveList<E> extends AbstractList<E> implements IList<E>, RandomAccess, Serializable {
+
+	/** The type. */
+	private final IContainerType type;
+
+	/** The number of elements stored in the array. */
+	protected int size;
+
+	/** The elements, once a value that cannot be stored unboxed has been added. Null until then. */
+	private List<E> boxed;
+
+	/**
+	 * Instantiates a new primitive list.
+	 *
+	 * @param contentType
+	 *            the content type
+	 */
+	protected GamaPrimitiveList(final IType<E> contentType) {
+		type = Types.LIST.of(contentType);
+	}
+
+	/**
+	 * Whether the elements are still stored in the array of primitive values.
+	 *
+	 * @return true, if is unboxed
+	 */
+	public boolean isUnboxed() { return boxed == null; }
+
+	/**
+	 * Returns the element of the array at this index, boxed.
+	 *
+	 * @param index
+	 *            the index
+	 * @return the e
+	 */
+	protected abstract E box(int index);
+
+	/**
+	 * Whether a value can be stored in the array.
+	 *
+	 * @param o
+	 *            the o
+	 * @return true, if successful
+	 */
+	protected abstract boolean canStore(Object o);
+
+	/**
+	 * Stores a value, that can be stored, in the array.
+	 *
+	 * @param index
+	 *            the index
+	 * @param value
+	 *            the value
+	 */
+	protected abstract void store(int index, E value);
+
+	/**
+	 * Returns the array of primitive values.
+	 *
+	 * @return the object
+	 */
+	protected abstract Object array();
+
+	/**
+	 * Replaces the array by a larger one.
+	 *
+	 * @param capacity
+	 *            the new capacity
+	 */
+	protected abstract void grow(int capacity);
+
+	/**
+	 * Returns the length of the array.
+	 *
+	 * @return the int
+	 */
+	protected abstract int capacity();
+
+	/**
+	 * Returns a copy of this list, which must be unboxed.
+	 *
+	 * @return the i list
+	 */
+	protected abstract IList<E> copyUnboxed();
+
+	/**
+	 * Sorts the array in ascending order. The list must be unboxed.
+	 */
+	protected abstract void sortUnboxed();
+
+	/**
+	 * Returns the sum of the elements of the array, with the same type as them. The list must be unboxed.
+	 *
+	 * @return the number
+	 */
+	public abstract Number sum();
+
+	/**
+	 * Returns the greatest element of the array, or null if it is empty. The list must be unboxed.
+	 *
+	 * @return the number
+	 */
+	public abstract Number max();
+
+	/**
+	 * Returns the smallest element of the array, or null if it is empty. The list must be unboxed.
+	 *
+	 * @return the number
+	 */
+	public abstract Number min();
+
+	/**
+	 * Moves the elements to a list of objects.
+	 */
+	private void spill() {
+		final List<E> list = new ArrayList<>(Math.max(size, 10));
+		for (int i = 0; i < size; i++) { list.add(box(i)); }
+		boxed = list;
+		size = 0;
+	}
+
+	@Override
+	public IContainerType<?> getGamlType() { return type; }
+
+	@Override
+	public int size() {
+		return boxed == null ? size : boxed.size();
+	}
+
+	@Override
+	public E get(final int index) {
+		if (boxed != null) return boxed.get(index);
+		Objects.checkIndex(index, size);
+		return box(index);
+	}
+
+	@Override
+	public E set(final int index, final E element) {
+		if (boxed == null && !canStore(element)) { spill(); }
+		if (boxed != null) return boxed.set(index, element);
+		Objects.checkIndex(index, size);
+		final E old = box(index);
+		store(index, element);
+		return old;
+	}
+
+	@Override
+	public void add(final int index, final E element) {
+		if (boxed == null && !canStore(element)) { spill(); }
+		modCount++;
+		if (boxed != null) {
+			boxed.add(index, element);
+			return;
+		}
+		Objects.checkIndex(index, size + 1);
+		if (size == capacity()) { grow(Math.max(10, size + (size >> 1) + 1)); }
+		final Object array = array();
+		System.arraycopy(array, index, array, index + 1, size - index);
+		store(index, element);
+		size++;
+	}
+
+	@Override
+	public E remove(final int index) {
+		modCount++;
+		if (boxed != null) return boxed.remove(index);
+		Objects.checkIndex(index, size);
+		final E old = box(index);
+		final Object array = array();
+		System.arraycopy(array, index + 1, array, index, size - index - 1);
+		size--;
+		return old;
+	}
+
+	@Override
+	public void clear() {
+		modCount++;
+		boxed = null;
+		size = 0;
+	}
+
+	@Override
+	public int indexOf(final Object o) {
+		// Integer.equals(Double) and Double.equals(Integer) are false anyway
+		if (boxed == null && !canStore(o)) return -1;
+		return super.indexOf(o);
+	}
+
+	@Override
+	public void sort(final Comparator<? super E> c) {
+		if (boxed == null && c == null) {
+			modCount++;
+			sortUnboxed();
+		} else {
+			super.sort(c);
+		}
+	}
+
+	@Override
+	public IList<E> copy(final IScope scope) {
+		if (boxed != null) return IList.super.copy(scope);
+		return copyUnboxed();
+	}
+
+	@Override
+	public boolean equals(final Object other) {
+		if (other == this) return true;
+		if (!(other instanceof IList)) return false;
+		return GamaListFactory.equals(this, (IList) other);
+	}
+
+	@Override
+	public int hashCode() {
+		return super.hashCode();
+	}
+
+}
@@ -0,0 +1,334 @@
+/*******************************************************************************************************
+ *
+ * FloatMatrixKernels.java, in msi.gama.core, is part of the source code of the GAMA modeling and simulation platform
+ * (v.1.9.3).
+ *
+ * (c) 2007-2023 UMI 209 UMMISCO IRD/SU & Partners (IRIT, MIAT, TLU, CTU)
+ *
+ * Visit https://github.com/gama-platform/gama for license information and contacts.
+ *
+ ********************************************************************************************************/
+package msi.gama.util.matrix;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import msi.gama.runtime.concurrent.GamaExecutorService;
+
+/**
+ * Dense linear algebra kernels working directly on the row-major arrays of doubles used by GamaFloatMatrix (the
+ * element at (col, row) is at index row * cols + col). The loops are blocked so that the parts of the operands they
+ * work on stay in the cache, and the blocks of rows are distributed on the agent executor when the matrices are large
+ * enough. As each element of a result is always computed by the same sequence of operations, the results do not depend
+ * on the number of threads.
+ *
+ * The LU decompositions are kept (softly) for each matrix, along with a copy of its contents, so that repeated
+ * determinants or inverses of an unchanged matrix do not decompose it again. Comparing the contents costs O(n^2),
+ * against O(n^3) for the decomposition.
+ *
+ * @since 1.9.3
+ */
+public final class FloatMatrixKernels {
+
+	/** The size of the blocks (in rows and columns). */
+	static final int BLOCK = 64;
+
+	/** The number of elementary operations above which the blocks are processed in parallel. */
+	static final long PARALLEL_THRESHOLD = 1 << 18;
+
+	/** The absolute value under which a pivot is considered as null (same as the one of commons-math). */
+	static final double SINGULARITY_THRESHOLD = 1e-11;
+
+	/** The decompositions, identified by the matrices they have been computed from. */
+	private static final Cache<IMatrix<?>, LU> DECOMPOSITIONS = CacheBuilder.newBuilder().weakKeys().softValues().build();
+
+	/**
+	 * Instantiates a new float matrix kernels.
+	 */
+	private FloatMatrixKernels() {}
+
+	/**
+	 * Runs the body for each block, in parallel if the work is large enough.
+	 *
+	 * @param blocks
+	 *            the number of blocks
+	 * @param work
+	 *            the number of elementary operations
+	 * @param body
+	 *            the body, receiving the index of the block
+	 */
+	private static void forEachBlock(final int blocks, final long work, final IntConsumer body) {
+		if (blocks > 1 && work >= PARALLEL_THRESHOLD) {
+			GamaExecutorService.executeThreaded(() -> IntStream.range(0, blocks).parallel().forEach(body));
+		} else {
+			for (int b = 0; b < blocks; b++) { body.accept(b); }
+		}
+	}
+
+	/**
+	 * The number of blocks needed to cover n rows or columns.
+	 *
+	 * @param n
+	 *            the n
+	 * @return the int
+	 */
+	private static int blocks(final int n) {
+		return (n + BLOCK - 1) / BLOCK;
+	}
+
+	/**
+	 * Multiplies a matrix of n rows and m columns by a matrix of m rows and p columns.
+	 *
+	 * @param a
+	 *            the first matrix
+	 * @param b
+	 *            the second matrix
+	 * @param n
+	 *            the number of rows of a
+	 * @param m
+	 *            the number of columns of a (and rows of b)
+	 * @param p
+	 *            the number of columns of b
+	 * @return the matrix of n rows and p columns
+	 */
+	public static double[] multiply(final double[] a, final double[] b, final int n, final int m, final int p) {
+		final double[] c = new double[n * p];
+		forEachBlock(blocks(n), (long) n * m * p, ib -> {
+			final int i0 = ib * BLOCK, i1 = Math.min(n, i0 + BLOCK);
+			for (int k0 = 0; k0 < m; k0 += BLOCK) {
+				final int k1 = Math.min(m, k0 + BLOCK);
+				for (int j0 = 0; j0 < p; j0 += BLOCK) {
+					final int j1 = Math.min(p, j0 + BLOCK);
+					for (int i = i0; i < i1; i++) {
+						final int ci = i * p, ai = i * m;
+						for (int k = k0; k < k1; k++) {
+							final double aik = a[ai + k];
+							final int bk = k * p;
+							for (int j = j0; j < j1; j++) { c[ci + j] += aik * b[bk + j]; }
+						}
+					}
+				}
+			}
+		});
+		return c;
+	}
+
+	/**
+	 * Transposes a matrix.
+	 *
+	 * @param a
+	 *            the matrix
+	 * @param rows
+	 *            its number of rows
+	 * @param cols
+	 *            its number of columns
+	 * @return the matrix of cols rows and rows columns
+	 */
+	public static double[] transpose(final double[] a, final int rows, final int cols) {
+		final double[] t = new double[rows * cols];
+		forEachBlock(blocks(rows), (long) rows * cols, ib -> {
+			final int i0 = ib * BLOCK, i1 = Math.min(rows, i0 + BLOCK);
+			for (int j0 = 0; j0 < cols; j0 += BLOCK) {
+				final int j1 = Math.min(cols, j0 + BLOCK);
+				for (int i = i0; i < i1; i++) {
+					final int ai = i * cols;
+					for (int j = j0; j < j1; j++) { t[j * rows + i] = a[ai + j]; }
+				}
+			}
+		});
+		return t;
+	}
+
+	/**
+	 * Returns the LU decomposition of a square matrix, reusing the one previously computed for this matrix if its
+	 * contents have not changed since.
+	 *
+	 * @param matrix
+	 *            the matrix the data comes from, used to identify the decomposition
+	 * @param data
+	 *            the contents of the matrix (not modified)
+	 * @param n
+	 *            the number of rows and columns
+	 * @return the lu
+	 */
+	public static LU decomposition(final IMatrix<?> matrix, final double[] data, final int n) {
+		LU lu = DECOMPOSITIONS.getIfPresent(matrix);
+		if (lu != null && lu.decomposes(data, n)) return lu;
+		lu = new LU(data, n);
+		DECOMPOSITIONS.put(matrix, lu);
+		return lu;
+	}
+
+	/**
+	 * The LU decomposition, with partial pivoting, of a square matrix: P.A = L.U, where L (whose diagonal is made of
+	 * 1s) and U are stored in the same array.
+	 */
+	public static final class LU {
+
+		/** The size. */
+		final int n;
+
+		/** A copy of the contents of the decomposed matrix. */
+		private final double[] source;
+
+		/** L and U. */
+		private final double[] lu;
+
+		/** The row of the original matrix at each row of the decomposition. */
+		private final int[] pivot;
+
+		/** Whether the number of row permutations is even. */
+		private boolean even = true;
+
+		/** Whether the matrix is singular. */
+		private boolean singular;
+
+		/** The inverse, computed on demand. */
+		private volatile double[] inverse;
+
+		/**
+		 * Decomposes a matrix.
+		 *
+		 * @param data
+		 *            the data
+		 * @param n
+		 *            the n
+		 */
+		LU(final double[] data, final int n) {
+			this.n = n;
+			source = Arrays.copyOf(data, n * n);
+			lu = source.clone();
+			pivot = new int[n];
+			for (int i = 0; i < n; i++) { pivot[i] = i; }
+			for (int k = 0; k < n; k++) {
+				int max = k;
+				double best = Math.abs(lu[k * n + k]);
+				for (int i = k + 1; i < n; i++) {
+					final double v = Math.abs(lu[i * n + k]);
+					if (v > best) {
+						best = v;
+						max = i;
+					}
+				}
+				if (best < SINGULARITY_THRESHOLD) {
+					singular = true;
+					return;
+				}
+				if (max != k) {
+					swapRows(k, max);
+					even = !even;
+				}
+				final int kk = k, rk = k * n, first = k + 1, remaining = n - first;
+				final double pkk = lu[rk + k];
+				// The rows below the pivot are updated independently from each other
+				forEachBlock(blocks(remaining), (long) remaining * remaining, ib -> {
+					final int i0 = first + ib * BLOCK, i1 = Math.min(n, i0 + BLOCK);
+					for (int i = i0; i < i1; i++) {
+						final int ri = i * n;
+						final double l = lu[ri + kk] /= pkk;
+						if (l == 0d) { continue; }
+						for (int j = first; j < n; j++) { lu[ri + j] -= l * lu[rk + j]; }
+					}
+				});
+			}
+		}
+
+		/**
+		 * Swaps two rows.
+		 *
+		 * @param r1
+		 *            the r 1
+		 * @param r2
+		 *            the r 2
+		 */
+		private void swapRows(final int r1, final int r2) {
+			final int o1 = r1 * n, o2 = r2 * n;
+			for (int j = 0; j < n; j++) {
+				final double tmp = lu[o1 + j];
+				lu[o1 + j] = lu[o2 + j];
+				lu[o2 + j] = tmp;
+			}
+			final int p = pivot[r1];
+			pivot[r1] = pivot[r2];
+			pivot[r2] = p;
+		}
+
+		/**
+		 * Checks if is singular.
+		 *
+		 * @return true, if is singular
+		 */
+		public boolean isSingular() { return singular; }
+
+		/**
+		 * Whether this decomposition is the one of a matrix with these contents.
+		 *
+		 * @param data
+		 *            the contents of the matrix
+		 * @param n
+		 *            the number of rows and columns
+		 * @return true, if the contents are the ones that have been decomposed
+		 */
+		boolean decomposes(final double[] data, final int n) {
+			return this.n == n && Arrays.equals(source, 0, source.length, data, 0, n * n);
+		}
+
+		/**
+		 * Gets the determinant.
+		 *
+		 * @return the determinant
+		 */
+		public double getDeterminant() {
+			if (singular) return 0d;
+			double result = even ? 1d : -1d;
+			for (int i = 0; i < n; i++) { result *= lu[i * n + i]; }
+			return result;
+		}
+
+		/**
+		 * Returns a copy of the inverse of the matrix, which must not be singular. Each column of the inverse is
+		 * obtained by solving L.U.x = P.e, where e is the corresponding column of the identity.
+		 *
+		 * @return the inverse, in a new array
+		 */
+		public double[] getInverse() {
+			double[] result = inverse;
+			if (result == null) {
+				final double[] inv = new double[n * n];
+				forEachBlock(blocks(n), (long) n * n * n, jb -> {
+					final double[] x = new double[n];
+					final int j0 = jb * BLOCK, j1 = Math.min(n, j0 + BLOCK);
+					for (int col = j0; col < j1; col++) {
+						int start = n;
+						for (int i = 0; i < n; i++) {
+							x[i] = pivot[i] == col ? 1d : 0d;
+							if (x[i] != 0d && start == n) { start = i; }
+						}
+						// Forward substitution (L has a unit diagonal); x is null before start
+						for (int i = start + 1; i < n; i++) {
+							final int ri = i * n;
+							double s = x[i];
+							for (int j = start; j < i; j++) { s -= lu[ri + j] * x[j]; }
+							x[i] = s;
+						}
+						// Back substitution
+						for (int i = n - 1; i >= 0; i--) {
+							final int ri = i * n;
+							double s = x[i];
+							for (int j = i + 1; j < n; j++) { s -= lu[ri + j] * x[j]; }
+							x[i] = s / lu[ri + i];
+						}
+						for (int i = 0; i < n; i++) { inv[i * n + col] = x[i]; }
+					}
+				});
+				inverse = result = inv;
+			}
+			return result.clone();
+		}
+	}
+
+}
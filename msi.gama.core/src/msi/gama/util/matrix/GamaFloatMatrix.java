@@ -61,6 +61,8 @@ public class GamaFloatMatrix extends GamaMatrix<Double> implements IImageProvide
 			return new GamaFloatMatrix(scope, m.getCols(scope), m.getRows(scope), ((GamaObjectMatrix) m).getMatrix());
 		if (m instanceof GamaIntMatrix)
 			return new GamaFloatMatrix(m.getCols(scope), m.getRows(scope), ((GamaIntMatrix) m).matrix);
+		if (m instanceof GamaSparseMatrix sm)
+			return new GamaFloatMatrix(sm.numCols, sm.numRows, sm.toDoubleArray(scope));
 		return null;
 	}
 
@@ -81,6 +83,7 @@ public class GamaFloatMatrix extends GamaMatrix<Double> implements IImageProvide
 		if (m instanceof GamaFloatMatrix) return new GamaFloatMatrix(c, r, ((GamaFloatMatrix) m).getMatrix());
 		if (m instanceof GamaObjectMatrix) return new GamaFloatMatrix(scope, c, r, ((GamaObjectMatrix) m).getMatrix());
 		if (m instanceof GamaIntMatrix) return new GamaFloatMatrix(c, r, ((GamaIntMatrix) m).matrix);
+		if (m instanceof GamaSparseMatrix sm) return new GamaFloatMatrix(c, r, sm.toDoubleArray(scope));
 		return null;
 	}
 
@@ -298,12 +301,7 @@ public class GamaFloatMatrix extends GamaMatrix<Double> implements IImageProvide
 	@Override
 	public GamaFloatMatrix _reverse(final IScope scope) throws GamaRuntimeException {
 		final GamaFloatMatrix result = new GamaFloatMatrix(numRows, numCols);
-		for (int i = 0; i < numCols; i++) {
-			for (int j = 0; j < numRows; j++) {
-				final double val = get(scope, i, j);
-				result.set(scope, j, i, val);
-			}
-		}
+		result.setMatrix(FloatMatrixKernels.transpose(getMatrix(), numRows, numCols));
 		return result;
 	}
 
@@ -319,6 +317,7 @@ public class GamaFloatMatrix extends GamaMatrix<Double> implements IImageProvide
 	@Override
 	public boolean equals(final Object m) {
 		if (this == m) return true;
+		if (m instanceof GamaSparseMatrix sm) return sm.equals(this);
 		if (!(m instanceof GamaFloatMatrix mat)) return false;
 		return Arrays.equals(this.getMatrix(), mat.getMatrix());
 	}
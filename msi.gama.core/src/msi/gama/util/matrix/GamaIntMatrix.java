@@ -55,6 +55,8 @@ public class GamaIntMatrix extends GamaMatrix<Integer> implements IImageProvider
 			return new GamaIntMatrix(scope, m.getCols(scope), m.getRows(scope), ((GamaObjectMatrix) m).getMatrix());
 		if (m instanceof GamaFloatMatrix)
 			return new GamaIntMatrix(m.getCols(scope), m.getRows(scope), ((GamaFloatMatrix) m).getMatrix());
+		if (m instanceof GamaSparseMatrix sm)
+			return new GamaIntMatrix(sm.numCols, sm.numRows, sm.toDoubleArray(scope));
 		return null;
 	}
 
@@ -75,6 +77,7 @@ public class GamaIntMatrix extends GamaMatrix<Integer> implements IImageProvider
 		if (m instanceof GamaIntMatrix) return new GamaIntMatrix(c, r, ((GamaIntMatrix) m).getMatrix());
 		if (m instanceof GamaObjectMatrix) return new GamaIntMatrix(scope, c, r, ((GamaObjectMatrix) m).getMatrix());
 		if (m instanceof GamaFloatMatrix) return new GamaIntMatrix(c, r, ((GamaFloatMatrix) m).getMatrix());
+		if (m instanceof GamaSparseMatrix sm) return new GamaIntMatrix(c, r, sm.toDoubleArray(scope));
 		return null;
 	}
 
@@ -323,6 +326,7 @@ public class GamaIntMatrix extends GamaMatrix<Integer> implements IImageProvider
 	@Override
 	public boolean equals(final Object m) {
 		if (this == m) return true;
+		if (m instanceof GamaSparseMatrix sm) return sm.equals(this);
 		if (!(m instanceof GamaIntMatrix mat)) return false;
 		return Arrays.equals(this.matrix, mat.matrix);
 	}
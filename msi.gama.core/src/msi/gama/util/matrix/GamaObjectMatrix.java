@@ -55,6 +55,7 @@ public class GamaObjectMatrix extends GamaMatrix<Object> {
 		if (m instanceof GamaIntMatrix) return new GamaObjectMatrix(c, r, ((GamaIntMatrix) m).matrix);
 		if (m instanceof GamaSpatialMatrix)
 			return new GamaObjectMatrix(c, r, ((GamaSpatialMatrix) m).getMatrix(), m.getGamlType().getContentType());
+		if (m instanceof GamaSparseMatrix sm) return from(c, r, sm.toDense(null));
 		return null;
 	}
 
@@ -0,0 +1,1064 @@
+/*******************************************************************************************************
+ *
+ * GamaSparseMatrix.java, in msi.gama.core, is part of the source code of the GAMA modeling and simulation platform
+ * (v.1.9.3).
+ *
+ * (c) 2007-2023 UMI 209 UMMISCO IRD/SU & Partners (IRIT, MIAT, TLU, CTU)
+ *
+ * Visit https://github.com/gama-platform/gama for license information and contacts.
+ *
+ ********************************************************************************************************/
+package msi.gama.util.matrix;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import msi.gama.common.util.RandomUtils;
+import msi.gama.metamodel.shape.GamaPoint;
+import msi.gama.runtime.IScope;
+import msi.gama.runtime.exceptions.GamaRuntimeException;
+import msi.gama.util.IContainer;
+import msi.gama.util.IList;
+import msi.gaml.operators.Cast;
+import msi.gaml.types.GamaMatrixType;
+import msi.gaml.types.IType;
+import msi.gaml.types.Types;
+import one.util.streamex.StreamEx;
+
+/**
+ * A matrix of int or float that only stores its non-null elements, for the large matrices that are mostly empty
+ * (adjacency, distance or transition matrices, for instance). The elements are kept in an open-addressing table keyed
+ * by their index (row * cols + col), where they are read, written and removed in constant time. A compressed sparse
+ * row (CSR) copy of this table is built when the products, transpositions and sums need it, and dropped at the next
+ * write. The cells that are not stored are null (0 or 0.0): writing a null value in a cell removes it.
+ *
+ * The number of cells of such a matrix is not limited by the size of an array. Only the operations that produce a
+ * value for each cell (conversions to lists or to dense matrices, dense results of arithmetic operations) require it
+ * to fit in one. GamaMatrixType creates these matrices for the large matrices filled with 0, when the experimental
+ * preference "pref_sparse_matrices" is enabled.
+ *
+ * A matrix whose proportion of non-null elements exceeds {@link #DENSITY_THRESHOLD} is no longer sparse: the results
+ * of operations are then converted to a GamaIntMatrix or a GamaFloatMatrix (see {@link #compact(IScope)}), and a
+ * matrix filled in place moves its elements to a row-major array, like those of these matrices, where they stay until
+ * it is cleared. Sparse and dense matrices with the same dimensions and the same cells are equal.
+ *
+ * @param <T>
+ *            Integer or Double
+ * @since 1.9.3
+ */
+@SuppressWarnings ({ "unchecked", "rawtypes" })
+public class GamaSparseMatrix<T extends Number> extends GamaMatrix<T> {
+
+	/** The number of cells from which the matrices filled with 0 are created sparse. */
+	public static final long SPARSE_THRESHOLD = 1 << 22;
+
+	/** The proportion of non-null elements above which a sparse result is converted to a dense matrix. */
+	public static final double DENSITY_THRESHOLD = 0.1;
+
+	/** The maximal number of cells of a dense matrix. */
+	private static final long MAX_DENSE_SIZE = Integer.MAX_VALUE - 8;
+
+	/** The marker of a free slot in the table. */
+	private static final long FREE = -1L;
+
+	/**
+	 * Consumer of the non-null elements of a matrix.
+	 */
+	@FunctionalInterface
+	public interface ElementConsumer {
+
+		/**
+		 * Accepts an element.
+		 *
+		 * @param col
+		 *            the col
+		 * @param row
+		 *            the row
+		 * @param value
+		 *            the value
+		 */
+		void accept(int col, int row, double value);
+	}
+
+	/**
+	 * The compressed sparse row form of the matrix: the elements of each row, ordered by column, are stored
+	 * contiguously, starting at rowStart[row].
+	 */
+	private static final class CSR {
+
+		/** The start of each row in cols and values (rowStart[numRows] is the number of elements). */
+		final int[] rowStart;
+
+		/** The columns of the elements. */
+		final int[] cols;
+
+		/** The values of the elements. */
+		final double[] values;
+
+		/**
+		 * Instantiates a new csr.
+		 *
+		 * @param rows
+		 *            the rows
+		 * @param size
+		 *            the size
+		 */
+		CSR(final int rows, final int size) {
+			rowStart = new int[rows + 1];
+			cols = new int[size];
+			values = new double[size];
+		}
+	}
+
+	/** Whether the elements are int (otherwise float). */
+	private final boolean integer;
+
+	/** The indices of the elements, or FREE. Its length is a power of 2. */
+	private long[] keys;
+
+	/** The values of the elements. */
+	private double[] values;
+
+	/** The number of elements. */
+	private int size;
+
+	/** The values of all the cells, in row-major order, once the matrix is no longer sparse. Null until then. */
+	private double[] dense;
+
+	/** The compressed sparse row form, built on demand and dropped at each write. */
+	private CSR csr;
+
+	/**
+	 * Instantiates a new empty sparse matrix.
+	 *
+	 * @param cols
+	 *            the cols
+	 * @param rows
+	 *            the rows
+	 * @param contentsType
+	 *            the contents type (int, otherwise float)
+	 */
+	public GamaSparseMatrix(final int cols, final int rows, final IType<?> contentsType) {
+		this(cols, rows, contentsType.id() == IType.INT, 16);
+	}
+
+	/**
+	 * Instantiates a new empty sparse matrix.
+	 *
+	 * @param cols
+	 *            the cols
+	 * @param rows
+	 *            the rows
+	 * @param integer
+	 *            whether it contains int
+	 * @param capacity
+	 *            the expected number of elements
+	 */
+	GamaSparseMatrix(final int cols, final int rows, final boolean integer, final int capacity) {
+		super(cols, rows, integer ? Types.INT : Types.FLOAT);
+		this.integer = integer;
+		allocate(tableSizeFor(capacity));
+	}
+
+	/**
+	 * The size of the table for a number of elements: a power of 2, filled at most at 50%.
+	 *
+	 * @param n
+	 *            the n
+	 * @return the int
+	 */
+	private static int tableSizeFor(final int n) {
+		return Integer.highestOneBit(Math.max(8, n) * 2 - 1) << 1;
+	}
+
+	/**
+	 * Allocates an empty table.
+	 *
+	 * @param length
+	 *            the length
+	 */
+	private void allocate(final int length) {
+		keys = new long[length];
+		Arrays.fill(keys, FREE);
+		values = new double[length];
+		size = 0;
+		csr = null;
+		dense = null;
+	}
+
+	/**
+	 * Moves the elements to a row-major array of all the cells. The matrix must be able to fit in an array.
+	 */
+	private void densify() {
+		final double[] d = new double[(int) cells()];
+		for (int i = 0; i < keys.length; i++) { if (keys[i] != FREE) { d[(int) keys[i]] = values[i]; } }
+		dense = d;
+		keys = null;
+		values = null;
+	}
+
+	/**
+	 * Whether the matrix still stores only its non-null elements.
+	 *
+	 * @return true, if is sparse
+	 */
+	public boolean isSparse() { return dense == null; }
+
+	/**
+	 * The home slot of an index in the table.
+	 *
+	 * @param index
+	 *            the index
+	 * @return the int
+	 */
+	private int home(final long index) {
+		final long h = index * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ h >>> 32) & keys.length - 1;
+	}
+
+	/**
+	 * The slot containing an index, or the free slot where it would be inserted.
+	 *
+	 * @param index
+	 *            the index
+	 * @return the int
+	 */
+	private int slotOf(final long index) {
+		final int mask = keys.length - 1;
+		for (int slot = home(index);; slot = slot + 1 & mask) {
+			final long k = keys[slot];
+			if (k == index || k == FREE) return slot;
+		}
+	}
+
+	/**
+	 * Doubles the size of the table.
+	 */
+	private void grow() {
+		final long[] k = keys;
+		final double[] v = values;
+		final int n = size;
+		allocate(k.length * 2);
+		for (int i = 0; i < k.length; i++) {
+			if (k[i] != FREE) {
+				final int slot = slotOf(k[i]);
+				keys[slot] = k[i];
+				values[slot] = v[i];
+			}
+		}
+		size = n;
+	}
+
+	/**
+	 * The number of cells of the matrix.
+	 *
+	 * @return the long
+	 */
+	public long cells() {
+		return (long) numCols * numRows;
+	}
+
+	/**
+	 * The number of non-null elements.
+	 *
+	 * @return the int
+	 */
+	public int nonNullElements() {
+		return size;
+	}
+
+	/**
+	 * The proportion of non-null elements.
+	 *
+	 * @return the double
+	 */
+	public double density() {
+		final long cells = cells();
+		return cells == 0 ? 0d : (double) size / cells;
+	}
+
+	/**
+	 * Whether the elements are int.
+	 *
+	 * @return true, if is integer
+	 */
+	public boolean isInteger() { return integer; }
+
+	/**
+	 * Returns the value at this index.
+	 *
+	 * @param index
+	 *            the index (row * cols + col)
+	 * @return the double
+	 */
+	private double getAt(final long index) {
+		if (dense != null) return dense[(int) index];
+		final int slot = slotOf(index);
+		return keys[slot] == FREE ? 0d : values[slot];
+	}
+
+	/**
+	 * Sets the value at this index, removing it if it is null.
+	 *
+	 * @param index
+	 *            the index (row * cols + col)
+	 * @param value
+	 *            the value
+	 */
+	private void setAt(final long index, final double value) {
+		if (value == 0d) {
+			removeAt(index);
+			return;
+		}
+		if (dense != null) {
+			if (dense[(int) index] == 0d) { size++; }
+			dense[(int) index] = value;
+			csr = null;
+			return;
+		}
+		int slot = slotOf(index);
+		if (keys[slot] == FREE) {
+			if (size + 1 > DENSITY_THRESHOLD * cells() && cells() <= MAX_DENSE_SIZE) {
+				densify();
+				setAt(index, value);
+				return;
+			}
+			if (size + 1 > keys.length >> 1) {
+				grow();
+				slot = slotOf(index);
+			}
+			keys[slot] = index;
+			size++;
+		}
+		values[slot] = value;
+		csr = null;
+	}
+
+	/**
+	 * Removes the value at this index. The elements that follow it in the table are shifted back, so that no marker of
+	 * removed slots is needed.
+	 *
+	 * @param index
+	 *            the index (row * cols + col)
+	 * @return the value removed, or 0
+	 */
+	private double removeAt(final long index) {
+		if (dense != null) {
+			final double old = dense[(int) index];
+			if (old != 0d) {
+				dense[(int) index] = 0d;
+				size--;
+				csr = null;
+			}
+			return old;
+		}
+		int hole = slotOf(index);
+		if (keys[hole] == FREE) return 0d;
+		final double old = values[hole];
+		final int mask = keys.length - 1;
+		for (int slot = hole + 1 & mask; keys[slot] != FREE; slot = slot + 1 & mask) {
+			// The element can fill the hole if the hole lies between its home slot and its slot
+			if ((slot - home(keys[slot]) & mask) >= (slot - hole & mask)) {
+				keys[hole] = keys[slot];
+				values[hole] = values[slot];
+				hole = slot;
+			}
+		}
+		keys[hole] = FREE;
+		values[hole] = 0d;
+		size--;
+		csr = null;
+		return old;
+	}
+
+	/**
+	 * Returns the value of a cell, without boxing it.
+	 *
+	 * @param col
+	 *            the col
+	 * @param row
+	 *            the row
+	 * @return the double
+	 */
+	public double getDouble(final int col, final int row) {
+		if (col >= numCols || col < 0 || row >= numRows || row < 0) return 0d;
+		return getAt((long) row * numCols + col);
+	}
+
+	/**
+	 * Sets the value of a cell, without boxing it. The value is truncated if the matrix contains int.
+	 *
+	 * @param col
+	 *            the col
+	 * @param row
+	 *            the row
+	 * @param value
+	 *            the value
+	 */
+	public void setDouble(final int col, final int row, final double value) {
+		if (col < numCols && col >= 0 && row < numRows && row >= 0) {
+			setAt((long) row * numCols + col, integer ? (int) value : value);
+		}
+	}
+
+	/**
+	 * Returns the compressed sparse row form of the matrix, building it if necessary.
+	 *
+	 * @return the csr
+	 */
+	private CSR csr() {
+		CSR result = csr;
+		if (result == null) {
+			final long[] indices = new long[size];
+			int n = 0;
+			if (dense != null) {
+				for (int i = 0; i < dense.length; i++) { if (dense[i] != 0d) { indices[n++] = i; } }
+			} else {
+				for (final long k : keys) { if (k != FREE) { indices[n++] = k; } }
+				Arrays.sort(indices);
+			}
+			result = new CSR(numRows, size);
+			for (int i = 0; i < size; i++) {
+				final long index = indices[i];
+				result.rowStart[(int) (index / numCols) + 1]++;
+				result.cols[i] = (int) (index % numCols);
+				result.values[i] = getAt(index);
+			}
+			for (int row = 0; row < numRows; row++) { result.rowStart[row + 1] += result.rowStart[row]; }
+			csr = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Applies the consumer to the non-null elements, row by row and, in each row, column by column.
+	 *
+	 * @param consumer
+	 *            the consumer
+	 */
+	public void forEachElement(final ElementConsumer consumer) {
+		final CSR c = csr();
+		for (int row = 0; row < numRows; row++) {
+			for (int i = c.rowStart[row], end = c.rowStart[row + 1]; i < end; i++) {
+				consumer.accept(c.cols[i], row, c.values[i]);
+			}
+		}
+	}
+
+	/**
+	 * The sum of the elements.
+	 *
+	 * @return an Integer if the matrix contains int, a Double otherwise
+	 */
+	public Number sum() {
+		double result = 0d;
+		for (final double v : csr().values) { result += v; }
+		return integer ? (Number) (int) result : (Number) result;
+	}
+
+	/**
+	 * The sums of the elements of each row.
+	 *
+	 * @return the array of numRows sums
+	 */
+	public double[] rowSums() {
+		final CSR c = csr();
+		final double[] result = new double[numRows];
+		for (int row = 0; row < numRows; row++) {
+			double s = 0d;
+			for (int i = c.rowStart[row], end = c.rowStart[row + 1]; i < end; i++) { s += c.values[i]; }
+			result[row] = s;
+		}
+		return result;
+	}
+
+	/**
+	 * The sums of the elements of each column.
+	 *
+	 * @return the array of numCols sums
+	 */
+	public double[] columnSums() {
+		final CSR c = csr();
+		final double[] result = new double[numCols];
+		for (int i = 0; i < size; i++) { result[c.cols[i]] += c.values[i]; }
+		return result;
+	}
+
+	/**
+	 * Returns the values of all the cells, in a new row-major array.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @return the double[]
+	 */
+	public double[] toDoubleArray(final IScope scope) {
+		if (dense != null) return dense.clone();
+		checkDenseSize(scope, cells());
+		final double[] result = new double[(int) cells()];
+		for (int i = 0; i < keys.length; i++) { if (keys[i] != FREE) { result[(int) keys[i]] = values[i]; } }
+		return result;
+	}
+
+	/**
+	 * Throws an error if a dense matrix cannot have this number of cells.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param cells
+	 *            the cells
+	 */
+	private static void checkDenseSize(final IScope scope, final long cells) {
+		if (cells > MAX_DENSE_SIZE) throw GamaRuntimeException
+				.error("This matrix is too large (" + cells + " cells) to be converted to a dense matrix", scope);
+	}
+
+	/**
+	 * Returns a dense copy of this matrix.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @return a GamaIntMatrix or a GamaFloatMatrix
+	 */
+	public GamaMatrix<T> toDense(final IScope scope) {
+		final double[] data = toDoubleArray(scope);
+		return (GamaMatrix<T>) (integer ? new GamaIntMatrix(numCols, numRows, data)
+				: new GamaFloatMatrix(numCols, numRows, data));
+	}
+
+	/**
+	 * Returns this matrix, or a dense copy of it if it is not sparse enough to benefit from this representation.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @return the i matrix
+	 */
+	public IMatrix<T> compact(final IScope scope) {
+		if (dense != null || density() > DENSITY_THRESHOLD && cells() <= MAX_DENSE_SIZE) return toDense(scope);
+		return this;
+	}
+
+	/**
+	 * Boxes a value.
+	 *
+	 * @param value
+	 *            the value
+	 * @return the t
+	 */
+	private T box(final double value) {
+		return (T) (integer ? (Number) (int) value : (Number) value);
+	}
+
+	/**
+	 * Converts a value to the type of the elements.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param value
+	 *            the value
+	 * @return the double
+	 */
+	private double unbox(final IScope scope, final Object value) {
+		return integer ? Cast.asInt(scope, value) : Cast.asFloat(scope, value);
+	}
+
+	@Override
+	public T get(final IScope scope, final int col, final int row) {
+		return box(getDouble(col, row));
+	}
+
+	@Override
+	public void set(final IScope scope, final int col, final int row, final Object obj) throws GamaRuntimeException {
+		if (col < numCols && col >= 0 && row < numRows && row >= 0) {
+			setAt((long) row * numCols + col, unbox(scope, obj));
+		}
+	}
+
+	@Override
+	public T remove(final IScope scope, final int col, final int row) {
+		if (col >= numCols || col < 0 || row >= numRows || row < 0) return box(0d);
+		return box(removeAt((long) row * numCols + col));
+	}
+
+	@Override
+	public T getNthElement(final Integer index) {
+		if (index == null || index < 0 || index >= cells()) return box(0d);
+		return box(getAt(index));
+	}
+
+	@Override
+	protected void setNthElement(final IScope scope, final int index, final Object value) {
+		if (index >= 0 && index < cells()) { setAt(index, unbox(scope, value)); }
+	}
+
+	@Override
+	protected IList<T> _listValue(final IScope scope, final IType contentsType, final boolean cast) {
+		return toDense(scope)._listValue(scope, contentsType, cast);
+	}
+
+	@Override
+	protected IMatrix _matrixValue(final IScope scope, final GamaPoint preferredSize, final IType type,
+			final boolean copy) {
+		return GamaMatrixType.from(scope, this, type, preferredSize, copy);
+	}
+
+	@Override
+	protected void _clear() {
+		allocate(tableSizeFor(0));
+	}
+
+	@Override
+	protected boolean _removeFirst(final IScope scope, final T value) throws GamaRuntimeException {
+		final double v = value.doubleValue();
+		// Setting a null cell to 0 does not change anything
+		if (v == 0d) return size < cells();
+		final CSR c = csr();
+		for (int row = 0; row < numRows; row++) {
+			for (int i = c.rowStart[row], end = c.rowStart[row + 1]; i < end; i++) {
+				if (c.values[i] == v) {
+					removeAt((long) row * numCols + c.cols[i]);
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	@Override
+	protected boolean _removeAll(final IScope scope, final IContainer<?, T> list) throws GamaRuntimeException {
+		final Set<Double> removed = new HashSet<>();
+		for (final T o : list.iterable(scope)) { if (o.doubleValue() != 0d) { removed.add(o.doubleValue()); } }
+		if (removed.isEmpty()) return true;
+		// The CSR form is not modified by the removals
+		forEachElement((col, row, value) -> {
+			if (removed.contains(value)) { removeAt((long) row * numCols + col); }
+		});
+		return true;
+	}
+
+	/**
+	 * Filling the matrix with a non-null value makes it dense.
+	 */
+	@Override
+	protected void _putAll(final IScope scope, final Object o) throws GamaRuntimeException {
+		final double v = unbox(scope, o);
+		_clear();
+		if (v == 0d) return;
+		checkDenseSize(scope, cells());
+		keys = null;
+		values = null;
+		dense = new double[(int) cells()];
+		Arrays.fill(dense, v);
+		size = dense.length;
+	}
+
+	@Override
+	protected IMatrix<T> _reverse(final IScope scope) throws GamaRuntimeException {
+		final GamaSparseMatrix<T> result = new GamaSparseMatrix<>(numRows, numCols, integer, size);
+		forEachElement((col, row, value) -> result.setAt((long) col * numRows + row, value));
+		return result.compact(scope);
+	}
+
+	@Override
+	protected boolean _isEmpty(final IScope scope) {
+		return size == 0;
+	}
+
+	@Override
+	protected boolean _contains(final IScope scope, final Object o) {
+		if (!(o instanceof Number n)) return false;
+		final double v = n.doubleValue();
+		if (v == 0d) return size < cells();
+		for (final double value : csr().values) { if (value == v) return true; }
+		return false;
+	}
+
+	/**
+	 * The length of the matrix, limited to the largest int.
+	 */
+	@Override
+	protected Integer _length(final IScope scope) {
+		return (int) Math.min(Integer.MAX_VALUE, cells());
+	}
+
+	@Override
+	protected T _last(final IScope scope) {
+		return box(cells() == 0 ? 0d : getAt(cells() - 1));
+	}
+
+	@Override
+	protected T _first(final IScope scope) {
+		return box(getAt(0));
+	}
+
+	/**
+	 * A copy with another size keeps the elements at the same indices (like dense matrices).
+	 */
+	@Override
+	public GamaSparseMatrix<T> copy(final IScope scope, final GamaPoint preferredSize, final boolean copy) {
+		if (preferredSize == null && !copy) return this;
+		final int cols = preferredSize == null ? numCols : (int) preferredSize.getX();
+		final int rows = preferredSize == null ? numRows : (int) preferredSize.getY();
+		final GamaSparseMatrix<T> result = new GamaSparseMatrix<>(cols, rows, integer, size);
+		final long cells = result.cells();
+		forEachElement((col, row, value) -> {
+			final long index = (long) row * numCols + col;
+			if (index < cells) { result.setAt(index, value); }
+		});
+		return result;
+	}
+
+	/**
+	 * Equal to the sparse matrices, and to the GamaIntMatrix (if it contains int) or GamaFloatMatrix (otherwise), that
+	 * have the same dimensions and the same cells.
+	 */
+	@Override
+	public boolean equals(final Object o) {
+		if (this == o) return true;
+		if (o instanceof GamaSparseMatrix m) {
+			if (m.integer != integer || m.numCols != numCols || m.numRows != numRows || m.size != size) return false;
+			final CSR c = csr();
+			for (int row = 0; row < numRows; row++) {
+				for (int i = c.rowStart[row], end = c.rowStart[row + 1]; i < end; i++) {
+					if (m.getAt((long) row * numCols + c.cols[i]) != c.values[i]) return false;
+				}
+			}
+			return true;
+		}
+		if (!(integer ? o instanceof GamaIntMatrix : o instanceof GamaFloatMatrix)) return false;
+		final GamaMatrix<?> m = (GamaMatrix<?>) o;
+		if (m.numCols != numCols || m.numRows != numRows) return false;
+		if (integer) {
+			final int[] data = ((GamaIntMatrix) m).matrix;
+			for (int i = 0; i < data.length; i++) { if (data[i] != getAt(i)) return false; }
+		} else {
+			final double[] data = ((GamaFloatMatrix) m).getMatrix();
+			for (int i = 0; i < data.length; i++) { if (data[i] != getAt(i)) return false; }
+		}
+		return true;
+	}
+
+	/**
+	 * The hash code of the array of all the cells (as computed by Arrays.hashCode()), like the dense matrices: the
+	 * null cells only contribute a power of 31, computed once for each element.
+	 */
+	@Override
+	public int hashCode() {
+		final long cells = cells();
+		int result = pow31(cells);
+		final CSR c = csr();
+		for (int row = 0; row < numRows; row++) {
+			for (int i = c.rowStart[row], end = c.rowStart[row + 1]; i < end; i++) {
+				final double v = c.values[i];
+				final int hash = integer ? (int) v : Double.hashCode(v);
+				result += hash * pow31(cells - 1 - ((long) row * numCols + c.cols[i]));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 31 to the power of n, with the overflows of int arithmetic.
+	 *
+	 * @param n
+	 *            the n
+	 * @return the int
+	 */
+	private static int pow31(final long n) {
+		int result = 1, base = 31;
+		for (long e = n; e > 0; e >>>= 1) {
+			if ((e & 1) != 0) { result *= base; }
+			base *= base;
+		}
+		return result;
+	}
+
+	/**
+	 * Moves the elements to random cells (which gives the same distribution as shuffling all the cells).
+	 */
+	@Override
+	public void shuffleWith(final RandomUtils randomAgent) {
+		if (dense != null) {
+			randomAgent.shuffleInPlace(dense);
+			csr = null;
+			return;
+		}
+		final double[] v = csr().values;
+		final long cells = cells();
+		_clear();
+		for (final double value : v) {
+			long index;
+			do {
+				index = Math.min(cells - 1, (long) (randomAgent.next() * cells));
+			} while (getAt(index) != 0d);
+			setAt(index, value);
+		}
+	}
+
+	/**
+	 * A view of all the cells, computed as they are accessed.
+	 */
+	@Override
+	public List<T> iterable(final IScope scope) {
+		final int length = _length(scope);
+		class Cells extends AbstractList<T> implements RandomAccess {
+
+			@Override
+			public T get(final int index) {
+				return getNthElement(index);
+			}
+
+			@Override
+			public int size() {
+				return length;
+			}
+		}
+		return new Cells();
+	}
+
+	@Override
+	public StreamEx<T> stream(final IScope scope) {
+		return StreamEx.of(iterable(scope));
+	}
+
+	@Override
+	public double[] getFieldData(final IScope scope) {
+		return toDoubleArray(scope);
+	}
+
+	/**
+	 * Checks that another matrix has the same dimensions.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param other
+	 *            the other
+	 */
+	private void checkDimensions(final IScope scope, final IMatrix other) {
+		if (other == null || other.getCols(scope) != numCols || other.getRows(scope) != numRows)
+			throw GamaRuntimeException.error(" The dimensions of the matrices do not correspond", scope);
+	}
+
+	/**
+	 * Whether a matrix contains int.
+	 *
+	 * @param m
+	 *            the m
+	 * @return true, if successful
+	 */
+	private static boolean containsInt(final IMatrix m) {
+		return m.getGamlType().getContentType().id() == IType.INT;
+	}
+
+	/**
+	 * The sum or difference of two sparse matrices of the same dimensions.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param other
+	 *            the other
+	 * @param sign
+	 *            1 or -1
+	 * @return the i matrix
+	 */
+	private IMatrix combine(final IScope scope, final GamaSparseMatrix<?> other, final double sign) {
+		final GamaSparseMatrix result = integer && !other.integer ? toFloat() : copy(scope, null, true);
+		other.forEachElement((col, row, value) -> {
+			final long index = (long) row * numCols + col;
+			result.setAt(index, result.getAt(index) + sign * value);
+		});
+		return result.compact(scope);
+	}
+
+	/**
+	 * A float copy of this matrix, with the same elements.
+	 *
+	 * @return the gama sparse matrix
+	 */
+	private GamaSparseMatrix<Double> toFloat() {
+		final GamaSparseMatrix<Double> result = new GamaSparseMatrix<>(numCols, numRows, false, size);
+		forEachElement((col, row, value) -> result.setAt((long) row * numCols + col, value));
+		return result;
+	}
+
+	/**
+	 * Sparse results are kept sparse: other matrices give dense results.
+	 */
+	@Override
+	public IMatrix plus(final IScope scope, final IMatrix other) throws GamaRuntimeException {
+		checkDimensions(scope, other);
+		if (other instanceof GamaSparseMatrix sm) return combine(scope, sm, 1d);
+		return toDense(scope).plus(scope, other);
+	}
+
+	@Override
+	public IMatrix minus(final IScope scope, final IMatrix other) throws GamaRuntimeException {
+		checkDimensions(scope, other);
+		if (other instanceof GamaSparseMatrix sm) return combine(scope, sm, -1d);
+		return toDense(scope).minus(scope, other);
+	}
+
+	/**
+	 * The element-wise product, whose null elements are those of this matrix (at least).
+	 */
+	@Override
+	public IMatrix times(final IScope scope, final IMatrix other) throws GamaRuntimeException {
+		checkDimensions(scope, other);
+		final GamaSparseMatrix result = new GamaSparseMatrix<>(numCols, numRows, integer && containsInt(other), size);
+		final GamaSparseMatrix<?> sm = other instanceof GamaSparseMatrix s ? s : null;
+		forEachElement((col, row, value) -> {
+			final double v = sm == null ? Cast.asFloat(scope, other.get(scope, col, row)) : sm.getDouble(col, row);
+			result.setAt((long) row * numCols + col, value * v);
+		});
+		return result.compact(scope);
+	}
+
+	@Override
+	public IMatrix divides(final IScope scope, final IMatrix other) throws GamaRuntimeException {
+		checkDimensions(scope, other);
+		return toDense(scope).divides(scope, other);
+	}
+
+	/**
+	 * Multiplies the elements by a factor.
+	 *
+	 * @param factor
+	 *            the factor
+	 * @param isInt
+	 *            whether the result contains int
+	 * @return the i matrix
+	 */
+	private IMatrix scale(final double factor, final boolean isInt) {
+		// 0 * infinity or NaN is not null
+		if (!Double.isFinite(factor)) return toDense(null).times(factor);
+		final GamaSparseMatrix result = new GamaSparseMatrix<>(numCols, numRows, isInt, size);
+		forEachElement((col, row, value) -> result.setAt((long) row * numCols + col, value * factor));
+		return result.compact(null);
+	}
+
+	@Override
+	public IMatrix times(final Double val) throws GamaRuntimeException {
+		return scale(val, false);
+	}
+
+	@Override
+	public IMatrix times(final Integer val) throws GamaRuntimeException {
+		return scale(val, integer);
+	}
+
+	@Override
+	public IMatrix divides(final Double val) throws GamaRuntimeException {
+		// 0 / 0 is not null
+		if (val == 0d || !Double.isFinite(val)) return toDense(null).divides(val);
+		return scale(1d / val, false);
+	}
+
+	@Override
+	public IMatrix divides(final Integer val) throws GamaRuntimeException {
+		return divides(val.doubleValue());
+	}
+
+	/**
+	 * Adding a non-null value to all the cells gives a dense matrix.
+	 */
+	@Override
+	public IMatrix plus(final Double val) throws GamaRuntimeException {
+		if (val == 0d) return toFloat();
+		return toDense(null).plus(val);
+	}
+
+	@Override
+	public IMatrix plus(final Integer val) throws GamaRuntimeException {
+		if (val == 0) return copy(null, null, true);
+		return toDense(null).plus(val);
+	}
+
+	@Override
+	public IMatrix minus(final Double val) throws GamaRuntimeException {
+		if (val == 0d) return toFloat();
+		return toDense(null).minus(val);
+	}
+
+	@Override
+	public IMatrix minus(final Integer val) throws GamaRuntimeException {
+		if (val == 0) return copy(null, null, true);
+		return toDense(null).minus(val);
+	}
+
+	/**
+	 * Multiplies two matrices, one of them at least being sparse. The product of two sparse matrices is computed row by
+	 * row (Gustavson's algorithm), only visiting their non-null elements, and is sparse; the product of a sparse and a
+	 * dense matrix is dense.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param a
+	 *            a matrix of n rows and m columns
+	 * @param b
+	 *            a matrix of m rows and p columns
+	 * @return the matrix of n rows and p columns
+	 */
+	public static IMatrix multiply(final IScope scope, final IMatrix a, final IMatrix b) {
+		final int n = a.getRows(scope), m = a.getCols(scope), p = b.getCols(scope);
+		if (b.getRows(scope) != m)
+			throw GamaRuntimeException.error(" The dimensions of the matrices do not correspond", scope);
+		final boolean isInt = containsInt(a) && containsInt(b);
+		if (a instanceof GamaSparseMatrix sa && b instanceof GamaSparseMatrix sb) {
+			final CSR x = sa.csr(), y = sb.csr();
+			final GamaSparseMatrix result = new GamaSparseMatrix<>(p, n, isInt, Math.max(sa.size, sb.size));
+			final double[] row = new double[p];
+			final int[] touched = new int[p];
+			final boolean[] marked = new boolean[p];
+			for (int i = 0; i < n; i++) {
+				int count = 0;
+				for (int q = x.rowStart[i], qEnd = x.rowStart[i + 1]; q < qEnd; q++) {
+					final int k = x.cols[q];
+					final double aik = x.values[q];
+					for (int t = y.rowStart[k], tEnd = y.rowStart[k + 1]; t < tEnd; t++) {
+						final int j = y.cols[t];
+						if (!marked[j]) {
+							marked[j] = true;
+							touched[count++] = j;
+						}
+						row[j] += aik * y.values[t];
+					}
+				}
+				for (int c = 0; c < count; c++) {
+					final int j = touched[c];
+					result.setAt((long) i * p + j, row[j]);
+					row[j] = 0d;
+					marked[j] = false;
+				}
+			}
+			return result.compact(scope);
+		}
+		checkDenseSize(scope, (long) n * p);
+		final double[] result = new double[n * p];
+		if (a instanceof GamaSparseMatrix sa) {
+			// Each element a[i,k] adds a[i,k] * the row k of b to the row i of the result
+			final double[] y = GamaFloatMatrix.from(scope, b).getMatrix();
+			sa.forEachElement((k, i, aik) -> {
+				final int ci = i * p, bk = k * p;
+				for (int j = 0; j < p; j++) { result[ci + j] += aik * y[bk + j]; }
+			});
+		} else {
+			final double[] x = GamaFloatMatrix.from(scope, a).getMatrix();
+			final CSR y = ((GamaSparseMatrix) b).csr();
+			for (int i = 0; i < n; i++) {
+				final int ci = i * p, ai = i * m;
+				for (int k = 0; k < m; k++) {
+					final double aik = x[ai + k];
+					if (aik == 0d) { continue; }
+					for (int t = y.rowStart[k], tEnd = y.rowStart[k + 1]; t < tEnd; t++) {
+						result[ci + y.cols[t]] += aik * y.values[t];
+					}
+				}
+			}
+		}
+		return isInt ? new GamaIntMatrix(p, n, result) : new GamaFloatMatrix(p, n, result);
+	}
+
+}
@@ -0,0 +1,285 @@
+/*******************************************************************************************************
+ *
+ * PhiloxRNG.java, in msi.gama.core, is part of the source code of the GAMA modeling and simulation platform
+ * (v.1.9.3).
+ *
+ * (c) 2007-2023 UMI 209 UMMISCO IRD/SU & Partners (IRIT, MIAT, TLU, CTU)
+ *
+ * Visit https://github.com/gama-platform/gama for license information and contacts.
+ *
+ ********************************************************************************************************/
+package msi.gama.util.random;
+
+import java.util.Random;
+
+import msi.gama.common.util.RandomUtils;
+
+/**
+ * A counter-based random number generator, based on the Philox4x32-10 algorithm of Salmon et al. ("Parallel random
+ * numbers: as easy as 1, 2, 3", SC'11). Each block of 4 random ints is a pure function of the seed (the key), of the
+ * identifier of a stream and of the index of the block in this stream. The only state of a stream is therefore the
+ * index of its next block (and the block being returned), which makes it cheap to create one for each agent.
+ *
+ * Numbers are drawn from the stream that the current thread has entered (see {@link #enterStream(long)}). Agents enter
+ * their own stream, derived from the cycle and their identity, when they are initialized or stepped, or from a number
+ * drawn by the asking agent when they are asked with the 'parallel' facet (see {@link RandomUtils#enterStream}): their
+ * draws do not depend on the order in which they are scheduled nor on the number of threads, and the threads never
+ * share a stream. Outside of these streams, numbers are drawn from the main stream which, like the 'mersenne'
+ * generator, is not meant to be drawn from by several threads at once: doing so does not fail, but several threads may
+ * then get the same numbers.
+ *
+ * @since 1.9.3
+ */
+public class PhiloxRNG extends Random implements IGamaRNG {
+
+	/** The multipliers of the rounds. */
+	private static final long M0 = 0xD2511F53L, M1 = 0xCD9E8D57L;
+
+	/** The increments of the key (Weyl sequence). */
+	private static final int W0 = 0x9E3779B9, W1 = 0xBB67AE85;
+
+	/**
+	 * A stream of random numbers. Only accessed by the thread that has entered it (or, for the main stream, by the
+	 * threads that have not entered any).
+	 */
+	private final class Stream {
+
+		/** The identifier of the stream (the two upper words of the counter). */
+		final int id0, id1;
+
+		/** The index of the next block to compute. */
+		long block;
+
+		/** The current block. */
+		final int[] buffer = new int[4];
+
+		/** The index of the next int to return in the current block. */
+		int next = 4;
+
+		/** The second value computed by the last call to nextGaussian(), if not yet returned. */
+		double nextGaussian;
+
+		/** Whether nextGaussian is available. */
+		boolean hasNextGaussian;
+
+		/**
+		 * Instantiates a new stream.
+		 *
+		 * @param id
+		 *            the id
+		 */
+		Stream(final long id) {
+			id0 = (int) id;
+			id1 = (int) (id >>> 32);
+		}
+
+		/**
+		 * Next int.
+		 *
+		 * @return the int
+		 */
+		int nextInt() {
+			// Reads 'next' once, so that a concurrent use of the main stream cannot go past the end of the buffer
+			int i = next;
+			if (i >= 4) {
+				compute(block++, id0, id1, buffer);
+				i = 0;
+			}
+			next = i + 1;
+			return buffer[i];
+		}
+
+		/**
+		 * The number of ints drawn from this stream.
+		 *
+		 * @return the long
+		 */
+		long draws() {
+			return block * 4 - (4 - next);
+		}
+
+		/**
+		 * Positions the stream as if this number of ints had been drawn from its beginning.
+		 *
+		 * @param draws
+		 *            the number of draws
+		 */
+		void skipTo(final long draws) {
+			block = draws >>> 2;
+			next = 4;
+			hasNextGaussian = false;
+			if ((draws & 3) != 0) {
+				compute(block++, id0, id1, buffer);
+				next = (int) draws & 3;
+			}
+		}
+	}
+
+	/** The key, derived from the seed. */
+	private final int key0, key1;
+
+	/** The stream used by the threads that have not entered one. */
+	private final Stream main = new Stream(0);
+
+	/** The stream entered by each thread, if any. */
+	private final ThreadLocal<Stream> current = new ThreadLocal<>();
+
+	/**
+	 * Seed the RNG using the provided seed generation strategy.
+	 *
+	 * @param seedGenerator
+	 *            The seed generation strategy that will provide the seed value for this RNG.
+	 */
+	public PhiloxRNG(final RandomUtils seedGenerator) {
+		this(seedGenerator.generateSeed(8));
+	}
+
+	/**
+	 * Creates an RNG and seeds it with the specified seed data.
+	 *
+	 * @param seed
+	 *            The seed data used to initialise the RNG.
+	 */
+	private PhiloxRNG(final byte[] seed) {
+		long value = 0;
+		for (int i = 0; i < 8; i++) { value = value << 8 | seed[i] & 0xff; }
+		key0 = (int) value;
+		key1 = (int) (value >>> 32);
+	}
+
+	/**
+	 * Computes the block of 4 ints at this index of a stream.
+	 *
+	 * @param index
+	 *            the index of the block
+	 * @param id0
+	 *            the lower word of the identifier of the stream
+	 * @param id1
+	 *            the upper word of the identifier of the stream
+	 * @param result
+	 *            the array receiving the 4 ints
+	 */
+	void compute(final long index, final int id0, final int id1, final int[] result) {
+		int c0 = (int) index, c1 = (int) (index >>> 32), c2 = id0, c3 = id1;
+		int k0 = key0, k1 = key1;
+		for (int round = 0; round < 10; round++) {
+			final long p0 = M0 * (c0 & 0xFFFFFFFFL);
+			final long p1 = M1 * (c2 & 0xFFFFFFFFL);
+			final int n0 = (int) (p1 >>> 32) ^ c1 ^ k0;
+			final int n2 = (int) (p0 >>> 32) ^ c3 ^ k1;
+			c1 = (int) p1;
+			c3 = (int) p0;
+			c0 = n0;
+			c2 = n2;
+			k0 += W0;
+			k1 += W1;
+		}
+		result[0] = c0;
+		result[1] = c1;
+		result[2] = c2;
+		result[3] = c3;
+	}
+
+	/**
+	 * Mixes a value into the identifier of a stream (using the finalizer of SplitMix64).
+	 *
+	 * @param id
+	 *            the identifier
+	 * @param value
+	 *            the value
+	 * @return the new identifier
+	 */
+	public static long mix(final long id, final long value) {
+		long z = id * 0x9E3779B97F4A7C15L + value;
+		z = (z ^ z >>> 30) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ z >>> 27) * 0x94D049BB133111EBL;
+		return z ^ z >>> 31;
+	}
+
+	/**
+	 * Makes the current thread draw numbers from the stream with this identifier, starting from its beginning.
+	 *
+	 * @param id
+	 *            the identifier of the stream
+	 * @return the stream previously entered by the thread, to pass to {@link #leaveStream(Object)}
+	 */
+	public Object enterStream(final long id) {
+		final Stream previous = current.get();
+		current.set(new Stream(id));
+		return previous;
+	}
+
+	/**
+	 * Makes the current thread go back to the stream it was drawing numbers from before entering the current one.
+	 *
+	 * @param previous
+	 *            the value returned by {@link #enterStream(long)}
+	 */
+	public void leaveStream(final Object previous) {
+		if (previous == null) {
+			current.remove();
+		} else {
+			current.set((Stream) previous);
+		}
+	}
+
+	@Override
+	public int nextInt() {
+		return stream().nextInt();
+	}
+
+	/**
+	 * The stream entered by the current thread, or the main stream.
+	 *
+	 * @return the stream
+	 */
+	private Stream stream() {
+		final Stream stream = current.get();
+		return stream == null ? main : stream;
+	}
+
+	@Override
+	protected int next(final int bits) {
+		return nextInt() >>> 32 - bits;
+	}
+
+	@Override
+	public double nextGaussian() {
+		// Random.nextGaussian() keeps its second value in a field shared by all the threads: it is kept in the stream
+		// instead
+		final Stream stream = stream();
+		if (stream.hasNextGaussian) {
+			stream.hasNextGaussian = false;
+			return stream.nextGaussian;
+		}
+		double v1, v2, s;
+		do {
+			v1 = 2 * nextDouble() - 1;
+			v2 = 2 * nextDouble() - 1;
+			s = v1 * v1 + v2 * v2;
+		} while (s >= 1 || s == 0);
+		final double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+		stream.nextGaussian = v2 * multiplier;
+		stream.hasNextGaussian = true;
+		return v1 * multiplier;
+	}
+
+	/**
+	 * The number of ints drawn from the main stream.
+	 */
+	@Override
+	public int getUsage() { return (int) main.draws(); }
+
+	/**
+	 * As the blocks of the main stream do not depend on each other, it is positioned directly, without drawing the
+	 * numbers.
+	 */
+	@Override
+	public void setUsage(final int usage) {
+		main.skipTo(usage);
+	}
+
+	@Override
+	public Random getRandomGenerator() { return this; }
+
+}
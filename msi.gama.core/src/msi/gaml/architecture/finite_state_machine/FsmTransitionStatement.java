@@ -181,7 +181,7 @@ public class FsmTransitionStatement extends AbstractStatementSequence {
 	 * @throws GamaRuntimeException the gama runtime exception
 	 */
 	public boolean evaluatesTrueOn(final IScope scope) throws GamaRuntimeException {
-		return Cast.asBool(scope, when.value(scope));
+		return when.boolValue(scope);
 		// Normally, the agent is still in the "currentState" scope.
 	}
 
@@ -0,0 +1,305 @@
+/*******************************************************************************************************
+ *
+ * ReflexGuard.java, in msi.gama.core, is part of the source code of the GAMA modeling and simulation platform
+ * (v.1.9.3).
+ *
+ * (c) 2007-2023 UMI 209 UMMISCO IRD/SU & Partners (IRIT, MIAT, TLU, CTU)
+ *
+ * Visit https://github.com/gama-platform/gama for license information and contacts.
+ *
+ ********************************************************************************************************/
+package msi.gaml.architecture.reflex;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.StampedLock;
+
+import msi.gama.common.preferences.GamaPreferences;
+import msi.gama.metamodel.agent.IAgent;
+import msi.gama.metamodel.population.IPopulation;
+import msi.gama.runtime.IScope;
+import msi.gaml.expressions.IExpression;
+import msi.gaml.expressions.operators.BinaryOperator;
+import msi.gaml.expressions.operators.UnaryOperator;
+import msi.gaml.expressions.variables.AgentVariableExpression;
+import msi.gaml.types.IType;
+import msi.gaml.types.Types;
+import msi.gaml.variables.IVariable;
+import msi.gaml.variables.Variable;
+
+/**
+ * A 'when:' guard of a reflex that only tests the value of one attribute of the agent against a constant (like
+ * <code>when: state = "infected"</code>, <code>when: is_sick</code> or <code>when: !is_sick</code>). Such guards can
+ * be evaluated using an {@link Index} maintained by the population of the agent, which is updated every time the
+ * attribute is written, instead of evaluating the expression for every agent at every step.
+ *
+ * @since 1.9.3
+ */
+public class ReflexGuard {
+
+	/** Whether the guards are indexed. Cached from the preference, as it is read at every evaluation of a guard. */
+	public static volatile boolean ENABLED = GamaPreferences.Experimental.INDEX_REFLEX_GUARDS.getValue();
+
+	static {
+		GamaPreferences.Experimental.INDEX_REFLEX_GUARDS.onChange(v -> ENABLED = v);
+	}
+
+	/**
+	 * The index of the agents of a population for which a guard holds. The agents are designated by their index. An
+	 * Index is shared by all the agents of a population and can be accessed concurrently by parallel agents: the bits
+	 * are read without locking and set with atomic operations, only the growth of the array of bits being exclusive.
+	 *
+	 * An index is published in the population before being filled, so that no write of the attribute can be missed.
+	 * It is only used once filled; until then, the guard is evaluated as usual.
+	 */
+	public static class Index {
+
+		/** An index denoting that the guard cannot be indexed in a given population. */
+		public static final Index NONE = new Index(null);
+
+		/** The guard. */
+		final ReflexGuard guard;
+
+		/** The bits: the indices of the agents for which the guard holds. */
+		private volatile AtomicLongArray words = new AtomicLongArray(4);
+
+		/** Shared by the writers of bits, exclusive for the growth of the array. */
+		private final StampedLock lock = new StampedLock();
+
+		/** Whether a thread has started filling the index. */
+		private final AtomicBoolean claimed = new AtomicBoolean();
+
+		/** Whether the index has been filled and can be used. */
+		private volatile boolean ready;
+
+		/**
+		 * Instantiates a new index.
+		 *
+		 * @param guard
+		 *            the guard
+		 */
+		Index(final ReflexGuard guard) {
+			this.guard = guard;
+		}
+
+		/**
+		 * Fills the index with the current values of the agents of the population, if no other thread has done (or is
+		 * doing) it. The writes of the attribute that happen meanwhile wait for the end of the filling, so that they
+		 * cannot be overwritten by the values read before.
+		 *
+		 * @param population
+		 *            the population
+		 */
+		public void fill(final IPopulation<? extends IAgent> population) {
+			if (guard == null || ready || !claimed.compareAndSet(false, true)) return;
+			synchronized (this) {
+				for (final IAgent a : population.toArray()) {
+					if (a != null && !a.dead()) {
+						set(a.getIndex(), Objects.equals(guard.expected, a.getAttribute(guard.attribute)));
+					}
+				}
+				ready = true;
+			}
+		}
+
+		/**
+		 * Updates the index for this agent.
+		 *
+		 * @param agent
+		 *            the agent whose attribute has been written
+		 * @param value
+		 *            the new value of the attribute
+		 */
+		public void update(final IAgent agent, final Object value) {
+			final boolean matches = Objects.equals(guard.expected, value);
+			if (ready) {
+				set(agent.getIndex(), matches);
+			} else {
+				synchronized (this) {
+					set(agent.getIndex(), matches);
+				}
+			}
+		}
+
+		/**
+		 * Sets or clears a bit.
+		 *
+		 * @param i
+		 *            the index of the agent
+		 * @param value
+		 *            the value of the bit
+		 */
+		private void set(final int i, final boolean value) {
+			final int w = i >>> 6;
+			if (w >= words.length()) {
+				if (!value) return;
+				grow(w);
+			}
+			final long mask = 1L << i;
+			final long stamp = lock.readLock();
+			try {
+				final AtomicLongArray ws = words;
+				long old;
+				do {
+					old = ws.get(w);
+				} while (!ws.compareAndSet(w, old, value ? old | mask : old & ~mask));
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+
+		/**
+		 * Grows the array of bits so that it contains this word.
+		 *
+		 * @param w
+		 *            the index of the word
+		 */
+		private void grow(final int w) {
+			final long stamp = lock.writeLock();
+			try {
+				final AtomicLongArray ws = words;
+				if (w < ws.length()) return;
+				final AtomicLongArray result = new AtomicLongArray(Math.max(w + 1, ws.length() * 2));
+				for (int i = 0; i < ws.length(); i++) { result.set(i, ws.get(i)); }
+				words = result;
+			} finally {
+				lock.unlockWrite(stamp);
+			}
+		}
+
+		/**
+		 * Whether the guard holds for this agent, or null if the index is not filled yet.
+		 *
+		 * @param agent
+		 *            the agent
+		 * @return Boolean.TRUE, Boolean.FALSE or null
+		 */
+		public Boolean accepts(final IAgent agent) {
+			if (!ready) return null;
+			// An array replaced by a larger one is not written anymore: reading it without lock is safe
+			final AtomicLongArray ws = words;
+			final int i = agent.getIndex(), w = i >>> 6;
+			return w < ws.length() && (ws.get(w) & 1L << i) != 0;
+		}
+
+		/**
+		 * Returns the attribute this index observes.
+		 *
+		 * @return the attribute name (null for {@link #NONE})
+		 */
+		public String getAttribute() { return guard == null ? null : guard.attribute; }
+
+	}
+
+	/**
+	 * Tries to build a guard from a 'when:' expression. Only equality tests between an attribute of the agent and a
+	 * constant bool, int or string, as well as bool attributes and their negation, are recognized.
+	 *
+	 * @param when
+	 *            the 'when:' expression
+	 * @return a guard or null if the expression cannot be indexed
+	 */
+	public static ReflexGuard from(final IExpression when) {
+		if (when instanceof AgentVariableExpression) return from(when, true);
+		if (when instanceof UnaryOperator u && "!".equals(u.getName())) return from(u.arg(0), false);
+		if (when instanceof BinaryOperator b && "=".equals(b.getName())) {
+			final IExpression left = b.arg(0), right = b.arg(1);
+			if (left instanceof AgentVariableExpression && right.isConst()) return from(left, right);
+			if (right instanceof AgentVariableExpression && left.isConst()) return from(right, left);
+		}
+		return null;
+	}
+
+	/**
+	 * Builds a guard on a bool attribute.
+	 *
+	 * @param var
+	 *            the var
+	 * @param expected
+	 *            the expected value
+	 * @return the reflex guard or null
+	 */
+	private static ReflexGuard from(final IExpression var, final boolean expected) {
+		if (!(var instanceof AgentVariableExpression) || var.getGamlType() != Types.BOOL) return null;
+		return new ReflexGuard(var.getName(), expected);
+	}
+
+	/**
+	 * Builds a guard comparing an attribute to a constant.
+	 *
+	 * @param var
+	 *            the var
+	 * @param constant
+	 *            the constant
+	 * @return the reflex guard or null
+	 */
+	private static ReflexGuard from(final IExpression var, final IExpression constant) {
+		final IType<?> type = var.getGamlType();
+		// Floats are excluded as '=' does not compare them using equals()
+		if (type != constant.getGamlType() || type != Types.BOOL && type != Types.INT && type != Types.STRING)
+			return null;
+		final Object value = constant.getConstValue();
+		if (value == null) return null;
+		return new ReflexGuard(var.getName(), value);
+	}
+
+	/** The attribute. */
+	final String attribute;
+
+	/** The expected value. */
+	final Object expected;
+
+	/**
+	 * Instantiates a new reflex guard.
+	 *
+	 * @param attribute
+	 *            the attribute
+	 * @param expected
+	 *            the expected
+	 */
+	private ReflexGuard(final String attribute, final Object expected) {
+		this.attribute = attribute;
+		this.expected = expected;
+	}
+
+	/**
+	 * Creates the (empty) index of this guard for a given population. Returns {@link Index#NONE} if the attribute is
+	 * computed or written by Java code (getters, setters, functions, built-in attributes), as writes cannot be tracked
+	 * in that case. Otherwise, the variable is marked as indexed so that its writes are reported to the population. The
+	 * index must then be published and filled (see {@link Index#fill(IPopulation)}).
+	 *
+	 * @param population
+	 *            the population
+	 * @return the index
+	 */
+	public Index createIndexFor(final IPopulation<? extends IAgent> population) {
+		final IVariable var = population.getVar(attribute);
+		if (!(var instanceof Variable v) || v.getter != null || v.setter != null || v.isFunction()
+				|| v.getDescription().isBuiltIn())
+			return Index.NONE;
+		v.setIndexed();
+		return new Index(this);
+	}
+
+	/**
+	 * Whether the guard holds for the current agent, or null if it could not be indexed in its population.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @return Boolean.TRUE, Boolean.FALSE or null
+	 */
+	public Boolean accepts(final IScope scope) {
+		final IAgent agent = scope.getAgent();
+		if (agent == null) return null;
+		final Index index = agent.getPopulation().getGuardIndex(this);
+		if (index == null || index == Index.NONE) return null;
+		return index.accepts(agent);
+	}
+
+	@Override
+	public String toString() {
+		return attribute + " = " + expected;
+	}
+
+}
@@ -72,6 +72,9 @@ public class ReflexStatement extends AbstractStatementSequence {
 	/** The when. */
 	private final IExpression when;
 
+	/** The guard, when the 'when:' facet can be indexed. Null otherwise */
+	private final ReflexGuard guard;
+
 	/**
 	 * Instantiates a new reflex statement.
 	 *
@@ -80,6 +83,7 @@ public class ReflexStatement extends AbstractStatementSequence {
 	public ReflexStatement(final IDescription desc) {
 		super(desc);
 		when = getFacet(IKeyword.WHEN);
+		guard = when == null ? null : ReflexGuard.from(when);
 		if (hasFacet(IKeyword.NAME)) {
 			setName(getLiteral(IKeyword.NAME));
 		}
@@ -87,7 +91,22 @@ public class ReflexStatement extends AbstractStatementSequence {
 
 	@Override
 	public Object privateExecuteIn(final IScope scope) throws GamaRuntimeException {
-		return when == null || Cast.asBool(scope, when.value(scope)) ? super.privateExecuteIn(scope) : null;
+		return when == null || isTrue(scope) ? super.privateExecuteIn(scope) : null;
+	}
+
+	/**
+	 * Evaluates the 'when:' facet, using the index maintained by the population if the guard can be indexed
+	 *
+	 * @param scope
+	 *            the scope
+	 * @return true if the reflex can be executed
+	 */
+	private boolean isTrue(final IScope scope) {
+		if (guard != null) {
+			final Boolean indexed = guard.accepts(scope);
+			if (indexed != null) return indexed;
+		}
+		return when.boolValue(scope);
 	}
 
 }
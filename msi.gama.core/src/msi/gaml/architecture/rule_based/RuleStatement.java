@@ -104,7 +104,7 @@ public class RuleStatement extends AbstractStatementSequence {
 	 * @throws GamaRuntimeException the gama runtime exception
 	 */
 	public Boolean computeCondition(final IScope scope) throws GamaRuntimeException {
-		return Cast.asBool(scope, condition.value(scope));
+		return condition.boolValue(scope);
 	}
 
 }
@@ -16,11 +16,14 @@ import static msi.gama.common.interfaces.IKeyword._DOT;
 import static msi.gaml.compilation.kernel.GamaBundleLoader.CURRENT_PLUGIN_NAME;
 import static msi.gaml.types.Types.builtInTypes;
 
+import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Executable;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import msi.gama.common.interfaces.IDisplayCreator;
@@ -31,6 +34,7 @@ import msi.gama.common.interfaces.IGui;
 import msi.gama.common.interfaces.IKeyword;
 import msi.gama.precompiler.ISymbolKind;
 import msi.gama.precompiler.ITypeProvider;
+import msi.gama.runtime.IScope;
 import msi.gama.util.GamaMapFactory;
 import msi.gama.util.file.IGamaFile;
 import msi.gaml.compilation.kernel.GamaBundleLoader;
@@ -241,8 +245,89 @@ public abstract class AbstractGamlAdditions implements IGamlAdditions {
 	public void _operator(final String[] keywords, final Executable method, final int[] expectedContentTypes,
 			final Object returnClassOrType, final boolean c, final int t, final int content, final int index,
 			final int contentContentType, final GamaGetter helper, final boolean isIterator) {
+		_operator(keywords, method, new Signature(method), expectedContentTypes, returnClassOrType, c, t, content,
+				index, contentContentType, helper, isIterator);
+	}
+
+	/**
+	 * Operator, as emitted by the processor: the method is described by its declaring class, name and parameter types,
+	 * and only looked up by reflection when one of its annotations is needed (see {@link MethodReference}).
+	 *
+	 * @param keywords
+	 *            the keywords
+	 * @param clazz
+	 *            the declaring class of the method
+	 * @param method
+	 *            the name of the method
+	 * @param isStatic
+	 *            whether the method is static
+	 * @param parameters
+	 *            the parameter types of the method, including IScope if present
+	 * @param expectedContentTypes
+	 *            the expected content types
+	 * @param returnClassOrType
+	 *            the return class or type
+	 * @param c
+	 *            the c
+	 * @param t
+	 *            the t
+	 * @param content
+	 *            the content
+	 * @param index
+	 *            the index
+	 * @param contentContentType
+	 *            the content content type
+	 * @param helper
+	 *            the helper
+	 * @param isIterator
+	 *            the is iterator
+	 */
+	public void _operator(final String[] keywords, final Class clazz, final String method, final boolean isStatic,
+			final Class[] parameters, final int[] expectedContentTypes, final Object returnClassOrType,
+			final boolean c, final int t, final int content, final int index, final int contentContentType,
+			final GamaGetter helper, final boolean isIterator) {
+		// Same signature as the one computed from the method (the receiver first, IScope ignored)
+		final List<Class> operands = new ArrayList<>(parameters.length + 1);
+		if (!isStatic) { operands.add(clazz); }
+		for (final Class p : parameters) { if (p != IScope.class) { operands.add(p); } }
+		_operator(keywords, new MethodReference(clazz, method, parameters),
+				new Signature(operands.toArray(new Class[operands.size()])), expectedContentTypes, returnClassOrType, c,
+				t, content, index, contentContentType, helper, isIterator);
+	}
+
+	/**
+	 * Operator.
+	 *
+	 * @param keywords
+	 *            the keywords
+	 * @param method
+	 *            the method or a reference to it
+	 * @param signature
+	 *            the signature
+	 * @param expectedContentTypes
+	 *            the expected content types
+	 * @param returnClassOrType
+	 *            the return class or type
+	 * @param c
+	 *            the c
+	 * @param t
+	 *            the t
+	 * @param content
+	 *            the content
+	 * @param index
+	 *            the index
+	 * @param contentContentType
+	 *            the content content type
+	 * @param helper
+	 *            the helper
+	 * @param isIterator
+	 *            the is iterator
+	 */
+	private void _operator(final String[] keywords, final AnnotatedElement method, final Signature signature,
+			final int[] expectedContentTypes, final Object returnClassOrType, final boolean c, final int t,
+			final int content, final int index, final int contentContentType, final GamaGetter helper,
+			final boolean isIterator) {
 		if (isIterator) { Collections.addAll(GAML.ITERATORS, keywords); }
-		final Signature signature = new Signature(method);
 		int nbParameters = signature.size();
 		final String plugin = GamaBundleLoader.CURRENT_PLUGIN_NAME;
 		final IType rt;
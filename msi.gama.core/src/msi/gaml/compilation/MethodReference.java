@@ -0,0 +1,94 @@
+/*******************************************************************************************************
+ *
+ * MethodReference.java, in msi.gama.core, is part of the source code of the GAMA modeling and simulation platform
+ * (v.1.9.3).
+ *
+ * (c) 2007-2023 UMI 209 UMMISCO IRD/SU & Partners (IRIT, MIAT, TLU, CTU)
+ *
+ * Visit https://github.com/gama-platform/gama for license information and contacts.
+ *
+ ********************************************************************************************************/
+package msi.gaml.compilation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+
+/**
+ * A reference to the Java method supporting an operator, made of its declaring class, name and parameter types, as
+ * emitted by the annotation processor. The method itself is only looked up (by reflection) the first time one of its
+ * annotations is needed -- i.e. when the documentation, category, validator or dependencies of the operator are asked
+ * for --, so that the operators that are never used by a model do not cost a reflective lookup at startup.
+ *
+ * @since 1.9.3
+ */
+public final class MethodReference implements AnnotatedElement {
+
+	/** The declaring class. */
+	private final Class<?> clazz;
+
+	/** The name of the method. */
+	private final String name;
+
+	/** The parameter types, including IScope if present. */
+	private final Class<?>[] parameters;
+
+	/** The method, once resolved. */
+	private volatile Method method;
+
+	/**
+	 * Instantiates a new method reference.
+	 *
+	 * @param clazz
+	 *            the declaring class
+	 * @param name
+	 *            the name of the method
+	 * @param parameters
+	 *            the parameter types
+	 */
+	public MethodReference(final Class<?> clazz, final String name, final Class<?>... parameters) {
+		this.clazz = clazz;
+		this.name = name;
+		this.parameters = parameters;
+	}
+
+	/**
+	 * Looks up the method this reference points to. As the processor has already verified that it exists, a failure
+	 * can only come from a mismatch between the generated additions and the compiled classes.
+	 *
+	 * @return the method
+	 */
+	public Method resolve() {
+		Method result = method;
+		if (result == null) {
+			try {
+				result = method = clazz.getMethod(name, parameters);
+			} catch (final NoSuchMethodException | SecurityException e) {
+				throw new IllegalStateException("Method " + name + " cannot be found in " + clazz.getName(), e);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public <T extends Annotation> T getAnnotation(final Class<T> annotationClass) {
+		return resolve().getAnnotation(annotationClass);
+	}
+
+	@Override
+	public boolean isAnnotationPresent(final Class<? extends Annotation> annotationClass) {
+		return resolve().isAnnotationPresent(annotationClass);
+	}
+
+	@Override
+	public Annotation[] getAnnotations() { return resolve().getAnnotations(); }
+
+	@Override
+	public Annotation[] getDeclaredAnnotations() { return resolve().getDeclaredAnnotations(); }
+
+	@Override
+	public String toString() {
+		return clazz.getName() + "." + name;
+	}
+
+}
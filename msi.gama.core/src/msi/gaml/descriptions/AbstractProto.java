@@ -17,6 +17,7 @@ import java.util.Collections;
 import msi.gama.common.interfaces.IGamlDescription;
 import msi.gama.precompiler.GamlAnnotations.doc;
 import msi.gama.precompiler.GamlAnnotations.usage;
+import msi.gaml.compilation.MethodReference;
 
 /**
  * Class AbstractProto.
@@ -33,8 +34,11 @@ public abstract class AbstractProto implements IGamlDescription {
 	/** The plugin. */
 	protected String plugin;
 
-	/** The support. */
-	protected AnnotatedElement support;
+	/**
+	 * The support. Volatile, as a method reference can be replaced by the method it resolves to while other threads
+	 * read it.
+	 */
+	protected volatile AnnotatedElement support;
 
 	/** The deprecated. */
 	protected String deprecated;
@@ -147,7 +151,14 @@ public abstract class AbstractProto implements IGamlDescription {
 	 *
 	 * @return the support
 	 */
-	public AnnotatedElement getSupport() { return support; }
+	public AnnotatedElement getSupport() {
+		// The method referenced by the processor is looked up only when actually needed
+		final AnnotatedElement s = support;
+		if (!(s instanceof MethodReference ref)) return s;
+		final AnnotatedElement method = ref.resolve();
+		support = method;
+		return method;
+	}
 
 	/**
 	 * Sets the support.
@@ -228,7 +228,7 @@ public class OperatorProto extends AbstractProto implements IVarDescriptionUser
 		if (lazy == null) {
 			lazy = new boolean[signature.size()];
 			if (lazy.length == 0) return lazy;
-			if (support instanceof Method m) {
+			if (getSupport() instanceof Method m) {
 				final Class[] classes = m.getParameterTypes();
 				if (classes.length == 0) return lazy;
 				int begin = 0;
@@ -18,6 +18,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.util.EcoreUtil;
@@ -31,7 +32,6 @@ import msi.gama.precompiler.GamlAnnotations.vars;
 import msi.gama.precompiler.ITypeProvider;
 import msi.gama.runtime.exceptions.GamaRuntimeException;
 import msi.gama.util.Collector;
-import msi.gama.util.GamaMapFactory;
 import msi.gama.util.ICollector;
 import msi.gaml.compilation.GAML;
 import msi.gaml.compilation.GamaHelper;
@@ -52,7 +52,7 @@ import msi.gaml.types.Types;
 public class VariableDescription extends SymbolDescription {
 
 	/** The dependencies. */
-	private static Map<String, Collection<String>> dependencies = GamaMapFactory.create();
+	private static Map<String, Collection<String>> dependencies = new ConcurrentHashMap<>();
 
 	/** The Constant INIT_DEPENDENCIES_FACETS. */
 	public final static Set<String> INIT_DEPENDENCIES_FACETS =
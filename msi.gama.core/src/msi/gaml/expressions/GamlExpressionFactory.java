@@ -35,6 +35,7 @@ import msi.gaml.descriptions.SpeciesDescription;
 import msi.gaml.descriptions.StringBasedExpressionDescription;
 import msi.gaml.expressions.data.ListExpression;
 import msi.gaml.expressions.data.MapExpression;
+import msi.gaml.expressions.operators.DispatchingOperator;
 import msi.gaml.expressions.operators.PrimitiveOperator;
 import msi.gaml.expressions.types.SkillConstantExpression;
 import msi.gaml.expressions.types.SpeciesConstantExpression;
@@ -278,6 +279,7 @@ public class GamlExpressionFactory implements IExpressionFactory {
 		// 19/02/14 Only the simplified signature is used now
 		Signature userSignature = new Signature(args).simplified();
 		final Signature originalUserSignature = userSignature;
+		final IExpression[] originalArgs = args.clone();
 		// If the signature is not present in the registry
 		if (!ops.containsKey(userSignature)) {
 			final Signature[] matching = Iterables.toArray(
@@ -323,7 +325,13 @@ public class GamlExpressionFactory implements IExpressionFactory {
 		}
 
 		final OperatorProto proto = ops.get(userSignature);
-		return createDirectly(context, eObject, proto, args);
+		// Operands typed 'unknown' may lead, at runtime, to another version of the operator. The operator is then built
+		// to dispatch on the values of the original operands, instead of applying this version to the coerced ones
+		final OperatorProto[] candidates = DispatchingOperator.candidatesFor(proto, ops.values(), originalArgs);
+		if (candidates == null) return createDirectly(context, eObject, proto, args);
+		if (!proto.getValidator().validate(context, eObject, args)) return null;
+		warnIfDeprecated(context, eObject, proto);
+		return new DispatchingOperator(proto, context, candidates, originalArgs);
 	}
 
 	@Override
@@ -348,16 +356,27 @@ public class GamlExpressionFactory implements IExpressionFactory {
 			final IExpression... args) {
 		// We finally make an instance of the operator and init it with the arguments
 		final IExpression copy = proto.create(context, eObject, args);
-		if (copy != null) {
-			// We verify that it is not deprecated
-			final String ged = proto.getDeprecated();
-			if (ged != null) {
-				context.warning(proto.getName() + " is deprecated: " + ged, IGamlIssue.DEPRECATED, eObject);
-			}
-		}
+		if (copy != null) { warnIfDeprecated(context, eObject, proto); }
 		return copy;
 	}
 
+	/**
+	 * Emits a warning if an operator is deprecated.
+	 *
+	 * @param context
+	 *            the context
+	 * @param eObject
+	 *            the e object
+	 * @param proto
+	 *            the proto
+	 */
+	private void warnIfDeprecated(final IDescription context, final EObject eObject, final OperatorProto proto) {
+		final String ged = proto.getDeprecated();
+		if (ged != null) {
+			context.warning(proto.getName() + " is deprecated: " + ged, IGamlIssue.DEPRECATED, eObject);
+		}
+	}
+
 	@Override
 	public IExpression createAction(final String op, final IDescription callerContext, final ActionDescription action,
 			final IExpression call, final Arguments arguments) {
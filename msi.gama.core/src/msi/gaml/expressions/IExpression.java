@@ -20,6 +20,7 @@ import msi.gama.runtime.exceptions.GamaRuntimeException;
 import msi.gaml.descriptions.IExpressionDescription;
 import msi.gaml.descriptions.IVarDescriptionUser;
 import msi.gaml.expressions.types.TypeExpression;
+import msi.gaml.operators.Cast;
 import msi.gaml.types.IType;
 
 /**
@@ -60,6 +61,51 @@ public interface IExpression extends IGamlDescription, ITyped, IDisposable, IVar
 	 */
 	Object value(final IScope scope) throws GamaRuntimeException;
 
+	/**
+	 * Returns the result of the evaluation of the expression as a float. Expressions able to compute it without boxing
+	 * intermediate values (like arithmetic operators on numbers) redefine this method.
+	 *
+	 * @param scope
+	 *            the current GAMA scope
+	 * @return the result of the evaluation of the expression, cast to a float
+	 * @throws GamaRuntimeException
+	 *             if an error occurs
+	 */
+	default double doubleValue(final IScope scope) throws GamaRuntimeException {
+		final Object v = value(scope);
+		return v instanceof Number n ? n.doubleValue() : Cast.asFloat(scope, v);
+	}
+
+	/**
+	 * Returns the result of the evaluation of the expression as an int. Expressions able to compute it without boxing
+	 * intermediate values redefine this method.
+	 *
+	 * @param scope
+	 *            the current GAMA scope
+	 * @return the result of the evaluation of the expression, cast to an int
+	 * @throws GamaRuntimeException
+	 *             if an error occurs
+	 */
+	default int intValue(final IScope scope) throws GamaRuntimeException {
+		final Object v = value(scope);
+		return v instanceof Integer i ? i : Cast.asInt(scope, v);
+	}
+
+	/**
+	 * Returns the result of the evaluation of the expression as a bool. Expressions able to compute it without boxing
+	 * intermediate values (like comparison and logical operators) redefine this method.
+	 *
+	 * @param scope
+	 *            the current GAMA scope
+	 * @return the result of the evaluation of the expression, cast to a bool
+	 * @throws GamaRuntimeException
+	 *             if an error occurs
+	 */
+	default boolean boolValue(final IScope scope) throws GamaRuntimeException {
+		final Object v = value(scope);
+		return v instanceof Boolean b ? b : Cast.asBool(scope, v);
+	}
+
 	/**
 	 * Whether the expression is considered as 'constant', meaning it does not need a scope to be evaluated and return a
 	 * value
@@ -11,13 +11,11 @@
 package msi.gaml.expressions.operators;
 
 import msi.gama.common.interfaces.IKeyword;
-import msi.gama.common.preferences.GamaPreferences;
 import msi.gama.metamodel.agent.IAgent;
 import msi.gama.precompiler.GamlAnnotations.doc;
 import msi.gama.precompiler.GamlAnnotations.usage;
 import msi.gama.runtime.IScope;
 import msi.gama.runtime.exceptions.GamaRuntimeException;
-import msi.gaml.compilation.GAML;
 import msi.gaml.descriptions.IDescription;
 import msi.gaml.descriptions.OperatorProto;
 import msi.gaml.expressions.IExpression;
@@ -26,12 +24,19 @@ import msi.gaml.expressions.types.TypeExpression;
 import msi.gaml.expressions.variables.VariableExpression;
 import msi.gaml.operators.Cast;
 import msi.gaml.types.IType;
+import msi.gaml.types.Types;
 
 /**
  * The Class BinaryOperator.
  */
 public class BinaryOperator extends AbstractNAryOperator {
 
+	/** The unboxed implementation of this operator, if any. */
+	final UnboxedOperator primitive;
+
+	/** The compiled version of the tree of unboxed operators rooted at this operator, if it has one. */
+	private final ExpressionCompiler.Tier tier;
+
 	/**
 	 * Creates the.
 	 *
@@ -45,10 +50,8 @@ public class BinaryOperator extends AbstractNAryOperator {
 	 */
 	public static IExpression create(final OperatorProto proto, final IDescription context,
 			final IExpression... child) {
-		final BinaryOperator u = new BinaryOperator(proto, context, child);
-		if (u.isConst() && GamaPreferences.External.CONSTANT_OPTIMIZATION.getValue())
-			return GAML.getExpressionFactory().createConst(u.getConstValue(), u.getGamlType(), u.serialize(false));
-		return u;
+		if (ContainerPipeline.canFuse(proto, child)) return new ContainerPipeline(proto, context, child);
+		return IOperator.fold(new BinaryOperator(proto, context, child));
 	}
 
 	@Override
@@ -112,6 +115,36 @@ public class BinaryOperator extends AbstractNAryOperator {
 	public BinaryOperator(final OperatorProto proto, final IDescription context, final IExpression... args) {
 		super(proto, args);
 		prototype.verifyExpectedTypes(context, exprs[1].getGamlType());
+		final UnboxedOperator p = exprs == null || exprs.length != 2 || getClass() != BinaryOperator.class ? null
+				: UnboxedOperator.of(proto.getName(), exprs[0], exprs[1]);
+		primitive = p != null && p.accepts(getGamlType()) ? p : null;
+		tier = primitive == null ? null : new ExpressionCompiler.Tier(this);
+	}
+
+	@Override
+	public double doubleValue(final IScope scope) throws GamaRuntimeException {
+		if (primitive == null || primitive.returnsBool()) return super.doubleValue(scope);
+		// Int operations keep their int semantics (e.g. overflows), like in Maths
+		if (getGamlType() == Types.INT) return intValue(scope);
+		final ExpressionCompiler.Compiled compiled = tier.get();
+		if (compiled != null) return ExpressionCompiler.doubleValue(compiled, scope);
+		return primitive.doubleValue(scope, exprs[0], exprs[1]);
+	}
+
+	@Override
+	public int intValue(final IScope scope) throws GamaRuntimeException {
+		if (primitive == null || getGamlType() != Types.INT) return super.intValue(scope);
+		final ExpressionCompiler.Compiled compiled = tier.get();
+		if (compiled != null) return ExpressionCompiler.intValue(compiled, scope);
+		return primitive.intValue(scope, exprs[0], exprs[1]);
+	}
+
+	@Override
+	public boolean boolValue(final IScope scope) throws GamaRuntimeException {
+		if (primitive == null || !primitive.returnsBool()) return super.boolValue(scope);
+		final ExpressionCompiler.Compiled compiled = tier.get();
+		if (compiled != null) return ExpressionCompiler.boolValue(compiled, scope);
+		return primitive.boolValue(scope, exprs[0], exprs[1]);
 	}
 
 	@Override
@@ -144,6 +177,12 @@ public class BinaryOperator extends AbstractNAryOperator {
 
 	@Override
 	public Object _value(final IScope scope) throws GamaRuntimeException {
+		// Only the final result is boxed
+		if (primitive != null) {
+			if (primitive.returnsBool()) return boolValue(scope);
+			if (getGamlType() == Types.INT) return intValue(scope);
+			return doubleValue(scope);
+		}
 		Object leftVal = null, rightVal = null;
 		try {
 			leftVal = prototype.getLazyness()[0] ? exprs[0] : exprs[0].value(scope);
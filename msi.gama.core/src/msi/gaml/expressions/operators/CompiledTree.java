@@ -0,0 +1,60 @@
+/*******************************************************************************************************
+ *
+ * CompiledTree.java, in msi.gama.core, is part of the source code of the GAMA modeling and simulation platform
+ * (v.1.9.3).
+ *
+ * (c) 2007-2023 UMI 209 UMMISCO IRD/SU & Partners (IRIT, MIAT, TLU, CTU)
+ *
+ * Visit https://github.com/gama-platform/gama for license information and contacts.
+ *
+ ********************************************************************************************************/
+package msi.gaml.expressions.operators;
+
+import java.lang.constant.ConstantDescs;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+
+import msi.gama.runtime.IScope;
+
+/**
+ * The template of the hidden classes defined by {@link ExpressionCompiler} for the trees it compiles. This class is
+ * never loaded itself: its class file is used to define one hidden class per tree, whose class data is the method
+ * handle of the tree. Stored in a static final field, this method handle is a constant for the JIT, which can then
+ * inline the whole tree in the methods below.
+ *
+ * @since 1.9.3
+ */
+final class CompiledTree extends ExpressionCompiler.Compiled {
+
+	/** The method handle of the tree, of type (IScope) -> int, double or boolean. */
+	private static final MethodHandle TREE = tree();
+
+	/**
+	 * Returns the class data of the hidden class.
+	 *
+	 * @return the method handle of the tree
+	 */
+	private static MethodHandle tree() {
+		try {
+			return MethodHandles.classData(MethodHandles.lookup(), ConstantDescs.DEFAULT_NAME, MethodHandle.class);
+		} catch (final IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	@Override
+	int intValue(final IScope scope) throws Throwable {
+		return (int) TREE.invokeExact(scope);
+	}
+
+	@Override
+	double doubleValue(final IScope scope) throws Throwable {
+		return (double) TREE.invokeExact(scope);
+	}
+
+	@Override
+	boolean boolValue(final IScope scope) throws Throwable {
+		return (boolean) TREE.invokeExact(scope);
+	}
+
+}
@@ -0,0 +1,311 @@
+/*******************************************************************************************************
+ *
+ * ContainerPipeline.java, in msi.gama.core, is part of the source code of the GAMA modeling and simulation platform
+ * (v.1.9.3).
+ *
+ * (c) 2007-2023 UMI 209 UMMISCO IRD/SU & Partners (IRIT, MIAT, TLU, CTU)
+ *
+ * Visit https://github.com/gama-platform/gama for license information and contacts.
+ *
+ ********************************************************************************************************/
+package msi.gaml.expressions.operators;
+
+import static msi.gaml.operators.Containers.asMapOf;
+import static msi.gaml.operators.Containers.listOf;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import msi.gama.common.preferences.GamaPreferences;
+import msi.gama.runtime.IScope;
+import msi.gama.runtime.concurrent.GamaExecutorService;
+import msi.gama.runtime.exceptions.GamaRuntimeException;
+import msi.gama.util.IContainer;
+import msi.gaml.descriptions.IDescription;
+import msi.gaml.descriptions.OperatorProto;
+import msi.gaml.expressions.IExpression;
+import msi.gaml.expressions.IVarExpression;
+import msi.gaml.expressions.data.ListExpression;
+import msi.gaml.expressions.data.MapExpression;
+import msi.gaml.operators.Cast;
+import msi.gaml.operators.Containers;
+import msi.gaml.types.IType;
+import msi.gaml.types.Types;
+import one.util.streamex.StreamEx;
+
+/**
+ * A chain of container operators, like <code>(people where (each.age > 18)) collect each.income sum_of each</code>,
+ * evaluated in one lazy pass over the source container. The 'where' and 'collect' operators on the left of the
+ * chain become stages of a stream instead of building intermediate lists, and the last operator consumes this stream
+ * (stopping as soon as its result is known for 'first_with', 'one_matches', etc.).
+ *
+ * Elements are processed one after the other through all the stages, instead of stage after stage. This is why only
+ * the chains whose expressions have no side effects (no actions, no random operators...) are fused. For the same
+ * reason, these operators (even alone) can be evaluated in parallel over large containers, each worker thread binding
+ * 'each' in its own copy of the scope. They are not when they are themselves evaluated by a worker of a fork/join pool
+ * (for instance by an agent stepped in parallel with the others), as the workers are then already busy and a copy of
+ * the scope would be made for every agent.
+ *
+ * @since 1.9.3
+ */
+public class ContainerPipeline extends BinaryOperator {
+
+	/** The operators that can be fused with the ones that follow them. */
+	private static final Set<String> STAGES = Set.of("where", "select", "collect");
+
+	/** The operators that can end a pipeline. */
+	private static final Set<String> TERMINALS = Set.of("where", "select", "collect", "count", "first_with",
+			"last_with", "one_matches", "one_verifies", "none_matches", "none_verifies", "all_match", "all_verify",
+			"with_max_of", "with_min_of", "max_of", "min_of", "sum_of", "sort_by", "sort", "group_by");
+
+	/** The minimal number of elements of a container for it to be processed in parallel. */
+	public static final int MIN_PARALLEL_SIZE = 10000;
+
+	/**
+	 * A stage of the pipeline.
+	 *
+	 * @param filter
+	 *            whether the stage filters ('where') or transforms ('collect') the elements
+	 * @param operator
+	 *            the operator from which the stage is built
+	 * @param expression
+	 *            the expression evaluated for each element
+	 */
+	private record Stage(boolean filter, BinaryOperator operator, IExpression expression) {}
+
+	/**
+	 * Whether an operator can be evaluated as a pipeline, either because its left operand is a 'where' or 'collect'
+	 * operator, or because it could be evaluated in parallel.
+	 *
+	 * @param proto
+	 *            the proto
+	 * @param args
+	 *            the args
+	 * @return true, if successful
+	 */
+	static boolean canFuse(final OperatorProto proto, final IExpression... args) {
+		if (!proto.iterator || args == null || args.length != 2 || !TERMINALS.contains(proto.getName())
+				|| !isPure(args[1]))
+			return false;
+		return isStage(args[0]) || GamaExecutorService.CONCURRENCY_CONTAINERS.getValue();
+	}
+
+	/**
+	 * Whether an expression is a 'where' or 'collect' operator that can become a stage of a pipeline.
+	 *
+	 * @param e
+	 *            the expression
+	 * @return true, if is stage
+	 */
+	private static boolean isStage(final IExpression e) {
+		if (!GamaPreferences.External.CONTAINER_PIPELINES.getValue() || !(e instanceof BinaryOperator op)
+				|| op.getClass() != BinaryOperator.class && op.getClass() != ContainerPipeline.class)
+			return false;
+		return op.prototype.iterator && STAGES.contains(op.getName()) && isPure(op.arg(1));
+	}
+
+	/**
+	 * Whether the evaluation of an expression does not have side effects, and can then be interleaved with the
+	 * evaluation of the other stages. Only constants, variables, literal lists and maps, and operators that are either
+	 * constant, iterators or attribute accesses are accepted.
+	 *
+	 * @param expression
+	 *            the expression
+	 * @return true, if is pure
+	 */
+	private static boolean isPure(final IExpression expression) {
+		return !expression.findAny(e -> {
+			if (e.isConst() || e instanceof IVarExpression || e instanceof ListExpression || e instanceof MapExpression)
+				return false;
+			if (e instanceof IOperator op) {
+				final OperatorProto proto = op.getPrototype();
+				return proto == null || !proto.canBeConst && !proto.iterator && !proto.isVarOrField;
+			}
+			return true;
+		});
+	}
+
+	/** The source container. */
+	final IExpression source;
+
+	/** The stages between the source and this operator, in the order of their evaluation. */
+	final Stage[] stages;
+
+	/**
+	 * Instantiates a new container pipeline.
+	 *
+	 * @param proto
+	 *            the proto
+	 * @param context
+	 *            the context
+	 * @param args
+	 *            the args
+	 */
+	ContainerPipeline(final OperatorProto proto, final IDescription context, final IExpression... args) {
+		super(proto, context, args);
+		final Deque<Stage> result = new ArrayDeque<>();
+		IExpression left = exprs[0];
+		while (isStage(left)) {
+			final BinaryOperator op = (BinaryOperator) left;
+			result.addFirst(new Stage(!"collect".equals(op.getName()), op, op.arg(1)));
+			left = op.arg(0);
+		}
+		source = left;
+		stages = result.toArray(new Stage[result.size()]);
+	}
+
+	@Override
+	public Object _value(final IScope scope) throws GamaRuntimeException {
+		// Not in parallel when already evaluated by a worker of a fork/join pool (see the documentation of the class)
+		final boolean parallel = GamaExecutorService.CONCURRENCY_CONTAINERS.getValue()
+				&& !(Thread.currentThread() instanceof ForkJoinWorkerThread);
+		if (stages.length == 0 && !parallel) return super._value(scope);
+		final Object value = source.value(scope);
+		final Map<Thread, IScope> copies = new ConcurrentHashMap<>();
+		try {
+			// Other values (nil, strings...) are cast by the operators themselves, applied one after the other
+			if (!(value instanceof IContainer c)) return unfused(scope, value);
+			if (stages.length == 0 && c.length(scope) < MIN_PARALLEL_SIZE)
+				return prototype.getHelper().get(scope, c, exprs[1]);
+			StreamEx<Object> s = Containers.stream(scope, c);
+			final Supplier<IScope> scopes;
+			if (parallel && c.length(scope) >= MIN_PARALLEL_SIZE) {
+				// Each worker evaluates the expressions in its own copy of the scope, so that 'each' is not shared
+				scopes = () -> copies.computeIfAbsent(Thread.currentThread(), t -> scope.copy(" - parallel - "));
+				s = s.parallel(GamaExecutorService.AGENT_PARALLEL_EXECUTOR);
+			} else {
+				scopes = () -> scope;
+			}
+			IType contentType = c.getGamlType().getContentType();
+			for (final Stage stage : stages) {
+				if (stage.filter) {
+					s = s.filter(by(scopes, stage.expression));
+				} else {
+					s = s.map(with(scopes, stage.expression));
+					contentType = stage.expression.getGamlType();
+				}
+			}
+			return terminate(scope, scopes, s, contentType, exprs[1]);
+		} catch (final GamaRuntimeException ge) {
+			throw ge;
+		} catch (final Throwable ex) {
+			final GamaRuntimeException e1 = GamaRuntimeException.create(ex, scope);
+			e1.addContext("when applying the " + literalValue() + " operator on " + Cast.toGaml(value));
+			throw e1;
+		} finally {
+			for (final IScope copy : copies.values()) { copy.close(); }
+		}
+	}
+
+	/**
+	 * Applies the operators of the stages, then this operator, one after the other to the value of the source, like
+	 * they would be without being fused.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param value
+	 *            the value of the source
+	 * @return the result
+	 * @throws Throwable
+	 *             the errors of the helpers of the operators
+	 */
+	private Object unfused(final IScope scope, final Object value) throws Throwable {
+		Object result = value;
+		for (final Stage stage : stages) {
+			result = stage.operator.prototype.getHelper().get(scope, result, stage.expression);
+		}
+		return prototype.getHelper().get(scope, result, exprs[1]);
+	}
+
+	/**
+	 * Returns a predicate evaluating the expression on its argument, bound to 'each' in the scope supplied.
+	 *
+	 * @param scopes
+	 *            the supplier of the scope of the current thread
+	 * @param filter
+	 *            the filter
+	 * @return the predicate
+	 */
+	private static Predicate<Object> by(final Supplier<IScope> scopes, final IExpression filter) {
+		return t -> {
+			final IScope scope = scopes.get();
+			scope.setEach(t);
+			return (Boolean) filter.value(scope);
+		};
+	}
+
+	/**
+	 * Returns a function evaluating the expression on its argument, bound to 'each' in the scope supplied.
+	 *
+	 * @param scopes
+	 *            the supplier of the scope of the current thread
+	 * @param filter
+	 *            the filter
+	 * @return the function
+	 */
+	private static Function<Object, Object> with(final Supplier<IScope> scopes, final IExpression filter) {
+		return t -> {
+			final IScope scope = scopes.get();
+			scope.setEach(t);
+			return filter.value(scope);
+		};
+	}
+
+	/**
+	 * Consumes the stream of the elements produced by the stages, like the operator would do with the intermediate
+	 * list. Parallel streams are ordered, so the results (and the order of the lists) are the same as in sequence.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param scopes
+	 *            the supplier of the scope of the current thread
+	 * @param s
+	 *            the stream
+	 * @param contentType
+	 *            the type of the elements
+	 * @param filter
+	 *            the right-hand operand of the operator
+	 * @return the result
+	 */
+	private Object terminate(final IScope scope, final Supplier<IScope> scopes, final StreamEx s,
+			final IType contentType, final IExpression filter) {
+		return switch (getName()) {
+			case "where", "select" -> s.filter(by(scopes, filter)).toCollection(listOf(contentType));
+			case "collect" -> s.map(with(scopes, filter)).toCollection(listOf(filter.getGamlType()));
+			case "count" -> (int) s.filter(by(scopes, filter)).count();
+			case "first_with" -> s.findFirst(by(scopes, filter)).orElse(null);
+			case "last_with" -> s.filter(by(scopes, filter)).reduce((a, b) -> b).orElse(null);
+			case "one_matches", "one_verifies" -> s.anyMatch(by(scopes, filter));
+			case "none_matches", "none_verifies" -> s.noneMatch(by(scopes, filter));
+			case "all_match", "all_verify" -> s.allMatch(by(scopes, filter));
+			case "with_max_of" -> s.maxBy((Function) with(scopes, filter)).orElse(null);
+			case "with_min_of" -> s.minBy((Function) with(scopes, filter)).orElse(null);
+			case "max_of" -> s.map(with(scopes, filter)).maxBy(Function.identity()).orElse(null);
+			case "min_of" -> s.map(with(scopes, filter)).minBy(Function.identity()).orElse(null);
+			case "sum_of" -> Containers.sum(scope, s.map(with(scopes, filter)), filter.getGamlType(), this);
+			case "sort_by", "sort" -> s.sortedBy((Function) with(scopes, filter)).toCollection(listOf(contentType));
+			case "group_by" -> s.groupingTo(with(scopes, filter),
+					asMapOf(filter.getGamlType(), Types.LIST.of(contentType)), listOf(contentType));
+			default -> throw GamaRuntimeException.error("The operator " + getName() + " cannot end a pipeline", scope);
+		};
+	}
+
+	@Override
+	public ContainerPipeline copy() {
+		return new ContainerPipeline(prototype, null, exprs);
+	}
+
+	@Override
+	public IOperator resolveAgainst(final IScope scope) {
+		// The stages are recomputed from the resolved operands
+		return new ContainerPipeline(prototype, null, exprs[0].resolveAgainst(scope), exprs[1].resolveAgainst(scope));
+	}
+
+}
@@ -0,0 +1,292 @@
+/*******************************************************************************************************
+ *
+ * DispatchingOperator.java, in msi.gama.core, is part of the source code of the GAMA modeling and simulation platform
+ * (v.1.9.3).
+ *
+ * (c) 2007-2023 UMI 209 UMMISCO IRD/SU & Partners (IRIT, MIAT, TLU, CTU)
+ *
+ * Visit https://github.com/gama-platform/gama for license information and contacts.
+ *
+ ********************************************************************************************************/
+package msi.gaml.expressions.operators;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+import msi.gama.common.preferences.GamaPreferences;
+import msi.gama.precompiler.ITypeProvider;
+import msi.gama.runtime.IScope;
+import msi.gama.runtime.exceptions.GamaRuntimeException;
+import msi.gaml.descriptions.IDescription;
+import msi.gaml.descriptions.OperatorProto;
+import msi.gaml.expressions.IExpression;
+import msi.gaml.operators.Cast;
+import msi.gaml.types.IType;
+import msi.gaml.types.Signature;
+import msi.gaml.types.Types;
+
+/**
+ * A binary operator applied to at least one operand typed 'unknown', and for which several versions match the types
+ * known at compile time. Instead of always applying the version chosen by the compiler, it chooses, like the compiler
+ * would do, the version that matches the Java classes of the values of the operands, and remembers this choice in a
+ * small cache attached to this call site. A call site that sees one pair of classes is monomorphic, one that sees up to
+ * {@link #MAX_ENTRIES} pairs is polymorphic; beyond that, it becomes megamorphic: the version is looked up at every
+ * evaluation and the site is reported by the 'benchmark' statement.
+ *
+ * @since 1.9.3
+ */
+public class DispatchingOperator extends BinaryOperator {
+
+	/** The maximal number of pairs of classes remembered by a call site. */
+	public static final int MAX_ENTRIES = 4;
+
+	/** The call sites that have become megamorphic. Weak, so as not to retain the expressions of closed models. */
+	private static final Set<DispatchingOperator> MEGAMORPHIC =
+			Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+	/**
+	 * The version of the operator to apply to a pair of classes.
+	 *
+	 * @param left
+	 *            the class of the left operand
+	 * @param right
+	 *            the class of the right operand
+	 * @param proto
+	 *            the version to apply
+	 * @param casts
+	 *            the types into which the operands must be casted (or null if they need not)
+	 */
+	private record Target(Class<?> left, Class<?> right, OperatorProto proto, IType<?>[] casts) {}
+
+	/**
+	 * Returns the versions of the operator among which this call site can choose at runtime, or null if it does not
+	 * need to (or cannot) dispatch at runtime. Only the versions that return the same type as the version chosen by the
+	 * compiler, whatever the types of their operands, are retained, so that the type of the operator is the same
+	 * whatever the version applied.
+	 *
+	 * @param proto
+	 *            the version chosen by the compiler
+	 * @param candidates
+	 *            all the versions of the operator
+	 * @param args
+	 *            the operands, before their coercion
+	 * @return the candidates or null
+	 */
+	public static OperatorProto[] candidatesFor(final OperatorProto proto, final Iterable<OperatorProto> candidates,
+			final IExpression... args) {
+		if (!GamaPreferences.Experimental.DISPATCH_OPERATORS.getValue() || args.length != 2 || !isDispatchable(proto)
+				|| args[0].getGamlType() != Types.NO_TYPE && args[1].getGamlType() != Types.NO_TYPE
+				|| args[0].isConst() && args[1].isConst())
+			return null;
+		final IType<?> type = fixedReturnType(proto);
+		if (type == null) return null;
+		final Signature signature = new Signature(args).simplified();
+		OperatorProto[] result = {};
+		for (final OperatorProto p : candidates) {
+			if (isDispatchable(p) && fixedReturnType(p) == type && signature.matchesDesiredSignature(p.signature)) {
+				result = Arrays.copyOf(result, result.length + 1);
+				result[result.length - 1] = p;
+			}
+		}
+		return result.length > 1 ? result : null;
+	}
+
+	/**
+	 * Whether a version of an operator can be chosen at runtime, i.e. a binary operator whose operands are values.
+	 *
+	 * @param proto
+	 *            the proto
+	 * @return true, if is dispatchable
+	 */
+	private static boolean isDispatchable(final OperatorProto proto) {
+		if (proto.signature.size() != 2 || proto.iterator || proto.isVarOrField) return false;
+		final boolean[] lazy = proto.getLazyness();
+		return !lazy[0] && !lazy[1];
+	}
+
+	/**
+	 * Returns the type returned by a version of an operator, if it does not depend on the types of its operands.
+	 *
+	 * @param proto
+	 *            the proto
+	 * @return the type, or null if it depends on the operands or is a container type (whose contents may depend on
+	 *         them)
+	 */
+	private static IType<?> fixedReturnType(final OperatorProto proto) {
+		final IType<?> type = proto.typeProvider == ITypeProvider.NONE ? proto.returnType
+				: proto.typeProvider >= 0 ? Types.get(proto.typeProvider) : null;
+		return type == null || type.isContainer() ? null : type;
+	}
+
+	/**
+	 * Returns the number of slow dispatches of each megamorphic call site.
+	 *
+	 * @return the map
+	 */
+	public static Map<DispatchingOperator, Long> getMegamorphicSites() {
+		final Map<DispatchingOperator, Long> result = new HashMap<>();
+		synchronized (MEGAMORPHIC) {
+			for (final DispatchingOperator op : MEGAMORPHIC) { result.put(op, op.slowDispatches.sum()); }
+		}
+		return result;
+	}
+
+	/**
+	 * Describes the megamorphic call sites that have been evaluated since a previous call to
+	 * {@link #getMegamorphicSites()}.
+	 *
+	 * @param before
+	 *            the number of slow dispatches of the call sites at that time
+	 * @return the description, empty if no megamorphic call site has been evaluated
+	 */
+	public static String describeMegamorphicSites(final Map<DispatchingOperator, Long> before) {
+		final StringBuilder sb = new StringBuilder();
+		getMegamorphicSites().forEach((op, count) -> {
+			final long n = count - before.getOrDefault(op, 0L);
+			if (n > 0) {
+				sb.append("\n  megamorphic operator '").append(op.serialize(false)).append("': ").append(n)
+						.append(" slow dispatch(es)");
+			}
+		});
+		return sb.toString();
+	}
+
+	/** The versions among which to choose. */
+	final OperatorProto[] candidates;
+
+	/** The casts to apply to the operands when the version chosen by the compiler is applied. */
+	final IType<?>[] staticCasts;
+
+	/**
+	 * The pairs of classes already seen, and the versions to apply to them. Replaced, never modified, and only by
+	 * compare-and-set, so that concurrent evaluations neither lose entries nor grow it past {@link #MAX_ENTRIES}.
+	 */
+	private volatile Target[] targets = {};
+
+	/** The updater of {@link #targets}. */
+	private static final AtomicReferenceFieldUpdater<DispatchingOperator, Target[]> TARGETS =
+			AtomicReferenceFieldUpdater.newUpdater(DispatchingOperator.class, Target[].class, "targets");
+
+	/** The number of evaluations where the version has been looked up after the cache was full. */
+	private final LongAdder slowDispatches = new LongAdder();
+
+	/**
+	 * Instantiates a new dispatching operator.
+	 *
+	 * @param proto
+	 *            the version chosen by the compiler
+	 * @param context
+	 *            the context
+	 * @param candidates
+	 *            the versions among which to choose
+	 * @param args
+	 *            the operands, before their coercion
+	 */
+	public DispatchingOperator(final OperatorProto proto, final IDescription context,
+			final OperatorProto[] candidates, final IExpression... args) {
+		super(proto, context, args);
+		this.candidates = candidates;
+		staticCasts = proto.signature.coerce(new Signature(args).simplified(), null);
+	}
+
+	@Override
+	public Object _value(final IScope scope) throws GamaRuntimeException {
+		Object leftVal = null, rightVal = null;
+		try {
+			leftVal = exprs[0].value(scope);
+			rightVal = exprs[1].value(scope);
+			final Target target = leftVal == null || rightVal == null ? null : targetFor(leftVal, rightVal);
+			if (target == null || target.proto == null) return prototype.getHelper().get(scope,
+					cast(scope, staticCasts[0], leftVal), cast(scope, staticCasts[1], rightVal));
+			final IType<?>[] casts = target.casts;
+			return target.proto.getHelper().get(scope, cast(scope, casts[0], leftVal), cast(scope, casts[1], rightVal));
+		} catch (final GamaRuntimeException ge) {
+			throw ge;
+		} catch (final Throwable ex) {
+			final GamaRuntimeException e1 = GamaRuntimeException.create(ex, scope);
+			e1.addContext("when applying the " + literalValue() + " operator on " + Cast.toGaml(leftVal) + " and "
+					+ Cast.toGaml(rightVal));
+			throw e1;
+		}
+	}
+
+	/**
+	 * Casts an operand if needed.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param type
+	 *            the type, or null if the operand does not need to be casted
+	 * @param value
+	 *            the value
+	 * @return the object
+	 */
+	private static Object cast(final IScope scope, final IType<?> type, final Object value) {
+		return type == null ? value : type.cast(scope, value, null, false);
+	}
+
+	/**
+	 * Returns the version to apply to the classes of the operands, from the cache if possible.
+	 *
+	 * @param left
+	 *            the left operand
+	 * @param right
+	 *            the right operand
+	 * @return the target
+	 */
+	private Target targetFor(final Object left, final Object right) {
+		final Class<?> lc = left.getClass(), rc = right.getClass();
+		Target result = null;
+		while (true) {
+			final Target[] current = targets;
+			for (final Target t : current) { if (t.left == lc && t.right == rc) return t; }
+			if (result == null) { result = resolve(lc, rc); }
+			if (current.length >= MAX_ENTRIES) {
+				slowDispatches.increment();
+				MEGAMORPHIC.add(this);
+				return result;
+			}
+			final Target[] copy = Arrays.copyOf(current, current.length + 1);
+			copy[current.length] = result;
+			// Looks again for the classes if another evaluation has replaced the cache in the meantime
+			if (TARGETS.compareAndSet(this, current, copy)) return result;
+		}
+	}
+
+	/**
+	 * Chooses, among the candidates, the closest version to the classes of the operands, the same way the compiler
+	 * does with their types.
+	 *
+	 * @param lc
+	 *            the class of the left operand
+	 * @param rc
+	 *            the class of the right operand
+	 * @return the target, whose proto is null if no candidate matches
+	 */
+	private Target resolve(final Class<?> lc, final Class<?> rc) {
+		final Signature actual = new Signature(Types.get(lc), Types.get(rc));
+		OperatorProto best = null;
+		int distance = Integer.MAX_VALUE;
+		for (final OperatorProto p : candidates) {
+			if (!actual.matchesDesiredSignature(p.signature)) { continue; }
+			final int d = p.signature.distanceTo(actual);
+			if (best == null || d < distance) {
+				best = p;
+				distance = d;
+			}
+		}
+		return new Target(lc, rc, best, best == null ? null : best.signature.coerce(actual, null));
+	}
+
+	@Override
+	public DispatchingOperator copy() {
+		return new DispatchingOperator(prototype, null, candidates, exprs);
+	}
+
+}
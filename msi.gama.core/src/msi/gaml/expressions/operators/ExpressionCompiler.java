@@ -0,0 +1,481 @@
+/*******************************************************************************************************
+ *
+ * ExpressionCompiler.java, in msi.gama.core, is part of the source code of the GAMA modeling and simulation platform
+ * (v.1.9.3).
+ *
+ * (c) 2007-2023 UMI 209 UMMISCO IRD/SU & Partners (IRIT, MIAT, TLU, CTU)
+ *
+ * Visit https://github.com/gama-platform/gama for license information and contacts.
+ *
+ ********************************************************************************************************/
+package msi.gaml.expressions.operators;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+
+import msi.gama.common.preferences.GamaPreferences;
+import msi.gama.runtime.IScope;
+import msi.gama.runtime.exceptions.GamaRuntimeException;
+import msi.gaml.expressions.IExpression;
+import msi.gaml.types.Types;
+
+/**
+ * Compiles the trees of unboxed operators (see {@link UnboxedOperator}) that are evaluated very often into JVM code,
+ * instead of walking the tree and dispatching on the operator of each node at every evaluation.
+ *
+ * Each operator at the root of such a tree counts its evaluations in a {@link Tier}. Once the count reaches
+ * {@link #THRESHOLD}, the tree is compiled: its unboxed operators become combinations of method handles on primitive
+ * values, its constants become constant method handles and the other nodes (attributes) are still evaluated by the
+ * interpreter, through their doubleValue(), intValue() or boolValue() methods. The order of evaluation of the operands,
+ * the short-circuiting of 'and' and 'or' and the errors are the ones of the interpreter.
+ *
+ * The method handle of the tree is then stored in a static final field of a hidden class defined for this tree only
+ * (see {@link CompiledTree}). The JIT treats it as a constant, and compiles and inlines the whole tree into the method
+ * of this class. Only the call to this method, and the evaluation of the leaves by the interpreter, remain indirect.
+ *
+ * @since 1.9.3
+ */
+final class ExpressionCompiler {
+
+	/** The number of evaluations after which a tree is compiled. */
+	static final int THRESHOLD = 10_000;
+
+	/** Whether the trees are compiled. Cached from the preference, as it is read at every evaluation. */
+	static volatile boolean ENABLED = GamaPreferences.Experimental.COMPILE_EXPRESSIONS.getValue();
+
+	static {
+		GamaPreferences.Experimental.COMPILE_EXPRESSIONS.onChange(v -> ENABLED = v);
+	}
+
+	/** The type of the compiled trees and of their nodes: (IScope) -> int, double or boolean. */
+	private static final MethodType INT = methodType(int.class, IScope.class),
+			DOUBLE = methodType(double.class, IScope.class), BOOL = methodType(boolean.class, IScope.class);
+
+	/** The method handles of the operators and of the evaluation of the nodes by the interpreter. */
+	private static final MethodHandle INT_PLUS, INT_MINUS, INT_TIMES, INT_NEGATE, DOUBLE_PLUS, DOUBLE_MINUS,
+			DOUBLE_TIMES, DOUBLE_DIVIDE, DOUBLE_NEGATE, LESS, GREATER, LESS_OR_EQUAL, GREATER_OR_EQUAL,
+			FLOAT_LESS_OR_EQUAL, FLOAT_GREATER_OR_EQUAL, NOT, INT_VALUE, DOUBLE_VALUE, BOOL_VALUE;
+
+	static {
+		final Lookup lookup = MethodHandles.lookup();
+		final Class<?> c = ExpressionCompiler.class;
+		final MethodType ints = methodType(int.class, int.class, int.class, IScope.class),
+				doubles = methodType(double.class, double.class, double.class, IScope.class),
+				comparisons = methodType(boolean.class, double.class, double.class, IScope.class);
+		try {
+			INT_PLUS = lookup.findStatic(c, "plus", ints);
+			INT_MINUS = lookup.findStatic(c, "minus", ints);
+			INT_TIMES = lookup.findStatic(c, "times", ints);
+			INT_NEGATE = lookup.findStatic(c, "negate", methodType(int.class, int.class));
+			DOUBLE_PLUS = lookup.findStatic(c, "plus", doubles);
+			DOUBLE_MINUS = lookup.findStatic(c, "minus", doubles);
+			DOUBLE_TIMES = lookup.findStatic(c, "times", doubles);
+			DOUBLE_DIVIDE = lookup.findStatic(c, "divide", doubles);
+			DOUBLE_NEGATE = lookup.findStatic(c, "negate", methodType(double.class, double.class));
+			LESS = lookup.findStatic(c, "less", comparisons);
+			GREATER = lookup.findStatic(c, "greater", comparisons);
+			LESS_OR_EQUAL = lookup.findStatic(c, "lessOrEqual", comparisons);
+			GREATER_OR_EQUAL = lookup.findStatic(c, "greaterOrEqual", comparisons);
+			FLOAT_LESS_OR_EQUAL = lookup.findStatic(c, "floatLessOrEqual", comparisons);
+			FLOAT_GREATER_OR_EQUAL = lookup.findStatic(c, "floatGreaterOrEqual", comparisons);
+			NOT = lookup.findStatic(c, "not", methodType(boolean.class, boolean.class));
+			INT_VALUE = lookup.findVirtual(IExpression.class, "intValue", INT);
+			DOUBLE_VALUE = lookup.findVirtual(IExpression.class, "doubleValue", DOUBLE);
+			BOOL_VALUE = lookup.findVirtual(IExpression.class, "boolValue", BOOL);
+		} catch (final NoSuchMethodException | IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	/** The class file of {@link CompiledTree}, from which a hidden class is defined for each tree. Null if unreadable. */
+	private static final byte[] TEMPLATE = readTemplate();
+
+	/**
+	 * Reads the class file of {@link CompiledTree}.
+	 *
+	 * @return the bytes of the class file, or null if they cannot be read, in which case no tree is compiled
+	 */
+	private static byte[] readTemplate() {
+		try (InputStream in = ExpressionCompiler.class.getResourceAsStream("CompiledTree.class")) {
+			return in == null ? null : in.readAllBytes();
+		} catch (final IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * A compiled tree, evaluated as an int, a double or a boolean depending on the type of its root. Each compiled tree
+	 * is the only instance of its own hidden class, defined from {@link CompiledTree}.
+	 */
+	abstract static class Compiled {
+
+		/**
+		 * Evaluates a tree returning an int.
+		 *
+		 * @param scope
+		 *            the scope
+		 * @return the int
+		 * @throws Throwable
+		 *             any exception thrown by the operators or the leaves
+		 */
+		abstract int intValue(IScope scope) throws Throwable;
+
+		/**
+		 * Evaluates a tree returning a double.
+		 *
+		 * @param scope
+		 *            the scope
+		 * @return the double
+		 * @throws Throwable
+		 *             any exception thrown by the operators or the leaves
+		 */
+		abstract double doubleValue(IScope scope) throws Throwable;
+
+		/**
+		 * Evaluates a tree returning a boolean.
+		 *
+		 * @param scope
+		 *            the scope
+		 * @return the boolean
+		 * @throws Throwable
+		 *             any exception thrown by the operators or the leaves
+		 */
+		abstract boolean boolValue(IScope scope) throws Throwable;
+	}
+
+	/**
+	 * Counts the evaluations of the tree rooted at an unboxed operator, and holds its compiled version once it is hot.
+	 * The count is not synchronized: concurrent evaluations may delay the compilation or compile the tree twice, which
+	 * is harmless.
+	 */
+	static final class Tier {
+
+		/** The root of the tree. */
+		private final IExpression root;
+
+		/** The number of evaluations. */
+		private int evaluations;
+
+		/** The compiled tree, null until it is hot or if it cannot be compiled. */
+		private Compiled compiled;
+
+		/**
+		 * Instantiates a new tier.
+		 *
+		 * @param root
+		 *            the root of the tree
+		 */
+		Tier(final IExpression root) {
+			this.root = root;
+		}
+
+		/**
+		 * Counts an evaluation and returns the compiled tree, once it is hot.
+		 *
+		 * @return the compiled tree, or null if the tree has to be interpreted
+		 */
+		Compiled get() {
+			if (!ENABLED) return null;
+			final Compiled c = compiled;
+			// Compiled only once, when the count reaches the threshold, even if the compilation fails
+			if (c != null || ++evaluations != THRESHOLD) return c;
+			return compiled = compile(root);
+		}
+	}
+
+	/**
+	 * Compiles the tree rooted at an unboxed operator into the method handle of a new hidden class.
+	 *
+	 * @param root
+	 *            the root
+	 * @return the compiled tree, or null if the hidden class cannot be defined
+	 */
+	static Compiled compile(final IExpression root) {
+		if (TEMPLATE == null) return null;
+		final MethodHandle h = node(root);
+		final MethodHandle tree = h == null ? leaf(root, naturalType(root)) : h;
+		try {
+			// The hidden class is not linked to its class loader, and is unloaded with the expression
+			final Lookup lookup = MethodHandles.lookup().defineHiddenClassWithClassData(TEMPLATE, tree, true);
+			return (Compiled) lookup.findConstructor(lookup.lookupClass(), methodType(void.class)).invoke();
+		} catch (final Throwable e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Evaluates a compiled tree returning an int.
+	 *
+	 * @param compiled
+	 *            the compiled tree
+	 * @param scope
+	 *            the scope
+	 * @return the int
+	 */
+	static int intValue(final Compiled compiled, final IScope scope) {
+		try {
+			return compiled.intValue(scope);
+		} catch (final RuntimeException | Error e) {
+			throw e;
+		} catch (final Throwable e) {
+			throw GamaRuntimeException.create(e, scope);
+		}
+	}
+
+	/**
+	 * Evaluates a compiled tree returning a double.
+	 *
+	 * @param compiled
+	 *            the compiled tree
+	 * @param scope
+	 *            the scope
+	 * @return the double
+	 */
+	static double doubleValue(final Compiled compiled, final IScope scope) {
+		try {
+			return compiled.doubleValue(scope);
+		} catch (final RuntimeException | Error e) {
+			throw e;
+		} catch (final Throwable e) {
+			throw GamaRuntimeException.create(e, scope);
+		}
+	}
+
+	/**
+	 * Evaluates a compiled tree returning a boolean.
+	 *
+	 * @param compiled
+	 *            the compiled tree
+	 * @param scope
+	 *            the scope
+	 * @return the boolean
+	 */
+	static boolean boolValue(final Compiled compiled, final IScope scope) {
+		try {
+			return compiled.boolValue(scope);
+		} catch (final RuntimeException | Error e) {
+			throw e;
+		} catch (final Throwable e) {
+			throw GamaRuntimeException.create(e, scope);
+		}
+	}
+
+	/**
+	 * Compiles an operand, so that it returns the primitive type expected by its operator. Ints are widened to doubles
+	 * when floats are expected, like in the interpreter.
+	 *
+	 * @param e
+	 *            the operand
+	 * @param expected
+	 *            int.class, double.class or boolean.class
+	 * @return the method handle
+	 */
+	private static MethodHandle operand(final IExpression e, final Class<?> expected) {
+		final MethodHandle h = node(e);
+		if (h != null) {
+			final Class<?> returned = h.type().returnType();
+			if (returned == expected) return h;
+			if (returned == int.class && expected == double.class) return h.asType(DOUBLE);
+		}
+		return leaf(e, expected);
+	}
+
+	/**
+	 * Compiles a node of the tree, if it is an unboxed operator.
+	 *
+	 * @param e
+	 *            the node
+	 * @return the method handle, or null if the node is not an unboxed operator
+	 */
+	private static MethodHandle node(final IExpression e) {
+		if (e instanceof BinaryOperator b && b.primitive != null) {
+			final IExpression left = b.exprs[0], right = b.exprs[1];
+			return switch (b.primitive) {
+				case AND -> MethodHandles.guardWithTest(operand(left, boolean.class), operand(right, boolean.class),
+						constant(boolean.class, false));
+				case OR -> MethodHandles.guardWithTest(operand(left, boolean.class), constant(boolean.class, true),
+						operand(right, boolean.class));
+				case LESS, GREATER, LESS_OR_EQUAL, GREATER_OR_EQUAL -> binary(comparison(b), left, right, double.class);
+				case PLUS -> b.getGamlType() == Types.INT ? binary(INT_PLUS, left, right, int.class)
+						: binary(DOUBLE_PLUS, left, right, double.class);
+				case MINUS -> b.getGamlType() == Types.INT ? binary(INT_MINUS, left, right, int.class)
+						: binary(DOUBLE_MINUS, left, right, double.class);
+				case TIMES -> b.getGamlType() == Types.INT ? binary(INT_TIMES, left, right, int.class)
+						: binary(DOUBLE_TIMES, left, right, double.class);
+				case DIVIDE -> binary(DOUBLE_DIVIDE, left, right, double.class);
+				default -> null;
+			};
+		}
+		if (e instanceof UnaryOperator u && u.primitive != null) return switch (u.primitive) {
+			case NOT -> MethodHandles.filterReturnValue(operand(u.child, boolean.class), NOT);
+			case NEGATE -> u.getGamlType() == Types.INT
+					? MethodHandles.filterReturnValue(operand(u.child, int.class), INT_NEGATE)
+					: MethodHandles.filterReturnValue(operand(u.child, double.class), DOUBLE_NEGATE);
+			default -> null;
+		};
+		return null;
+	}
+
+	/**
+	 * Returns the comparison to use for the operands of a comparison operator. Like in Comparison, two floats are
+	 * compared with a negation for '<=' and '>=', which gives a different result for NaN.
+	 *
+	 * @param b
+	 *            the comparison operator
+	 * @return the method handle
+	 */
+	private static MethodHandle comparison(final BinaryOperator b) {
+		final boolean floats = b.exprs[0].getGamlType() == Types.FLOAT && b.exprs[1].getGamlType() == Types.FLOAT;
+		return switch (b.primitive) {
+			case LESS -> LESS;
+			case GREATER -> GREATER;
+			case LESS_OR_EQUAL -> floats ? FLOAT_LESS_OR_EQUAL : LESS_OR_EQUAL;
+			default -> floats ? FLOAT_GREATER_OR_EQUAL : GREATER_OR_EQUAL;
+		};
+	}
+
+	/**
+	 * Combines a binary operation with its operands. The left operand is evaluated before the right one.
+	 *
+	 * @param op
+	 *            the operation, of type (t, t, IScope) -> r
+	 * @param left
+	 *            the left operand
+	 * @param right
+	 *            the right operand
+	 * @param t
+	 *            the type of the operands
+	 * @return a method handle of type (IScope) -> r
+	 */
+	private static MethodHandle binary(final MethodHandle op, final IExpression left, final IExpression right,
+			final Class<?> t) {
+		final Class<?> r = op.type().returnType();
+		// (right, left, scope) -> op(left, right, scope)
+		final MethodHandle swapped = MethodHandles.permuteArguments(op, methodType(r, t, t, IScope.class), 1, 0, 2);
+		// (left, scope) -> op(left, right(scope), scope)
+		final MethodHandle withRight =
+				MethodHandles.foldArguments(swapped, MethodHandles.dropArguments(operand(right, t), 0, t));
+		// (scope) -> op(left(scope), right(scope), scope)
+		return MethodHandles.foldArguments(withRight, operand(left, t));
+	}
+
+	/**
+	 * Returns a method handle evaluating a node with the interpreter, or returning its value if it is a constant.
+	 *
+	 * @param e
+	 *            the node
+	 * @param expected
+	 *            int.class, double.class or boolean.class
+	 * @return a method handle of type (IScope) -> expected
+	 */
+	private static MethodHandle leaf(final IExpression e, final Class<?> expected) {
+		if (e.isConst()) {
+			final Object v = e.getConstValue();
+			if (expected == boolean.class && v instanceof Boolean b) return constant(boolean.class, b);
+			if (expected == int.class && v instanceof Integer i) return constant(int.class, i);
+			if (expected == double.class && v instanceof Number n) return constant(double.class, n.doubleValue());
+		}
+		final MethodHandle h = expected == int.class ? INT_VALUE : expected == double.class ? DOUBLE_VALUE : BOOL_VALUE;
+		return h.bindTo(e);
+	}
+
+	/**
+	 * Returns the primitive type returned by the unboxed evaluation of an expression.
+	 *
+	 * @param e
+	 *            the expression
+	 * @return int.class, double.class or boolean.class
+	 */
+	private static Class<?> naturalType(final IExpression e) {
+		if (e.getGamlType() == Types.BOOL) return boolean.class;
+		return e.getGamlType() == Types.INT ? int.class : double.class;
+	}
+
+	/**
+	 * Returns a method handle ignoring the scope and returning a constant.
+	 *
+	 * @param type
+	 *            the primitive type
+	 * @param value
+	 *            the value
+	 * @return a method handle of type (IScope) -> type
+	 */
+	private static MethodHandle constant(final Class<?> type, final Object value) {
+		return MethodHandles.dropArguments(MethodHandles.constant(type, value), 0, IScope.class);
+	}
+
+	// The operations, with the semantics of Maths, Comparison and Logic (see UnboxedOperator)
+
+	private static int plus(final int l, final int r, final IScope scope) {
+		return l + r;
+	}
+
+	private static int minus(final int l, final int r, final IScope scope) {
+		return l - r;
+	}
+
+	private static int times(final int l, final int r, final IScope scope) {
+		return l * r;
+	}
+
+	private static int negate(final int v) {
+		return -v;
+	}
+
+	private static double plus(final double l, final double r, final IScope scope) {
+		return l + r;
+	}
+
+	private static double minus(final double l, final double r, final IScope scope) {
+		return l - r;
+	}
+
+	private static double times(final double l, final double r, final IScope scope) {
+		return l * r;
+	}
+
+	private static double divide(final double l, final double r, final IScope scope) {
+		// Same test as Maths.opDivide(), where -0.0 is not considered as zero for floats
+		if (Double.compare(r, 0.0) == 0) throw GamaRuntimeException.error("Division by zero", scope);
+		return l / r;
+	}
+
+	private static double negate(final double v) {
+		return -v;
+	}
+
+	private static boolean less(final double l, final double r, final IScope scope) {
+		return l < r;
+	}
+
+	private static boolean greater(final double l, final double r, final IScope scope) {
+		return l > r;
+	}
+
+	private static boolean lessOrEqual(final double l, final double r, final IScope scope) {
+		return l <= r;
+	}
+
+	private static boolean greaterOrEqual(final double l, final double r, final IScope scope) {
+		return l >= r;
+	}
+
+	private static boolean floatLessOrEqual(final double l, final double r, final IScope scope) {
+		return !(l > r);
+	}
+
+	private static boolean floatGreaterOrEqual(final double l, final double r, final IScope scope) {
+		return !(l < r);
+	}
+
+	private static boolean not(final boolean v) {
+		return !v;
+	}
+
+}
@@ -11,6 +11,11 @@
 package msi.gaml.expressions.operators;
 
 import msi.gama.common.interfaces.IBenchmarkable;
+import msi.gama.common.preferences.GamaPreferences;
+import msi.gama.runtime.GAMA;
+import msi.gama.runtime.IScope;
+import msi.gaml.compilation.GAML;
+import msi.gaml.compilation.kernel.GamaBundleLoader;
 import msi.gaml.descriptions.OperatorProto;
 import msi.gaml.expressions.IExpression;
 
@@ -58,6 +63,36 @@ public interface IOperator extends IExpression, IBenchmarkable {
 	 */
 	public abstract OperatorProto getPrototype();
 
+	/**
+	 * Returns the expression to use in place of a newly built operator. Constant operators (i.e. operators without side
+	 * effects nor random dependency whose operands are constant) are evaluated at compile time and replaced by their
+	 * value if it is an int, float, bool or string, which cannot be modified afterwards. Other values are only folded if
+	 * the (experimental) optimization of constant expressions is enabled. The evaluation is done in a temporary copy of
+	 * the scope of the platform agent, in which errors are thrown instead of being reported. Operators whose evaluation
+	 * fails are kept, so that the error is raised when they are executed.
+	 *
+	 * @param operator
+	 *            the operator
+	 * @return the operator or a constant expression
+	 */
+	static IExpression fold(final IOperator operator) {
+		if (!operator.isConst()) return operator;
+		final boolean all = GamaPreferences.External.CONSTANT_OPTIMIZATION.getValue();
+		if (!all && !GamaPreferences.External.CONSTANT_FOLDING.getValue() || !GamaBundleLoader.LOADED) return operator;
+		final Object value;
+		try (IScope scope = GAMA.getPlatformAgent().getScope().copy(" - constant folding - ")) {
+			scope.disableErrorReporting();
+			scope.enableTryMode();
+			value = operator.value(scope);
+		} catch (final RuntimeException e) {
+			return operator;
+		}
+		if (!all && !(value instanceof Integer || value instanceof Double || value instanceof Boolean
+				|| value instanceof String))
+			return operator;
+		return GAML.getExpressionFactory().createConst(value, operator.getGamlType(), operator.serialize(false));
+	}
+
 	/**
 	 * Gets the name for benchmarks.
 	 *
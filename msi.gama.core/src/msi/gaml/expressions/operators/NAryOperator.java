@@ -10,8 +10,6 @@
  ********************************************************************************************************/
 package msi.gaml.expressions.operators;
 
-import msi.gama.common.preferences.GamaPreferences;
-import msi.gaml.compilation.GAML;
 import msi.gaml.descriptions.OperatorProto;
 import msi.gaml.expressions.IExpression;
 
@@ -28,11 +26,7 @@ public class NAryOperator extends AbstractNAryOperator {
 	 * @return the i expression
 	 */
 	public static IExpression create(final OperatorProto proto, final IExpression... child) {
-		final NAryOperator u = new NAryOperator(proto, child);
-		if (u.isConst() && GamaPreferences.External.CONSTANT_OPTIMIZATION.getValue()) {
-			return GAML.getExpressionFactory().createConst(u.getConstValue(), u.getGamlType(), u.serialize(false));
-		}
-		return u;
+		return IOperator.fold(new NAryOperator(proto, child));
 	}
 
 	/**
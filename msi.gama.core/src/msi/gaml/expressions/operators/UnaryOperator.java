@@ -22,12 +22,10 @@ import static msi.gama.precompiler.ITypeProvider.WRAPPED;
 
 import java.util.function.Predicate;
 
-import msi.gama.common.preferences.GamaPreferences;
 import msi.gama.precompiler.GamlProperties;
 import msi.gama.runtime.IScope;
 import msi.gama.runtime.exceptions.GamaRuntimeException;
 import msi.gama.util.ICollector;
-import msi.gaml.compilation.GAML;
 import msi.gaml.descriptions.IDescription;
 import msi.gaml.descriptions.IVarDescriptionUser;
 import msi.gaml.descriptions.OperatorProto;
@@ -54,6 +52,12 @@ public class UnaryOperator extends AbstractExpression implements IOperator {
 	/** The prototype. */
 	protected final OperatorProto prototype;
 
+	/** The unboxed implementation of this operator, if any. */
+	final UnboxedOperator primitive;
+
+	/** The compiled version of the tree of unboxed operators rooted at this operator, if it has one. */
+	private final ExpressionCompiler.Tier tier;
+
 	/**
 	 * Creates the.
 	 *
@@ -66,10 +70,7 @@ public class UnaryOperator extends AbstractExpression implements IOperator {
 	 * @return the i expression
 	 */
 	public static IExpression create(final OperatorProto proto, final IDescription context, final IExpression child) {
-		final UnaryOperator u = new UnaryOperator(proto, context, child);
-		if (u.isConst() && GamaPreferences.External.CONSTANT_OPTIMIZATION.getValue())
-			return GAML.getExpressionFactory().createConst(u.getConstValue(), u.getGamlType(), u.serialize(false));
-		return u;
+		return IOperator.fold(new UnaryOperator(proto, context, child));
 	}
 
 	@Override
@@ -97,10 +98,44 @@ public class UnaryOperator extends AbstractExpression implements IOperator {
 			computeType();
 			proto.verifyExpectedTypes(context, child[0].getGamlType().getContentType());
 		}
+		final UnboxedOperator p = proto == null ? null : UnboxedOperator.of(proto.getName(), this.child);
+		primitive = p != null && p.accepts(getGamlType()) ? p : null;
+		tier = primitive == null ? null : new ExpressionCompiler.Tier(this);
+	}
+
+	@Override
+	public double doubleValue(final IScope scope) throws GamaRuntimeException {
+		if (primitive != UnboxedOperator.NEGATE) return super.doubleValue(scope);
+		// Ints are negated as ints, like in Maths
+		if (type == Types.INT) return intValue(scope);
+		final ExpressionCompiler.Compiled compiled = tier.get();
+		if (compiled != null) return ExpressionCompiler.doubleValue(compiled, scope);
+		return -child.doubleValue(scope);
+	}
+
+	@Override
+	public int intValue(final IScope scope) throws GamaRuntimeException {
+		if (primitive != UnboxedOperator.NEGATE || type != Types.INT) return super.intValue(scope);
+		final ExpressionCompiler.Compiled compiled = tier.get();
+		if (compiled != null) return ExpressionCompiler.intValue(compiled, scope);
+		return -child.intValue(scope);
+	}
+
+	@Override
+	public boolean boolValue(final IScope scope) throws GamaRuntimeException {
+		if (primitive != UnboxedOperator.NOT) return super.boolValue(scope);
+		final ExpressionCompiler.Compiled compiled = tier.get();
+		if (compiled != null) return ExpressionCompiler.boolValue(compiled, scope);
+		return !child.boolValue(scope);
 	}
 
 	@Override
 	public Object _value(final IScope scope) throws GamaRuntimeException {
+		if (primitive == UnboxedOperator.NOT) return boolValue(scope);
+		if (primitive == UnboxedOperator.NEGATE) {
+			if (type == Types.INT) return intValue(scope);
+			return doubleValue(scope);
+		}
 		final Object childValue = prototype.getLazyness()[0] ? child : child.value(scope);
 		try {
 			return prototype.getHelper().get(scope, childValue);
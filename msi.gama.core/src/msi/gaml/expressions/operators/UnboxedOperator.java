@@ -0,0 +1,233 @@
+/*******************************************************************************************************
+ *
+ * UnboxedOperator.java, in msi.gama.core, is part of the source code of the GAMA modeling and simulation platform
+ * (v.1.9.3).
+ *
+ * (c) 2007-2023 UMI 209 UMMISCO IRD/SU & Partners (IRIT, MIAT, TLU, CTU)
+ *
+ * Visit https://github.com/gama-platform/gama for license information and contacts.
+ *
+ ********************************************************************************************************/
+package msi.gaml.expressions.operators;
+
+import msi.gama.runtime.IScope;
+import msi.gama.runtime.exceptions.GamaRuntimeException;
+import msi.gaml.expressions.IExpression;
+import msi.gaml.expressions.variables.AgentVariableExpression;
+import msi.gaml.expressions.variables.GlobalVariableExpression;
+import msi.gaml.types.IType;
+import msi.gaml.types.Types;
+
+/**
+ * The arithmetic, comparison and logical operators on int, float and bool operands that can be evaluated without
+ * boxing their operands and intermediate results (see {@link IExpression#doubleValue(IScope)},
+ * {@link IExpression#intValue(IScope)} and {@link IExpression#boolValue(IScope)}). Their semantics is the one of the
+ * corresponding operators in Maths, Comparison and Logic.
+ *
+ * @since 1.9.3
+ */
+enum UnboxedOperator {
+
+	/** The plus. */
+	PLUS,
+	/** The minus. */
+	MINUS,
+	/** The times. */
+	TIMES,
+	/** The divide. */
+	DIVIDE,
+	/** The less. */
+	LESS,
+	/** The greater. */
+	GREATER,
+	/** The less or equal. */
+	LESS_OR_EQUAL,
+	/** The greater or equal. */
+	GREATER_OR_EQUAL,
+	/** The and. */
+	AND,
+	/** The or. */
+	OR,
+	/** The negate. */
+	NEGATE,
+	/** The not. */
+	NOT;
+
+	/**
+	 * Returns the primitive operator corresponding to this binary operator, or null if the operator or its operands
+	 * are not supported.
+	 *
+	 * @param name
+	 *            the name of the operator
+	 * @param left
+	 *            the left operand
+	 * @param right
+	 *            the right operand
+	 * @return the primitive operator or null
+	 */
+	static UnboxedOperator of(final String name, final IExpression left, final IExpression right) {
+		if (left == null || right == null) return null;
+		final UnboxedOperator op = switch (name) {
+			case "+" -> PLUS;
+			case "-" -> MINUS;
+			case "*" -> TIMES;
+			case "/" -> DIVIDE;
+			case "<" -> LESS;
+			case ">" -> GREATER;
+			case "<=" -> LESS_OR_EQUAL;
+			case ">=" -> GREATER_OR_EQUAL;
+			case "and" -> AND;
+			case "or" -> OR;
+			default -> null;
+		};
+		if (op == null) return null;
+		if (op == AND || op == OR) return isOperand(left, Types.BOOL) && isOperand(right, Types.BOOL) ? op : null;
+		return isNumber(left) && isNumber(right) ? op : null;
+	}
+
+	/**
+	 * Whether this operator can return a value of the given type (the type of the operator expression).
+	 *
+	 * @param type
+	 *            the type
+	 * @return true, if successful
+	 */
+	boolean accepts(final IType<?> type) {
+		if (returnsBool()) return type == Types.BOOL;
+		if (this == DIVIDE) return type == Types.FLOAT;
+		return type == Types.INT || type == Types.FLOAT;
+	}
+
+	/**
+	 * Returns the primitive operator corresponding to this unary operator, or null if the operator or its operand are
+	 * not supported.
+	 *
+	 * @param name
+	 *            the name of the operator
+	 * @param child
+	 *            the operand
+	 * @return the primitive operator or null
+	 */
+	static UnboxedOperator of(final String name, final IExpression child) {
+		if (child == null) return null;
+		return switch (name) {
+			case "-" -> isNumber(child) ? NEGATE : null;
+			case "!", "not" -> isOperand(child, Types.BOOL) ? NOT : null;
+			default -> null;
+		};
+	}
+
+	/**
+	 * Whether the expression is an int or float operand.
+	 *
+	 * @param e
+	 *            the expression
+	 * @return true, if it is a number
+	 */
+	private static boolean isNumber(final IExpression e) {
+		return isOperand(e, Types.INT) || isOperand(e, Types.FLOAT);
+	}
+
+	/**
+	 * Whether the expression can be used as an operand of the given type. Only the expressions that cannot return nil
+	 * are accepted: non-nil constants, attributes of this type (whose values are always cast when they are written) and
+	 * other primitive operators. Otherwise the semantics of the operators with nil operands (errors or false) would not
+	 * be preserved. Temporary variables are excluded, as loops can assign them nil elements of containers
+	 *
+	 * @param e
+	 *            the expression
+	 * @param type
+	 *            the type
+	 * @return true, if successful
+	 */
+	private static boolean isOperand(final IExpression e, final IType<?> type) {
+		if (e.getGamlType() != type) return false;
+		if (e.isConst()) return e.getConstValue() != null;
+		return e instanceof AgentVariableExpression || e instanceof GlobalVariableExpression
+				|| e instanceof BinaryOperator b && b.primitive != null
+				|| e instanceof UnaryOperator u && u.primitive != null;
+	}
+
+	/**
+	 * Evaluates a binary operator returning an int.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param left
+	 *            the left
+	 * @param right
+	 *            the right
+	 * @return the int
+	 */
+	int intValue(final IScope scope, final IExpression left, final IExpression right) {
+		final int l = left.intValue(scope), r = right.intValue(scope);
+		return switch (this) {
+			case PLUS -> l + r;
+			case MINUS -> l - r;
+			case TIMES -> l * r;
+			default -> throw new IllegalStateException(name() + " does not return an int");
+		};
+	}
+
+	/**
+	 * Evaluates a binary operator returning a float.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param left
+	 *            the left
+	 * @param right
+	 *            the right
+	 * @return the double
+	 */
+	double doubleValue(final IScope scope, final IExpression left, final IExpression right) {
+		final double l = left.doubleValue(scope), r = right.doubleValue(scope);
+		return switch (this) {
+			case PLUS -> l + r;
+			case MINUS -> l - r;
+			case TIMES -> l * r;
+			case DIVIDE -> {
+				// Same test as Maths.opDivide(), where -0.0 is not considered as zero for floats
+				if (Double.compare(r, 0.0) == 0) throw GamaRuntimeException.error("Division by zero", scope);
+				yield l / r;
+			}
+			default -> throw new IllegalStateException(name() + " does not return a float");
+		};
+	}
+
+	/**
+	 * Evaluates a binary operator returning a bool.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param left
+	 *            the left
+	 * @param right
+	 *            the right
+	 * @return true, if successful
+	 */
+	boolean boolValue(final IScope scope, final IExpression left, final IExpression right) {
+		if (this == AND) return left.boolValue(scope) && right.boolValue(scope);
+		if (this == OR) return left.boolValue(scope) || right.boolValue(scope);
+		final double l = left.doubleValue(scope), r = right.doubleValue(scope);
+		// Comparison compares two floats with a negation, which gives a different result for NaN
+		final boolean floats = left.getGamlType() == Types.FLOAT && right.getGamlType() == Types.FLOAT;
+		return switch (this) {
+			case LESS -> l < r;
+			case GREATER -> l > r;
+			case LESS_OR_EQUAL -> floats ? !(l > r) : l <= r;
+			case GREATER_OR_EQUAL -> floats ? !(l < r) : l >= r;
+			default -> throw new IllegalStateException(name() + " does not return a bool");
+		};
+	}
+
+	/**
+	 * Whether this operator returns a bool.
+	 *
+	 * @return true, if successful
+	 */
+	boolean returnsBool() {
+		return this != PLUS && this != MINUS && this != TIMES && this != DIVIDE && this != NEGATE;
+	}
+
+}
@@ -10,6 +10,10 @@
  ********************************************************************************************************/
 package msi.gaml.expressions.variables;
 
+import java.util.Arrays;
+
+import msi.gama.metamodel.agent.AbstractAgent;
+import msi.gama.metamodel.agent.IAgent;
 import msi.gama.precompiler.GamlProperties;
 import msi.gama.runtime.IScope;
 import msi.gama.runtime.exceptions.GamaRuntimeException;
@@ -20,13 +24,30 @@ import msi.gaml.descriptions.SpeciesDescription;
 import msi.gaml.descriptions.VariableDescription;
 import msi.gaml.expressions.IExpression;
 import msi.gaml.expressions.IVarExpression;
+import msi.gaml.species.ISpecies;
 import msi.gaml.types.IType;
+import msi.gaml.variables.IVariable;
 
 /**
  * The Class AgentVariableExpression.
  */
 public class AgentVariableExpression extends VariableExpression implements IVarExpression.Agent {
 
+	/** The maximal number of species remembered by the inline cache of an expression. */
+	private static final int MAX_CACHED_SPECIES = 4;
+
+	/**
+	 * The inline cache of the variables designated by this expression in the species of the agents it has been
+	 * evaluated on. Several species can share an expression (e.g. when it is defined in a parent species, or used in
+	 * 'of_generic_species' contexts). Immutable, replaced when a new species is encountered. When it is full, it is
+	 * restarted, so that the species of disposed models (whose descriptions can be reused) are not retained forever.
+	 */
+	private record InlineCache(ISpecies[] species, IVariable[] vars) {}
+
+	/** The cache. */
+	private volatile InlineCache cache = new InlineCache(new ISpecies[0], new IVariable[0]);
+
+
 	/**
 	 * Instantiates a new agent variable expression.
 	 *
@@ -52,12 +73,54 @@ public class AgentVariableExpression extends VariableExpression implements IVarE
 
 	@Override
 	public Object _value(final IScope scope) throws GamaRuntimeException {
-		return scope.getAgentVarValue(scope.getAgent(), getName());
+		final IAgent agent = scope.getAgent();
+		final IVariable var = resolve(scope, agent);
+		// The agent being already the current agent of the scope, it does not need to be pushed
+		if (var != null) return var.value(scope, agent);
+		return scope.getAgentVarValue(agent, getName());
 	}
 
 	@Override
 	public void setVal(final IScope scope, final Object v, final boolean create) throws GamaRuntimeException {
-		scope.setAgentVarValue(scope.getAgent(), getName(), v);
+		final IAgent agent = scope.getAgent();
+		final IVariable var = resolve(scope, agent);
+		if (var != null) {
+			var.setVal(scope, agent, v);
+		} else {
+			scope.setAgentVarValue(agent, getName(), v);
+		}
+	}
+
+	/**
+	 * Returns the variable of the species of the agent designated by this expression, using the inline cache, or null
+	 * if the access has to go through the scope (no agent, dead agent, interrupted scope, agents that do not store
+	 * their variables in their species, or variables belonging to the host of the agent).
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param agent
+	 *            the current agent of the scope
+	 * @return the variable or null
+	 */
+	private IVariable resolve(final IScope scope, final IAgent agent) {
+		if (!(agent instanceof AbstractAgent) || agent.dead() || scope.interrupted()) return null;
+		final ISpecies species = agent.getSpecies();
+		final InlineCache c = cache;
+		final ISpecies[] cached = c.species;
+		for (int i = 0; i < cached.length; i++) { if (cached[i] == species) return c.vars[i]; }
+		final IVariable var = species.getVar(getName());
+		if (var != null) {
+			if (cached.length < MAX_CACHED_SPECIES) {
+				final ISpecies[] s = Arrays.copyOf(cached, cached.length + 1);
+				final IVariable[] v = Arrays.copyOf(c.vars, cached.length + 1);
+				s[cached.length] = species;
+				v[cached.length] = var;
+				cache = new InlineCache(s, v);
+			} else {
+				cache = new InlineCache(new ISpecies[] { species }, new IVariable[] { var });
+			}
+		}
+		return var;
 	}
 
 	@Override
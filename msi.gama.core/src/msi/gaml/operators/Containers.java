@@ -36,6 +36,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
 import msi.gama.common.interfaces.IGamlIssue;
+import msi.gama.common.interfaces.IGamlable;
 import msi.gama.common.interfaces.IKeyword;
 import msi.gama.metamodel.agent.IAgent;
 import msi.gama.metamodel.population.IPopulationSet;
@@ -62,11 +63,13 @@ import msi.gama.util.GamaListFactory.GamaListSupplier;
 import msi.gama.util.GamaMapFactory;
 import msi.gama.util.GamaMapFactory.GamaMapSupplier;
 import msi.gama.util.GamaPair;
+import msi.gama.util.GamaPrimitiveList;
 import msi.gama.util.IContainer;
 import msi.gama.util.IList;
 import msi.gama.util.IMap;
 import msi.gama.util.file.json.Jsoner;
 import msi.gama.util.graph.IGraph;
+import msi.gama.util.matrix.GamaSparseMatrix;
 import msi.gama.util.matrix.IMatrix;
 import msi.gaml.compilation.GAML;
 import msi.gaml.compilation.IOperatorValidator;
@@ -74,6 +77,7 @@ import msi.gaml.compilation.annotations.validator;
 import msi.gaml.descriptions.IDescription;
 import msi.gaml.expressions.IExpression;
 import msi.gaml.expressions.operators.BinaryOperator;
+import msi.gaml.expressions.variables.EachExpression;
 import msi.gaml.species.ISpecies;
 import msi.gaml.types.GamaType;
 import msi.gaml.types.IType;
@@ -1926,6 +1930,8 @@ public class Containers {
 	@test ("sum([{1.0,3.0},{3.0,5.0},{9.0,1.0},{7.0,8.0}]) = {20.0,17.0}")
 	@test ("sum ([12,10,3]) = 25")
 	public static Object sum(final IScope scope, final IContainer l) {
+		if (l instanceof GamaPrimitiveList p && p.isUnboxed()) return p.sum();
+		if (l instanceof GamaSparseMatrix m) return m.sum();
 		return sum_of(scope, l, null);
 	}
 
@@ -2021,14 +2027,31 @@ public class Containers {
 		} else {
 			t = container.getGamlType().getContentType();
 		}
-		s = s.map(each -> t.cast(scope, each, null, false));
+		return sum(scope, s, t, container);
+	}
+
+	/**
+	 * Sums the values of a stream, after casting them to the type passed.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param s
+	 *            the stream of values
+	 * @param t
+	 *            the type of the values (int, float, point, color or string)
+	 * @param source
+	 *            the container or expression the values come from (used in error messages)
+	 * @return the sum
+	 */
+	public static Object sum(final IScope scope, final Stream s, final IType t, final IGamlable source) {
+		final Stream casted = s.map(each -> t.cast(scope, each, null, false));
 		return switch (t.id()) {
-			case IType.INT -> ((Stream<Integer>) s).reduce(0, Integer::sum);
-			case IType.FLOAT -> ((Stream<Double>) s).reduce(0d, Double::sum);
-			case IType.POINT -> ((Stream<GamaPoint>) s).reduce(new GamaPoint(), GamaPoint::plus);
-			case IType.COLOR -> ((Stream<GamaColor>) s).reduce(GamaColor.get(0, 0, 0, 0), GamaColor::merge);
-			case IType.STRING -> ((Stream<String>) s).reduce("", String::concat);
-			default -> GamaRuntimeException.error("No sum can be computed for " + container.serialize(true), scope);
+			case IType.INT -> ((Stream<Integer>) casted).reduce(0, Integer::sum);
+			case IType.FLOAT -> ((Stream<Double>) casted).reduce(0d, Double::sum);
+			case IType.POINT -> ((Stream<GamaPoint>) casted).reduce(new GamaPoint(), GamaPoint::plus);
+			case IType.COLOR -> ((Stream<GamaColor>) casted).reduce(GamaColor.get(0, 0, 0, 0), GamaColor::merge);
+			case IType.STRING -> ((Stream<String>) casted).reduce("", String::concat);
+			default -> GamaRuntimeException.error("No sum can be computed for " + source.serialize(true), scope);
 		};
 	}
 
@@ -2157,6 +2180,11 @@ public class Containers {
 	@test ("[1,2,4,3,5,7,6,8] sort_by (each) = [1,2,3,4,5,6,7,8]")
 	@validator (ComparableValidator.class)
 	public static IList sort(final IScope scope, final IContainer c, final IExpression filter) {
+		if (filter instanceof EachExpression && c instanceof GamaPrimitiveList p && p.isUnboxed()) {
+			final IList result = p.copy(scope);
+			result.sort(null);
+			return result;
+		}
 		return (IList) stream(scope, c).sortedBy(with(scope, filter)).toCollection(listLike(c));
 	}
 
@@ -1050,6 +1050,220 @@ public class Random {
 		return result;
 	}
 
+	/**
+	 * Checks that the number of values to draw is positive.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param nb
+	 *            the nb
+	 */
+	private static void checkSize(final IScope scope, final int nb) {
+		if (nb < 0) throw GamaRuntimeException.error("The number of values to draw should be positive.", scope);
+	}
+
+	/**
+	 * Op rnd list.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param nb
+	 *            the nb
+	 * @param min
+	 *            the min
+	 * @param max
+	 *            the max
+	 * @return the i list
+	 */
+	@operator (
+			value = "rnd_list",
+			content_type = IType.FLOAT,
+			category = { IOperatorCategory.RANDOM },
+			concept = { IConcept.RANDOM })
+	@doc (
+			value = "a list of n (first operand) random floats in the interval [second operand, third operand]. Much faster than drawing them one by one with rnd, as all the values are drawn in one call",
+			examples = { @example (
+					value = "rnd_list(1000, 2.0, 4.0)",
+					equals = "a list of 1000 float numbers between 2.0 and 4.0",
+					test = false) },
+			see = { "rnd", "gauss_list", "poisson_list", "rnd_field", "gauss_field" })
+	@test ("seed <- 1.0; length(rnd_list(100, 2.0, 4.0)) = 100")
+	public static IList<Double> opRndList(final IScope scope, final Integer nb, final Double min, final Double max) {
+		checkSize(scope, nb);
+		final double[] values = new double[nb];
+		RANDOM(scope).fillBetween(values, min, max);
+		return GamaListFactory.createWithoutCasting(Types.FLOAT, values);
+	}
+
+	/**
+	 * Op rnd list.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param nb
+	 *            the nb
+	 * @param min
+	 *            the min
+	 * @param max
+	 *            the max
+	 * @return the i list
+	 */
+	@operator (
+			value = "rnd_list",
+			content_type = IType.INT,
+			category = { IOperatorCategory.RANDOM },
+			concept = { IConcept.RANDOM })
+	@doc (
+			value = "a list of n (first operand) random ints in the interval [second operand, third operand]. Much faster than drawing them one by one with rnd, as all the values are drawn in one call",
+			examples = { @example (
+					value = "rnd_list(1000, 2, 4)",
+					equals = "a list of 1000 integers between 2 and 4",
+					test = false) },
+			see = { "rnd", "gauss_list", "poisson_list", "rnd_field", "gauss_field" })
+	@test ("seed <- 1.0; rnd_list(100, -3, 3) all_match (each >= -3 and each <= 3)")
+	public static IList<Integer> opRndList(final IScope scope, final Integer nb, final Integer min,
+			final Integer max) {
+		checkSize(scope, nb);
+		final int[] values = new int[nb];
+		RANDOM(scope).fillBetween(values, min, max);
+		return GamaListFactory.createWithoutCasting(Types.INT, values);
+	}
+
+	/**
+	 * Op gauss list.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param nb
+	 *            the nb
+	 * @param mean
+	 *            the mean
+	 * @param sd
+	 *            the sd
+	 * @return the i list
+	 */
+	@operator (
+			value = "gauss_list",
+			content_type = IType.FLOAT,
+			category = { IOperatorCategory.RANDOM },
+			concept = { IConcept.RANDOM })
+	@doc (
+			value = "a list of n (first operand) values drawn from a normally distributed random variable with expected value (mean as second operand) and standardDeviation (third operand). Much faster than drawing them one by one with gauss, as all the values are drawn in one call",
+			examples = { @example (
+					value = "gauss_list(1000, 0, 0.3)",
+					equals = "a list of 1000 float numbers",
+					test = false) },
+			see = { "gauss", "rnd_list", "poisson_list", "rnd_field", "gauss_field" })
+	@test ("seed <- 1.0; length(gauss_list(100, 0.0, 0.3)) = 100")
+	public static IList<Double> opGaussList(final IScope scope, final Integer nb, final double mean,
+			final double sd) {
+		checkSize(scope, nb);
+		final double[] values = new double[nb];
+		RANDOM(scope).fillGaussian(values, mean, sd);
+		return GamaListFactory.createWithoutCasting(Types.FLOAT, values);
+	}
+
+	/**
+	 * Op poisson list.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param nb
+	 *            the nb
+	 * @param mean
+	 *            the mean
+	 * @return the i list
+	 */
+	@operator (
+			value = "poisson_list",
+			content_type = IType.INT,
+			category = { IOperatorCategory.RANDOM },
+			concept = { IConcept.RANDOM })
+	@doc (
+			value = "a list of n (first operand) values drawn from a random variable following a Poisson distribution (with the positive expected number of occurence lambda as second operand). Much faster than drawing them one by one with poisson, as all the values are drawn in one call",
+			examples = { @example (
+					value = "poisson_list(1000, 3.5)",
+					equals = "a list of 1000 random positive integers",
+					test = false) },
+			see = { "poisson", "rnd_list", "gauss_list", "rnd_field", "gauss_field" })
+	@test ("seed <- 1.0; poisson_list(100, 3.5) all_match (each >= 0)")
+	public static IList<Integer> opPoissonList(final IScope scope, final Integer nb, final Double mean) {
+		checkSize(scope, nb);
+		final int[] values = new int[nb];
+		RANDOM(scope).fillPoisson(values, mean);
+		return GamaListFactory.createWithoutCasting(Types.INT, values);
+	}
+
+	/**
+	 * Op rnd field.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param cols
+	 *            the cols
+	 * @param rows
+	 *            the rows
+	 * @param min
+	 *            the min
+	 * @param max
+	 *            the max
+	 * @return the i field
+	 */
+	@operator (
+			value = "rnd_field",
+			category = { IOperatorCategory.RANDOM },
+			concept = { IConcept.RANDOM })
+	@doc (
+			value = "a field of the given number of columns (first operand) and rows (second operand) whose cells contain random floats in the interval [third operand, fourth operand]",
+			examples = { @example (
+					value = "rnd_field(100, 100, 0.0, 1.0)",
+					equals = "a field of 100x100 float numbers between 0.0 and 1.0",
+					test = false) },
+			see = { "rnd", "rnd_list", "gauss_list", "poisson_list", "gauss_field" })
+	@test ("seed <- 1.0; length(rnd_field(20, 10, 0.0, 1.0)) = 200")
+	public static IField opRndField(final IScope scope, final Integer cols, final Integer rows, final Double min,
+			final Double max) {
+		checkSize(scope, Math.min(cols, rows));
+		final IField result = GamaFieldType.buildField(scope, cols, rows, 0d);
+		RANDOM(scope).fillBetween(result.getMatrix(), min, max);
+		return result;
+	}
+
+	/**
+	 * Op gauss field.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param cols
+	 *            the cols
+	 * @param rows
+	 *            the rows
+	 * @param mean
+	 *            the mean
+	 * @param sd
+	 *            the sd
+	 * @return the i field
+	 */
+	@operator (
+			value = "gauss_field",
+			category = { IOperatorCategory.RANDOM },
+			concept = { IConcept.RANDOM })
+	@doc (
+			value = "a field of the given number of columns (first operand) and rows (second operand) whose cells contain values drawn from a normally distributed random variable with expected value (mean as third operand) and standardDeviation (fourth operand)",
+			examples = { @example (
+					value = "gauss_field(100, 100, 0.0, 0.3)",
+					equals = "a field of 100x100 float numbers",
+					test = false) },
+			see = { "gauss", "rnd_list", "gauss_list", "poisson_list", "rnd_field" })
+	@test ("seed <- 1.0; length(gauss_field(20, 10, 0.0, 0.3)) = 200")
+	public static IField opGaussField(final IScope scope, final Integer cols, final Integer rows, final double mean,
+			final double sd) {
+		checkSize(scope, Math.min(cols, rows));
+		final IField result = GamaFieldType.buildField(scope, cols, rows, 0d);
+		RANDOM(scope).fillGaussian(result.getMatrix(), mean, sd);
+		return result;
+	}
+
 	/** The supply. */
 	// this contains all the numbers between 0 and 255, these are put in a random order depending upon the seed
 	private final static short SUPPLY[] = IntStreamEx.rangeClosed(0, 255).toShortArray();
@@ -274,8 +274,7 @@ public class MovingSkill extends Skill {
 		if (agent == null) return;
 		final ITopology topology = getTopology(agent);
 		final GamaPoint oldLocation = agent.getLocation();
-		Coordinate oldCoords = new Coordinate(oldLocation.getX(), oldLocation.getY(), oldLocation.getZ());
-		if (!topology.isTorus() && p != null && !p.equalsWithTolerance(oldCoords, 0.01)) {
+		if (!topology.isTorus() && p != null && !p.equalsWithTolerance(oldLocation, 0.01)) {
 			final Double newHeading = topology.directionInDegreesTo(agent.getScope(), oldLocation, p);
 			if (newHeading != null) { setHeading(agent, newHeading); }
 		}
@@ -1159,7 +1158,8 @@ public class MovingSkill extends Skill {
 	 */
 	public void moveToNextLocAlongPathSimplified(final IScope scope, final IAgent agent, final GamaSpatialGraph graph,
 			final double d, final IMap probaEdge) {
-		GamaPoint currentLocation = agent.getLocation().copy(scope);
+		// The location is moved in place along the edges: no point is allocated for the vertices passed
+		final GamaPoint currentLocation = agent.getLocation().copy(scope);
 		final IList indexVals = initMoveAlongPath(scope, agent, graph, currentLocation);
 		if (indexVals == null) return;
 		int index = (Integer) indexVals.get(0);
@@ -1180,7 +1180,7 @@ public class MovingSkill extends Skill {
 
 			final double weight = graph.getEdgeWeight(edge) / edge.getGeometry().getPerimeter();
 			for (int j = indexSegment; j < coords.length; j++) {
-				final GamaPoint pt = new GamaPoint(coords[j]);
+				final GamaPoint pt = coords[j] instanceof GamaPoint gp ? gp : new GamaPoint(coords[j]);
 				final double dis = pt.distance3D(currentLocation);
 				final double dist = weight * dis;
 				computedHeading = Spatial.Relations.towards(scope, currentLocation, pt);
@@ -1196,7 +1196,7 @@ public class MovingSkill extends Skill {
 					break;
 				}
 				if (distance <= dist) {
-					currentLocation = pt;
+					currentLocation.setLocation(pt);
 					travelledDist += dis;
 					distance = 0;
 					if (indexSegment < coords.length - 1) {
@@ -1206,7 +1206,7 @@ public class MovingSkill extends Skill {
 					}
 					break;
 				}
-				currentLocation = pt;
+				currentLocation.setLocation(pt);
 				travelledDist += dis;
 
 				distance = distance - dist;
@@ -1283,7 +1283,9 @@ public class MovingSkill extends Skill {
 		int index = (Integer) indexVals.get(0);
 		int indexSegment = (Integer) indexVals.get(1);
 		final int endIndexSegment = (Integer) indexVals.get(2);
-		currentLocation = (GamaPoint) indexVals.get(3);
+		// The location is moved in place along the edges (the point returned may be a vertex of the path, hence the
+		// copy): no point is allocated for the vertices passed
+		currentLocation.setLocation((GamaPoint) indexVals.get(3));
 		final GamaPoint falseTarget = (GamaPoint) indexVals.get(4);
 		final IList<IShape> edges = path.getEdgeGeometry();
 		double computedHeading = 0.0;
@@ -1305,12 +1307,7 @@ public class MovingSkill extends Skill {
 				weight = w == null ? computeWeigth(graph, path, line) : w;
 			}
 			for (int j = indexSegment; j < coords.length; j++) {
-				GamaPoint pt = null;
-				if (i == nb - 1 && j == endIndexSegment) {
-					pt = falseTarget;
-				} else {
-					pt = new GamaPoint(coords[j]);
-				}
+				final GamaPoint pt = i == nb - 1 && j == endIndexSegment ? falseTarget : coords[j];
 				final double dis = pt.distance3D(currentLocation);
 				final double dist = weight * dis;
 				computedHeading = Spatial.Relations.towards(scope, currentLocation, pt);
@@ -1326,7 +1323,7 @@ public class MovingSkill extends Skill {
 					break;
 				}
 				if (distance <= dist) {
-					currentLocation = pt;
+					currentLocation.setLocation(pt);
 					distance = 0;
 					travelledDist += dis;
 					if (indexSegment < coords.length - 1) {
@@ -1337,7 +1334,7 @@ public class MovingSkill extends Skill {
 					}
 					break;
 				}
-				currentLocation = pt;
+				currentLocation.setLocation(pt);
 				travelledDist += dis;
 				distance = distance - dist;
 				if (i == nb - 1 && j == endIndexSegment) { break; }
@@ -1399,7 +1396,7 @@ public class MovingSkill extends Skill {
 			final IMap weigths) {
 		final GamaPoint startLocation = agent.getLocation().copy(scope);
 
-		GamaPoint currentLocation = agent.getLocation().copy(scope);
+		final GamaPoint currentLocation = agent.getLocation().copy(scope);
 		final IList indexVals = ((GamaSpatialPath) path).isThreeD() ? initMoveAlongPath3D(agent, path, currentLocation)
 				: initMoveAlongPath(agent, path, currentLocation);
 		if (indexVals == null) return null;
@@ -1409,7 +1406,9 @@ public class MovingSkill extends Skill {
 		int index = (Integer) indexVals.get(0);
 		int indexSegment = (Integer) indexVals.get(1);
 		final int endIndexSegment = (Integer) indexVals.get(2);
-		currentLocation = (GamaPoint) indexVals.get(3);
+		// The location is moved in place along the edges, as the lines of the path followed copy their points: no
+		// point is allocated for the vertices passed
+		currentLocation.setLocation((GamaPoint) indexVals.get(3));
 		final GamaPoint falseTarget = (GamaPoint) indexVals.get(4);
 		final IList<IShape> edges = path.getEdgeGeometry();
 		final int nb = edges.size();
@@ -1431,12 +1430,8 @@ public class MovingSkill extends Skill {
 			}
 
 			for (int j = indexSegment; j < coords.length; j++) {
-				GamaPoint pt = null;
-				if (i == nb - 1 && j == endIndexSegment) {
-					pt = falseTarget;
-				} else {
-					pt = new GamaPoint(coords[j]);
-				}
+				final GamaPoint pt = i == nb - 1 && j == endIndexSegment ? falseTarget
+						: coords[j] instanceof GamaPoint gp ? gp : new GamaPoint(coords[j]);
 				final double dis = pt.distance3D(currentLocation);
 				final double dist = weight * dis;
 				computedHeading = Spatial.Relations.towards(scope, currentLocation, pt);
@@ -1473,7 +1468,7 @@ public class MovingSkill extends Skill {
 					}
 
 					segments.add(gl);
-					currentLocation = pt;
+					currentLocation.setLocation(pt);
 					distance = 0;
 					if (indexSegment < coords.length - 1) {
 						indexSegment++;
@@ -1492,7 +1487,7 @@ public class MovingSkill extends Skill {
 				}
 				segments.add(gl);
 
-				currentLocation = pt;
+				currentLocation.setLocation(pt);
 				distance = distance - dist;
 				if (i == nb - 1 && j == endIndexSegment) { break; }
 				indexSegment++;
@@ -1503,7 +1498,7 @@ public class MovingSkill extends Skill {
 		}
 		if (currentLocation.equals(falseTarget)) {
 
-			currentLocation = Cast.asPoint(scope, path.getEndVertex());
+			currentLocation.setLocation(Cast.asPoint(scope, path.getEndVertex()));
 			index++;
 		}
 		path.setIndexSegementOf(agent, indexSegment);
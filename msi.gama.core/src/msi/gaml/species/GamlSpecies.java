@@ -167,6 +167,11 @@ import one.util.streamex.StreamEx;
 						of = IType.AGENT,
 						optional = true,
 						doc = @doc ("The species this species is mirroring. The population of this current species will be dependent of that of the species mirrored (i.e. agents creation and death are entirely taken in charge by GAMA with respect to the demographics of the species mirrored). In addition, this species is provided with an attribute called 'target', which allows each agent to know which agent of the mirrored species it is representing.")),
+				@facet (
+						name = IKeyword.RECYCLE,
+						type = IType.BOOL,
+						optional = true,
+						doc = @doc ("(experimental) setting this facet to 'true' will allow the population of this species to reuse the internal storage of the attributes of its dead agents when creating new ones, which lowers the pressure on the memory in models where agents are frequently created and killed. Agents themselves are never reused. The number of storages created and reused is reported by the 'benchmark' statement. The default is false")),
 				@facet (
 						name = IKeyword.CONTROL,
 						type = IType.SKILL,
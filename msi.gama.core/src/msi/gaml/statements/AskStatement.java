@@ -52,7 +52,7 @@ import msi.gaml.types.Types;
 				name = IKeyword.PARALLEL,
 				type = { IType.BOOL, IType.INT },
 				optional = true,
-				doc = @doc ("(experimental) setting this facet to 'true' will allow 'ask' to use concurrency when traversing the targets; setting it to an integer will set the threshold under which they will be run sequentially (the default is initially 20, but can be fixed in the preferences). This facet is false by default.")),
+				doc = @doc ("(experimental) setting this facet to 'true' will allow 'ask' to use concurrency when traversing the targets; setting it to an integer will set the threshold under which they will be run sequentially (the default is initially 20, but can be fixed in the preferences). This facet is false by default. When it is set, whatever its value, the targets draw their random numbers from their own streams if the 'philox' generator is used, which makes them independent of the number of threads.")),
 				@facet (
 						name = IKeyword.TARGET,
 						type = { IType.CONTAINER, IType.AGENT },
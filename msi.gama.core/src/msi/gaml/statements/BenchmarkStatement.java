@@ -10,7 +10,10 @@
  ********************************************************************************************************/
 package msi.gaml.statements;
 
+import java.util.Map;
+
 import msi.gama.common.interfaces.IKeyword;
+import msi.gama.metamodel.population.GamaPopulation;
 import msi.gama.precompiler.GamlAnnotations.doc;
 import msi.gama.precompiler.GamlAnnotations.facet;
 import msi.gama.precompiler.GamlAnnotations.facets;
@@ -22,6 +25,7 @@ import msi.gama.runtime.IScope;
 import msi.gama.runtime.exceptions.GamaRuntimeException;
 import msi.gaml.descriptions.IDescription;
 import msi.gaml.expressions.IExpression;
+import msi.gaml.expressions.operators.DispatchingOperator;
 import msi.gaml.operators.Cast;
 import msi.gaml.types.IType;
 
@@ -75,6 +79,8 @@ public class BenchmarkStatement extends AbstractStatementSequence {
 		double max = Long.MIN_VALUE;
 		int timeOfMax = 0;
 		double total = 0;
+		final Map<DispatchingOperator, Long> dispatches = DispatchingOperator.getMegamorphicSites();
+		final Map<Object, long[]> pools = GamaPopulation.getAttributesPools();
 
 		for (int i = 0; i < repeatTimes; i++) {
 			final long begin = System.nanoTime();
@@ -94,7 +100,8 @@ public class BenchmarkStatement extends AbstractStatementSequence {
 		final String title = message == null ? "Execution time " : Cast.asString(scope, message.value(scope));
 		final String result = title + " (over " + repeatTimes + " iteration(s)): min = " + min + " ms (iteration #"
 				+ timeOfMin + ") | max = " + max + " ms (iteration #" + timeOfMax + ") | average = "
-				+ total / repeatTimes + "ms";
+				+ total / repeatTimes + "ms" + DispatchingOperator.describeMegamorphicSites(dispatches)
+				+ GamaPopulation.describeAttributesPools(pools);
 		scope.getGui().getConsole().informConsole(result, scope.getRoot(), null);
 		return result;
 	}
@@ -703,7 +703,7 @@ public class LoopStatement extends AbstractStatementSequence implements Breakabl
 		public Object runIn(final IScope scope) throws GamaRuntimeException {
 			final Object[] result = new Object[1];
 			boolean shouldBreak = false;
-			while (Boolean.TRUE.equals(Cast.asBool(scope, cond.value(scope))) && !shouldBreak) {
+			while (cond.boolValue(scope) && !shouldBreak) {
 				switch (loopBody(scope, null, result)) {
 					case CONTINUE:
 						continue;
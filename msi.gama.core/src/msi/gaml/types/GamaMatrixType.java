@@ -14,6 +14,7 @@ import java.util.Arrays;
 import java.util.stream.IntStream;
 
 import msi.gama.common.interfaces.IKeyword;
+import msi.gama.common.preferences.GamaPreferences;
 import msi.gama.metamodel.shape.GamaPoint;
 import msi.gama.precompiler.GamlAnnotations.doc;
 import msi.gama.precompiler.GamlAnnotations.type;
@@ -27,6 +28,7 @@ import msi.gama.util.IList;
 import msi.gama.util.matrix.GamaFloatMatrix;
 import msi.gama.util.matrix.GamaIntMatrix;
 import msi.gama.util.matrix.GamaObjectMatrix;
+import msi.gama.util.matrix.GamaSparseMatrix;
 import msi.gama.util.matrix.IField;
 import msi.gama.util.matrix.IMatrix;
 import msi.gaml.expressions.IExpression;
@@ -184,6 +186,9 @@ public class GamaMatrixType extends GamaContainerType<IMatrix> {
 			final boolean parallel) {
 		IMatrix result;
 		if (fillExpr == null) return new GamaObjectMatrix(cols, rows, Types.NO_TYPE);
+		// Large numeric matrices filled with 0 only store their non-null elements
+		if (fillExpr.isConst() && isSparse(scope, fillExpr.value(scope), cols, rows, fillExpr.getGamlType()))
+			return new GamaSparseMatrix<>(cols, rows, fillExpr.getGamlType());
 		switch (fillExpr.getGamlType().id()) {
 			case IType.FLOAT:
 				result = new GamaFloatMatrix(cols, rows);
@@ -248,6 +253,32 @@ public class GamaMatrixType extends GamaContainerType<IMatrix> {
 		return withObject(scope, val, (int) p.x, (int) p.y, contentsType);
 	}
 
+	/**
+	 * Whether a matrix filled with this value should be created sparse: if sparse matrices are enabled in the
+	 * preferences, and if it is large and filled with a null int or float.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param val
+	 *            the val
+	 * @param cols
+	 *            the cols
+	 * @param rows
+	 *            the rows
+	 * @param contentsType
+	 *            the contents type
+	 * @return true, if is sparse
+	 */
+	private static boolean isSparse(final IScope scope, final Object val, final int cols, final int rows,
+			final IType contentsType) {
+		if (!GamaPreferences.Experimental.SPARSE_MATRICES.getValue()
+				|| (long) cols * rows < GamaSparseMatrix.SPARSE_THRESHOLD)
+			return false;
+		final int id = contentsType.id();
+		if (id == IType.INT || id == IType.FLOAT) return Cast.asFloat(scope, val) == 0d;
+		return (val instanceof Integer || val instanceof Double) && ((Number) val).doubleValue() == 0d;
+	}
+
 	/**
 	 * With object.
 	 *
@@ -267,6 +298,9 @@ public class GamaMatrixType extends GamaContainerType<IMatrix> {
 	 */
 	public static IMatrix withObject(final IScope scope, final Object val, final int cols, final int rows,
 			final IType contentsType) throws GamaRuntimeException {
+		if (isSparse(scope, val, cols, rows, contentsType))
+			return new GamaSparseMatrix<>(cols, rows,
+					contentsType == Types.INT || val instanceof Integer ? Types.INT : Types.FLOAT);
 		if (contentsType == Types.INT || val instanceof Integer) {
 			final GamaIntMatrix matrix = new GamaIntMatrix(cols, rows);
 			matrix.setAllValues(scope, Types.INT.cast(scope, val, null, false));
@@ -211,6 +211,12 @@ public class NumberVariable<T extends Comparable, Step extends Comparable> exten
 		}
 	}
 
+	@Override
+	public boolean isInitializationIndependent(final boolean valueProvided) {
+		return (min == null || min.isConst()) && (max == null || max.isConst())
+				&& super.isInitializationIndependent(valueProvided);
+	}
+
 	@Override
 	public Object coerce(final IAgent agent, final IScope scope, final Object v) throws GamaRuntimeException {
 		final Object val = super.coerce(agent, scope, v);
@@ -17,6 +17,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import com.google.common.base.Objects;
 
@@ -38,6 +39,7 @@ import msi.gama.runtime.IScope;
 import msi.gama.runtime.benchmark.StopWatch;
 import msi.gama.runtime.exceptions.GamaRuntimeException;
 import msi.gama.util.GamaColor;
+import msi.gaml.architecture.reflex.ReflexGuard;
 import msi.gaml.compilation.GAML;
 import msi.gaml.compilation.GamaHelper;
 import msi.gaml.compilation.IDescriptionValidator;
@@ -49,11 +51,15 @@ import msi.gaml.descriptions.ConstantExpressionDescription;
 import msi.gaml.descriptions.ExperimentDescription;
 import msi.gaml.descriptions.IDescription;
 import msi.gaml.descriptions.IExpressionDescription;
+import msi.gaml.descriptions.OperatorProto;
 import msi.gaml.descriptions.SpeciesDescription;
 import msi.gaml.descriptions.VariableDescription;
 import msi.gaml.expressions.IExpression;
 import msi.gaml.expressions.data.ListExpression;
+import msi.gaml.expressions.data.MapExpression;
+import msi.gaml.expressions.operators.IOperator;
 import msi.gaml.expressions.units.TimeUnitConstantExpression;
+import msi.gaml.expressions.variables.AgentVariableExpression;
 import msi.gaml.operators.Cast;
 import msi.gaml.species.AbstractSpecies;
 import msi.gaml.statements.IExecutable;
@@ -520,6 +526,9 @@ public class Variable extends Symbol implements IVariable {
 
 	/** The must notify of changes. */
 	protected boolean mustNotifyOfChanges;
+
+	/** Whether the writes of this variable must be reported to the population (see {@link ReflexGuard}). */
+	private volatile boolean indexed;
 	// private Object speciesWideValue;
 
 	/**
@@ -665,6 +674,51 @@ public class Variable extends Symbol implements IVariable {
 	@Override
 	public boolean isFunction() { return functionExpression != null; }
 
+	/**
+	 * Marks this variable as observed by the index of a reflex guard: its writes will then be reported to the
+	 * population of the agents.
+	 */
+	public void setIndexed() { indexed = true; }
+
+	/**
+	 * Whether the initialization of this variable in an agent is independent from the other agents and variables, and
+	 * can then be run concurrently for several agents: the variable must be defined in GAML, not be computed or
+	 * written by Java code, and its initial value must either be provided (e.g. read from a file) or be constant.
+	 *
+	 * @param valueProvided
+	 *            whether the initial value is provided by the caller
+	 * @return true if the variable can be initialized concurrently
+	 */
+	public boolean isInitializationIndependent(final boolean valueProvided) {
+		if (getter != null || setter != null || initer != null || isFunction() || getDescription().isBuiltIn())
+			return false;
+		if (amongExpression != null && !amongExpression.isConst()) return false;
+		return valueProvided || initExpression == null || initExpression.isConst();
+	}
+
+	/**
+	 * Whether the update of this variable in an agent is independent from the other agents, and can then be run
+	 * concurrently for several agents: in addition to the conditions of {@link #isInitializationIndependent(boolean)},
+	 * the update must not trigger any listener, and its 'update:' expression must only combine constants and the
+	 * attributes of the agent accepted by the predicate using operators that are pure functions of their operands.
+	 *
+	 * @param readable
+	 *            whether an attribute of the agent can be read by the expression
+	 * @return true if the variable can be updated concurrently
+	 */
+	public boolean isUpdateIndependent(final Predicate<String> readable) {
+		if (!isUpdatable() || mustNotifyOfChanges || !isInitializationIndependent(true)) return false;
+		return !updateExpression.findAny(e -> {
+			if (e.isConst() || e instanceof ListExpression || e instanceof MapExpression) return false;
+			if (e instanceof AgentVariableExpression) return !readable.test(e.getName());
+			if (e instanceof IOperator op) {
+				final OperatorProto proto = op.getPrototype();
+				return proto == null || !proto.canBeConst || proto.iterator || proto.isVarOrField;
+			}
+			return true;
+		});
+	}
+
 	@Override
 	public IType getType() { return type; }
 
@@ -802,6 +856,7 @@ public class Variable extends Symbol implements IVariable {
 			setter.run(scope, agent, sSkill == null ? agent : sSkill, val);
 		} else {
 			agent.setAttribute(name, val);
+			if (indexed) { agent.getPopulation().attributeChanged(agent, name, val); }
 		}
 		// if (isSpeciesConst) {
 		// speciesWideValue = val;
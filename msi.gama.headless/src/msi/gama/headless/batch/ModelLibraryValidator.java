@@ -15,6 +15,8 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 
 import org.eclipse.core.runtime.FileLocator;
 import org.osgi.framework.Bundle;
@@ -24,6 +26,7 @@ import com.google.inject.Injector;
 
 import msi.gama.headless.runtime.HeadlessApplication;
 import msi.gama.lang.gaml.validation.GamlModelBuilder;
+import msi.gama.runtime.concurrent.GamaExecutorService;
 import msi.gaml.compilation.GamlCompilationError;
 import msi.gaml.compilation.kernel.GamaBundleLoader;
 import ummisco.gama.dev.utils.DEBUG;
@@ -99,8 +102,20 @@ public class ModelLibraryValidator extends AbstractModelLibraryRunner {
 				}
 			}
 		}
-		builder.loadURLs(allURLs);
-		allURLs.forEach(u -> validate(builder, count, code, u));
+		// The models are not loaded beforehand (builder.loadURLs()): they would be loaded in the resource set of this
+		// thread, whereas they are compiled by the workers, each one using its own resource set in the builder
+		final int threads = GamaExecutorService.THREADS_NUMBER.getValue();
+		final long start = System.currentTimeMillis();
+		final ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			pool.submit(() -> allURLs.parallelStream().forEach(u -> validate(builder, count, code, u))).get();
+		} catch (InterruptedException | ExecutionException e) {
+			throw new IOException(e);
+		} finally {
+			pool.shutdown();
+		}
+		DEBUG.OUT(allURLs.size() + " models compiled in " + (System.currentTimeMillis() - start) + "ms using "
+				+ threads + " threads");
 	}
 
 	/**
@@ -120,12 +135,15 @@ public class ModelLibraryValidator extends AbstractModelLibraryRunner {
 		final List<GamlCompilationError> errors = new ArrayList<>();
 		// log("Compiling " + pathToModel.getFile());
 		builder.compile(pathToModel, errors);
-		countOfModelsValidated[0]++;
-		errors.stream().filter(GamlCompilationError::isError).forEach(e -> {
-			// log("Error in " + e.getURI().lastSegment() + ": " + e);
-			DEBUG.OUT("Error in " + e.getURI() + ":\n " + e.toString() + " \n " + e.getStatement().toString() + "\n");
-			returnCode[0]++;
-		});
+		synchronized (countOfModelsValidated) {
+			countOfModelsValidated[0]++;
+			errors.stream().filter(GamlCompilationError::isError).forEach(e -> {
+				// log("Error in " + e.getURI().lastSegment() + ": " + e);
+				DEBUG.OUT(
+						"Error in " + e.getURI() + ":\n " + e.toString() + " \n " + e.getStatement().toString() + "\n");
+				returnCode[0]++;
+			});
+		}
 	}
 
 	/**
@@ -52,7 +52,7 @@ public class SubModel {
 	 */
 	@operator (
 			value = IKeywords.STEPSUBMODEL,
-			can_be_const = true,
+			can_be_const = false,
 			category = IOperatorCategory.FILE,
 			concept = { IConcept.HEADLESS })
 	@doc (
@@ -77,7 +77,7 @@ public class SubModel {
 	 */
 	@operator (
 			value = IKeywords.EVALUATESUBMODEL,
-			can_be_const = true,
+			can_be_const = false,
 			category = IOperatorCategory.FILE,
 			concept = { IConcept.HEADLESS })
 	@doc (
@@ -39,6 +39,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
@@ -143,7 +144,7 @@ public class GamlExpressionCompiler extends GamlSwitch<IExpression> implements I
 	private ITypesManager currentTypesManager;
 
 	/** The Constant constantSyntheticExpressions. */
-	private final static Map<String, IExpression> constantSyntheticExpressions = GamaMapFactory.createUnordered();
+	private final static Map<String, IExpression> constantSyntheticExpressions = new ConcurrentHashMap<>();
 
 	/** The Constant builder. */
 	private static final ExpressionDescriptionBuilder builder = new ExpressionDescriptionBuilder();
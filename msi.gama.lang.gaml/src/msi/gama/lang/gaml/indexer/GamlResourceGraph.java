@@ -59,7 +59,7 @@ public class GamlResourceGraph {
 	/**
 	 * Reset.
 	 */
-	void reset() {
+	synchronized void reset() {
 		imports = new Imports();
 	}
 
@@ -96,7 +96,7 @@ public class GamlResourceGraph {
 	 *            the uri
 	 * @return true, if successful
 	 */
-	public boolean containsVertex(final URI uri) {
+	public synchronized boolean containsVertex(final URI uri) {
 		return imports.containsVertex(uri);
 	}
 
@@ -107,7 +107,7 @@ public class GamlResourceGraph {
 	 *            the new URI
 	 * @return the sets the
 	 */
-	public Set<URI> predecessorsOf(final URI uri) {
+	public synchronized Set<URI> predecessorsOf(final URI uri) {
 		if (!imports.containsVertex(uri)) return Collections.EMPTY_SET;
 		Set<URI> successors = null;
 		Iterable<LabeledEdge> incoming = imports.iterables().incomingEdgesOf(uri);
@@ -124,7 +124,7 @@ public class GamlResourceGraph {
 	 *            the new URI
 	 * @return the sets the
 	 */
-	public Set<URI> successorsOf(final URI uri) {
+	public synchronized Set<URI> successorsOf(final URI uri) {
 		if (!imports.containsVertex(uri)) return Collections.EMPTY_SET;
 		Set<URI> successors = null;
 		Iterable<LabeledEdge> outgoing = imports.iterables().outgoingEdgesOf(uri);
@@ -144,7 +144,7 @@ public class GamlResourceGraph {
 	 * @param label
 	 *            the label
 	 */
-	public void addEdge(final URI from, final URI to, final String label) {
+	public synchronized void addEdge(final URI from, final URI to, final String label) {
 		imports.addVertex(from);
 		imports.addVertex(to);
 		imports.removeEdge(from, to);
@@ -157,7 +157,7 @@ public class GamlResourceGraph {
 	 * @param edges
 	 *            the edges
 	 */
-	public void removeAllEdges(final URI source, final Map<URI, String> edges) {
+	public synchronized void removeAllEdges(final URI source, final Map<URI, String> edges) {
 		if (edges.isEmpty()) return;
 		edges.forEach((uri, v) -> { imports.removeEdge(source, uri); });
 	}
@@ -169,7 +169,7 @@ public class GamlResourceGraph {
 	 *            the uri
 	 * @return the map
 	 */
-	public Map<URI, String> outgoingEdgesOf(final URI uri) {
+	public synchronized Map<URI, String> outgoingEdgesOf(final URI uri) {
 		if (!containsVertex(uri)) return Collections.EMPTY_MAP;
 		Map<URI, String> result = GamaMapFactory.createOrdered();
 		if (imports.containsVertex(uri)) {
@@ -186,7 +186,7 @@ public class GamlResourceGraph {
 	 * @return the map
 	 */
 	@SuppressWarnings ("null")
-	public Map<URI, String> sortedDepthFirstSearchWithLabels(final URI uri) {
+	public synchronized Map<URI, String> sortedDepthFirstSearchWithLabels(final URI uri) {
 		Map<URI, String> result = Maps.newLinkedHashMap();
 		searchImports(uri, null, result);
 		result.remove(uri);
@@ -75,22 +75,25 @@ public class GamlLinkingService extends DefaultLinkingService {
 	 * @return the list
 	 */
 	public List<EObject> addSymbol(final String name, final EClass clazz) {
-		Map<String, List<EObject>> refLists = STUB_NAMES.get(clazz);
-		if (refLists == null) {
-			refLists = new ConcurrentHashMap<>();
-			STUB_NAMES.put(clazz, refLists);
+		// The stub resource is shared by all the resource sets, which can be linked concurrently
+		synchronized (STUB_NAMES) {
+			Map<String, List<EObject>> refLists = STUB_NAMES.get(clazz);
+			if (refLists == null) {
+				refLists = new ConcurrentHashMap<>();
+				STUB_NAMES.put(clazz, refLists);
+			}
+			List<EObject> list = refLists.get(name);
+			if (list == null) {
+				// DEBUG.LOG("Adding stub reference to " + name + " as a "
+				// + clazz.getName());
+				// DEBUG.LOG("****************************************************");
+				final EObject stub = create(name, clazz);
+				getResource().getContents().add(stub);
+				list = Collections.singletonList(stub);
+				refLists.put(name, list);
+			}
+			return list;
 		}
-		List<EObject> list = refLists.get(name);
-		if (list == null) {
-			// DEBUG.LOG("Adding stub reference to " + name + " as a "
-			// + clazz.getName());
-			// DEBUG.LOG("****************************************************");
-			final EObject stub = create(name, clazz);
-			getResource().getContents().add(stub);
-			list = Collections.singletonList(stub);
-			refLists.put(name, list);
-		}
-		return list;
 	}
 
 	/**
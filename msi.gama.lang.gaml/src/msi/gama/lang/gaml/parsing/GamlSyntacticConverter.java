@@ -59,6 +59,7 @@ import static msi.gama.common.interfaces.IKeyword.ZERO;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFile;
@@ -132,7 +133,7 @@ public class GamlSyntacticConverter {
 	final static ExpressionDescriptionBuilder builder = new ExpressionDescriptionBuilder();
 
 	/** The synthetic action. */
-	private static int SYNTHETIC_ACTION = 0;
+	private static final AtomicInteger SYNTHETIC_ACTION = new AtomicInteger();
 
 	/**
 	 * Gets the absolute folder path of the resource passed in arguments. Used to get the path to the model files
@@ -354,7 +355,7 @@ public class GamlSyntacticConverter {
 		Block b = stm.getBlock();
 		if (b != null) {
 			final ISyntacticElement blockElt =
-					SyntacticFactory.create(ACTION, new Facets(NAME, SYNTHETIC + SYNTHETIC_ACTION++), true);
+					SyntacticFactory.create(ACTION, new Facets(NAME, SYNTHETIC + SYNTHETIC_ACTION.getAndIncrement()), true);
 			convertBlock(blockElt, b, errors);
 			IExpressionDescription fexpr = convExpr(blockElt, errors);
 			addFacet(elt, IKeyword.ON_CHANGE, fexpr, errors);
@@ -793,7 +794,7 @@ public class GamlSyntacticConverter {
 			if (expr == null && facet.getBlock() != null) {
 				final Block b = facet.getBlock();
 				final ISyntacticElement elt =
-						SyntacticFactory.create(ACTION, new Facets(NAME, SYNTHETIC + SYNTHETIC_ACTION++), true);
+						SyntacticFactory.create(ACTION, new Facets(NAME, SYNTHETIC + SYNTHETIC_ACTION.getAndIncrement()), true);
 				convertBlock(elt, b, errors);
 				return convExpr(elt, errors);
 			}
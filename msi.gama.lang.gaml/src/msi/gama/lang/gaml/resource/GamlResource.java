@@ -151,6 +151,12 @@ public class GamlResource extends LazyLinkingResource {
 	/** The element. */
 	ISyntacticElement element;
 
+	/**
+	 * The validation context, which belongs to this resource (and not to its URI), so that several resources with the
+	 * same URI can be validated concurrently in different resource sets.
+	 */
+	ValidationContext validationContext;
+
 	/** The imports. */
 	// Map<URI, String> imports;
 
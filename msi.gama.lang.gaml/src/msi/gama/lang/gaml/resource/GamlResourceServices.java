@@ -17,6 +17,7 @@ import java.net.URLDecoder;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.ResourcesPlugin;
@@ -69,10 +70,7 @@ public class GamlResourceServices {
 	private static GamlSyntacticConverter converter = new GamlSyntacticConverter();
 
 	/** The Constant resourceListeners. */
-	private static final Map<URI, IGamlBuilderListener> resourceListeners = GamaMapFactory.createUnordered();
-
-	/** The Constant resourceErrors. */
-	private static final Map<URI, ValidationContext> resourceErrors = GamaMapFactory.createUnordered();
+	private static final Map<URI, IGamlBuilderListener> resourceListeners = new ConcurrentHashMap<>();
 
 	/** The pool set. */
 	private static volatile XtextResourceSet poolSet;
@@ -223,11 +221,11 @@ public class GamlResourceServices {
 	 * @return the validation context
 	 */
 	public static ValidationContext getValidationContext(final GamlResource r) {
-		final URI newURI = r.getURI();
-		if (!resourceErrors.containsKey(newURI)) {
-			resourceErrors.put(newURI, new ValidationContext(newURI, r.hasErrors(), getResourceDocumenter()));
+		ValidationContext result = r.validationContext;
+		if (result == null) {
+			result = new ValidationContext(r.getURI(), r.hasErrors(), getResourceDocumenter());
+			r.validationContext = result;
 		}
-		final ValidationContext result = resourceErrors.get(newURI);
 		result.hasInternalSyntaxErrors(r.hasErrors());
 		return result;
 	}
@@ -239,7 +237,7 @@ public class GamlResourceServices {
 	 *            the r
 	 */
 	public static void discardValidationContext(final GamlResource r) {
-		resourceErrors.remove(r.getURI());
+		r.validationContext = null;
 	}
 
 	/**
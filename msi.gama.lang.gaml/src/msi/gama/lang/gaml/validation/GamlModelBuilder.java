@@ -12,21 +12,34 @@ package msi.gama.lang.gaml.validation;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.URIConverter;
 import org.eclipse.xtext.resource.SynchronizedXtextResourceSet;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Iterables;
 import com.google.inject.Injector;
 
 import msi.gama.common.interfaces.IGamlIssue;
+import msi.gama.common.preferences.GamaPreferences;
 import msi.gama.kernel.model.IModel;
+import msi.gama.lang.gaml.indexer.GamlResourceIndexer;
 import msi.gama.lang.gaml.resource.GamlResource;
 import msi.gama.precompiler.GamlProperties;
+import msi.gama.runtime.GAMA;
 import msi.gaml.compilation.GamlCompilationError;
 import msi.gaml.compilation.IGamlModelBuilder;
 import msi.gaml.descriptions.ModelDescription;
@@ -52,8 +65,39 @@ public class GamlModelBuilder implements IGamlModelBuilder {
 	 */
 	public static GamlModelBuilder getDefaultInstance() { return defaultInstance; }
 
-	/** The build resource set. */
-	private final ResourceSet buildResourceSet;
+	/**
+	 * The resource sets used to build models, one per thread, so that several models can be compiled concurrently
+	 * (e.g. by the validation of the library or by the requests of a server). The resource set of a thread is discarded
+	 * once it has built a model, so that the threads of pools do not keep it.
+	 */
+	private final ThreadLocal<ResourceSet> buildResourceSet;
+
+	/**
+	 * A validated model description, kept with the digest of the contents of the model and its imports, and the
+	 * warnings and infos produced by its validation.
+	 *
+	 * @param model
+	 *            the model description
+	 * @param digest
+	 *            the digest of the files it has been built from
+	 * @param issues
+	 *            the issues (other than errors) reported during its validation
+	 * @param inUse
+	 *            whether a runtime model is being compiled from the description. It is then not handed to another
+	 *            compilation, which builds its own description instead
+	 */
+	private record CachedDescription(ModelDescription model, byte[] digest, List<GamlCompilationError> issues,
+			AtomicBoolean inUse) {}
+
+	/** The maximal number of descriptions kept in the cache. */
+	private static final int MAX_CACHED_DESCRIPTIONS = 32;
+
+	/**
+	 * The descriptions already built, when they are cached, indexed by the URI of their model. The least recently used
+	 * ones are evicted when there are too many of them, and all of them can be collected if memory is needed.
+	 */
+	private final Cache<URI, CachedDescription> descriptions =
+			CacheBuilder.newBuilder().maximumSize(MAX_CACHED_DESCRIPTIONS).softValues().build();
 
 	/**
 	 * A constructor that builds the resource set based on an existing injecto
@@ -61,14 +105,14 @@ public class GamlModelBuilder implements IGamlModelBuilder {
 	 * @param injector
 	 */
 	public GamlModelBuilder(final Injector injector) {
-		buildResourceSet = injector.getInstance(ResourceSet.class);
+		buildResourceSet = ThreadLocal.withInitial(() -> injector.getInstance(ResourceSet.class));
 	}
 
 	/**
 	 * Instantiates a new gaml model builder.
 	 */
 	private GamlModelBuilder() {
-		buildResourceSet = new SynchronizedXtextResourceSet();
+		buildResourceSet = ThreadLocal.withInitial(SynchronizedXtextResourceSet::new);
 	}
 
 	/**
@@ -111,7 +155,7 @@ public class GamlModelBuilder implements IGamlModelBuilder {
 	 * @date 15 oct. 2023
 	 */
 	@Override
-	public synchronized IModel compile(final File myFile, final List<GamlCompilationError> errors,
+	public IModel compile(final File myFile, final List<GamlCompilationError> errors,
 			final GamlProperties metaProperties) throws IOException, IllegalArgumentException {
 		if (myFile == null) throw new IOException("Model file is null");
 		final String fileName = myFile.getAbsolutePath();
@@ -140,12 +184,89 @@ public class GamlModelBuilder implements IGamlModelBuilder {
 	 */
 	@Override
 	public IModel compile(final URI uri, final List<GamlCompilationError> errors) {
+		if (GamaPreferences.Experimental.CACHE_COMPILED_MODELS.getValue() && !GAMA.isInHeadLessMode())
+			return compileWithCache(uri, errors);
 		// We build the description and fill the errors list
 		final ModelDescription model = buildModelDescription(uri, errors);
 		// And compile it before returning it, unless it is null.
 		return model == null ? null : (IModel) model.compile();
 	}
 
+	/**
+	 * Compiles a model, reusing its description if it has already been built and validated, and if neither the file
+	 * of the model nor the files it imports have changed since then. Only the runtime model is created again. Models
+	 * with errors are never cached, nor are the models whose files are modified while they are built.
+	 *
+	 * Only used in the interface, where the same model is run again and again in the same JVM, one experiment at a
+	 * time. Headless runs usually compile a model once per JVM, and the server or batch runs compile models
+	 * concurrently. A description is anyway never handed to two compilations at the same time: a compilation that
+	 * finds it in use builds its own.
+	 *
+	 * @param uri
+	 *            the uri
+	 * @param errors
+	 *            the errors
+	 * @return the i model
+	 */
+	private IModel compileWithCache(final URI uri, final List<GamlCompilationError> errors) {
+		final byte[] before = digestOf(uri);
+		final CachedDescription cached = descriptions.getIfPresent(uri);
+		if (cached != null && Arrays.equals(cached.digest, before) && cached.inUse.compareAndSet(false, true)) {
+			DEBUG.LOG("Reusing the description of " + uri.lastSegment());
+			if (errors != null) { errors.addAll(cached.issues); }
+			try {
+				return (IModel) cached.model.compile();
+			} finally {
+				cached.inUse.set(false);
+			}
+		}
+		final List<GamlCompilationError> issues = new ArrayList<>();
+		final ModelDescription model = buildModelDescription(uri, issues);
+		if (errors != null) { errors.addAll(issues); }
+		if (model == null) {
+			descriptions.invalidate(uri);
+			return null;
+		}
+		// The description is only shared once this compilation is done
+		final IModel result = (IModel) model.compile();
+		// The digest computed before the build cannot describe files modified during the build, which the description
+		// may not reflect. As the imports of a model are only known once it has been built, the digest is computed
+		// again and the description is only cached if both are the same (i.e. from the second compilation of a model)
+		final byte[] after = digestOf(uri);
+		if (before != null && Arrays.equals(before, after)) {
+			descriptions.put(uri, new CachedDescription(model, after, issues, new AtomicBoolean()));
+		} else {
+			descriptions.invalidate(uri);
+		}
+		return result;
+	}
+
+	/**
+	 * Computes the digest of the contents of a model and of all the models it imports (directly or not).
+	 *
+	 * @param uri
+	 *            the uri
+	 * @return the digest or null if one of the files cannot be read
+	 */
+	private byte[] digestOf(final URI uri) {
+		try {
+			final MessageDigest md = MessageDigest.getInstance("SHA-256");
+			final byte[] buffer = new byte[8192];
+			final List<URI> files = new ArrayList<>();
+			files.add(uri);
+			files.addAll(GamlResourceIndexer.allImportsOf(uri).keySet());
+			for (final URI file : files) {
+				md.update(file.toString().getBytes());
+				try (InputStream is = new DigestInputStream(URIConverter.INSTANCE.createInputStream(file), md)) {
+					while (is.read(buffer) != -1) {}
+				}
+			}
+			return md.digest();
+		} catch (final IOException | NoSuchAlgorithmException e) {
+			return null;
+		}
+	}
+
 	/**
 	 * Builds the model description.
 	 *
@@ -156,8 +277,9 @@ public class GamlModelBuilder implements IGamlModelBuilder {
 	 * @return the model description
 	 */
 	private ModelDescription buildModelDescription(final URI uri, final List<GamlCompilationError> errors) {
+		final ResourceSet resourceSet = buildResourceSet.get();
 		try {
-			final GamlResource r = (GamlResource) buildResourceSet.getResource(uri, true);
+			final GamlResource r = (GamlResource) resourceSet.getResource(uri, true);
 			// Syntactic errors detected, we cannot build the resource
 			if (r.hasErrors()) {
 				if (errors != null) {
@@ -175,18 +297,20 @@ public class GamlModelBuilder implements IGamlModelBuilder {
 			if (r.getValidationContext().hasErrors()) return null;
 			return model;
 		} finally {
-			final boolean wasDeliver = buildResourceSet.eDeliver();
+			final boolean wasDeliver = resourceSet.eDeliver();
 			try {
-				buildResourceSet.eSetDeliver(false);
-				buildResourceSet.getResources().clear();
+				resourceSet.eSetDeliver(false);
+				resourceSet.getResources().clear();
 			} finally {
-				buildResourceSet.eSetDeliver(wasDeliver);
+				resourceSet.eSetDeliver(wasDeliver);
+				buildResourceSet.remove();
 			}
 		}
 	}
 
 	/**
-	 * Load UR ls.
+	 * Loads the resources of the models in the resource set of the calling thread, where they are available to the next
+	 * model it builds. As each thread uses its own resource set, this is of no use to models compiled by other threads.
 	 *
 	 * @param URLs
 	 *            the UR ls
@@ -198,7 +322,7 @@ public class GamlModelBuilder implements IGamlModelBuilder {
 			try {
 				uri = new java.net.URI(url.getProtocol(), url.getPath(), null).normalize();
 				final URI resolvedURI = URI.createURI(uri.toString());
-				buildResourceSet.getResource(resolvedURI, true);
+				buildResourceSet.get().getResource(resolvedURI, true);
 			} catch (final URISyntaxException e) {
 				e.printStackTrace();
 			}
@@ -248,7 +248,8 @@ public class OperatorProcessor extends ElementProcessor<operator> {
 	}
 
 	/**
-	 * Builds the method call.
+	 * Builds the reference to the method: its declaring class, name, whether it is static and its parameter types. The
+	 * method is not looked up by reflection when the additions are loaded, but only when its annotations are needed.
 	 *
 	 * @param sb
 	 *            the sb
@@ -262,17 +263,17 @@ public class OperatorProcessor extends ElementProcessor<operator> {
 	 *            the scope
 	 * @return the string builder
 	 */
-	protected static StringBuilder buildMethodCall(final StringBuilder sb, final String[] classes, final String name,
+	protected StringBuilder buildMethodCall(final StringBuilder sb, final String[] classes, final String name,
 			final boolean stat, final boolean scope) {
 		final int start = stat ? 0 : 1;
-		sb.append(toClassObject(extractClass(name, classes[0], stat)));
-		sb.append(".getMethod(").append(toJavaString(extractMethod(name, stat))).append(',');
+		sb.append(toClassObject(extractClass(name, classes[0], stat))).append(',');
+		sb.append(toJavaString(extractMethod(name, stat))).append(',').append(toBoolean(stat)).append(",C(");
 		if (scope) { sb.append(toClassObject(ISCOPE)).append(','); }
 		for (int i = start; i < classes.length; i++) {
 			sb.append(toClassObject(classes[i]));
 			sb.append(',');
 		}
-		sb.setLength(sb.length() - 1);
+		if (sb.charAt(sb.length() - 1) == ',') { sb.setLength(sb.length() - 1); }
 		sb.append(')');
 		return sb;
 	}
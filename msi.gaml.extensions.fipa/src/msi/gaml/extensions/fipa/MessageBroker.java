@@ -20,6 +20,7 @@ import msi.gama.metamodel.agent.IAgent;
 import msi.gama.runtime.IScope;
 import msi.gama.runtime.exceptions.GamaRuntimeException;
 import msi.gama.util.GamaListFactory;
+import msi.gama.util.GamaMapFactory;
 import msi.gama.util.IList;
 import msi.gaml.types.IType;
 import msi.gaml.types.Types;
@@ -35,12 +36,12 @@ import msi.gaml.types.Types;
 public class MessageBroker {
 
 	/** The messages to deliver. */
-	private final Map<IAgent, List<FIPAMessage>> messagesToDeliver = new HashMap<>();
+	private final Map<IAgent, List<FIPAMessage>> messagesToDeliver = GamaMapFactory.createAgentMap();
 
 	/**
 	 * Centralized storage of Conversations and Messages to facilitate Garbage Collection
 	 */
-	private final Map<IAgent, ConversationsMessages> conversationsMessages = new HashMap<>();
+	private final Map<IAgent, ConversationsMessages> conversationsMessages = GamaMapFactory.createAgentMap();
 
 	/** The instance. */
 	private static Map<SimulationAgent, MessageBroker> instances = new HashMap<>();
@@ -1017,6 +1017,9 @@ public interface IKeyword {
 	/** The real speed. */
 	String REAL_SPEED = "real_speed";
 
+	/** The recycle. */
+	String RECYCLE = "recycle";
+
 	/** The reflectivity. */
 	String REFLECTIVITY = "reflectivity";
 
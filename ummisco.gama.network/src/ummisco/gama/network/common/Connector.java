@@ -20,6 +20,7 @@ import java.util.Map;
 import msi.gama.extensions.messaging.GamaMessage;
 import msi.gama.metamodel.agent.IAgent;
 import msi.gama.runtime.IScope;
+import msi.gama.util.GamaMapFactory;
 import ummisco.gama.network.skills.INetworkSkill;
 import ummisco.gama.serializer.factory.StreamConverter;
 
@@ -77,7 +78,7 @@ public abstract class Connector implements IConnector {
 		boxFollower = new HashMap<>();
 		topicSuscribingPending = Collections.synchronizedList(new ArrayList<String>());
 		connectionParameter = new HashMap<>();
-		receivedMessage = new HashMap<>();
+		receivedMessage = GamaMapFactory.createAgentMap();
 		localMemberNames = new HashMap<>();
 		forceNetworkUse = false;
 	}
@@ -151,7 +152,7 @@ public abstract class Connector implements IConnector {
 		synchronized (lockGroupManagment) {
 			switch (action) {
 				case FETCH_ALL_MESSAGE_THREAD_SAFE_ACTION: {
-					final Map<IAgent, LinkedList<ConnectorMessage>> newBox = new HashMap<>();
+					final Map<IAgent, LinkedList<ConnectorMessage>> newBox = GamaMapFactory.createAgentMap();
 					for (final IAgent agt : this.receivedMessage.keySet()) {
 						newBox.put(agt, new LinkedList<ConnectorMessage>());
 					}
@@ -10,10 +10,10 @@
  ********************************************************************************************************/
 package ummisco.gaml.extensions.maths.matrix;
 
-import org.apache.commons.math3.exception.DimensionMismatchException;
+import java.util.Arrays;
+
 import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.apache.commons.math3.linear.EigenDecomposition;
-import org.apache.commons.math3.linear.LUDecomposition;
 import org.apache.commons.math3.linear.RealMatrix;
 
 import msi.gama.common.interfaces.IKeyword;
@@ -30,9 +30,11 @@ import msi.gama.runtime.IScope;
 import msi.gama.runtime.exceptions.GamaRuntimeException;
 import msi.gama.util.GamaListFactory;
 import msi.gama.util.IList;
+import msi.gama.util.matrix.FloatMatrixKernels;
 import msi.gama.util.matrix.GamaFloatMatrix;
 import msi.gama.util.matrix.GamaIntMatrix;
 import msi.gama.util.matrix.GamaObjectMatrix;
+import msi.gama.util.matrix.GamaSparseMatrix;
 import msi.gama.util.matrix.IMatrix;
 import msi.gaml.operators.Cast;
 import msi.gaml.types.IType;
@@ -71,13 +73,14 @@ public class MatrixOperators {
 	@test ("matrix([[1,1],[1,2]]) . matrix([[1,1],[1,2]]) = matrix([[2,3],[3,5]])")
 	public static IMatrix matrixMultiplication(final IScope scope, final IMatrix a, final IMatrix b)
 			throws GamaRuntimeException {
-		try {
-			if (a instanceof GamaIntMatrix && b instanceof GamaIntMatrix)
-				return toGamaIntMatrix(getRealMatrix(a).multiply(getRealMatrix(b)));
-			return toGamaFloatMatrix(getRealMatrix(a).multiply(getRealMatrix(b)));
-		} catch (final DimensionMismatchException e) {
+		final int n = a.getRows(scope), m = a.getCols(scope), p = b.getCols(scope);
+		if (b.getRows(scope) != m)
 			throw GamaRuntimeException.error(" The dimensions of the matrices do not correspond", scope);
-		}
+		if (a instanceof GamaSparseMatrix || b instanceof GamaSparseMatrix)
+			return GamaSparseMatrix.multiply(scope, a, b);
+		final double[] result = FloatMatrixKernels.multiply(getData(a), getData(b), n, m, p);
+		if (a instanceof GamaIntMatrix && b instanceof GamaIntMatrix) return new GamaIntMatrix(p, n, result);
+		return new GamaFloatMatrix(p, n, result);
 	}
 
 	/**
@@ -102,7 +105,7 @@ public class MatrixOperators {
 					value = "determinant(matrix([[1,2],[3,4]]))",
 					equals = "-2") })
 	public static Double getDeterminant(final IScope scope, final IMatrix m) throws GamaRuntimeException {
-		return new LUDecomposition(getRealMatrix(m)).getDeterminant();
+		return getDecomposition(scope, m).getDeterminant();
 	}
 
 	/**
@@ -183,6 +186,76 @@ public class MatrixOperators {
 		return m.reverse(scope);
 	}
 
+	/**
+	 * Row sums.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param m
+	 *            the m
+	 * @return the list of the sums of the rows
+	 */
+	@operator (
+			value = "row_sums",
+			can_be_const = true,
+			content_type = IType.FLOAT,
+			category = { IOperatorCategory.MATRIX },
+			concept = { IConcept.MATRIX })
+	@doc (
+			value = "The list of the sums of the elements of each row of the given matrix",
+			masterDoc = true,
+			examples = { @example (
+					value = "row_sums(matrix([[1,2],[3,4]]))",
+					equals = "[4.0,6.0]") },
+			see = { "column_sums" })
+	@test ("row_sums(matrix([[1,2],[3,4]])) = [4.0,6.0]")
+	public static IList<Double> rowSums(final IScope scope, final IMatrix m) throws GamaRuntimeException {
+		if (m instanceof GamaSparseMatrix sm) return GamaListFactory.createWithoutCasting(Types.FLOAT, sm.rowSums());
+		final int rows = m.getRows(scope), cols = m.getCols(scope);
+		final double[] data = getData(m);
+		final double[] result = new double[rows];
+		for (int i = 0; i < rows; i++) {
+			double s = 0d;
+			for (int j = 0, ri = i * cols; j < cols; j++) { s += data[ri + j]; }
+			result[i] = s;
+		}
+		return GamaListFactory.createWithoutCasting(Types.FLOAT, result);
+	}
+
+	/**
+	 * Column sums.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param m
+	 *            the m
+	 * @return the list of the sums of the columns
+	 */
+	@operator (
+			value = "column_sums",
+			can_be_const = true,
+			content_type = IType.FLOAT,
+			category = { IOperatorCategory.MATRIX },
+			concept = { IConcept.MATRIX })
+	@doc (
+			value = "The list of the sums of the elements of each column of the given matrix",
+			masterDoc = true,
+			examples = { @example (
+					value = "column_sums(matrix([[1,2],[3,4]]))",
+					equals = "[3.0,7.0]") },
+			see = { "row_sums" })
+	@test ("column_sums(matrix([[1,2],[3,4]])) = [3.0,7.0]")
+	public static IList<Double> columnSums(final IScope scope, final IMatrix m) throws GamaRuntimeException {
+		if (m instanceof GamaSparseMatrix sm) return GamaListFactory.createWithoutCasting(Types.FLOAT, sm.columnSums());
+		final int rows = m.getRows(scope), cols = m.getCols(scope);
+		final double[] data = getData(m);
+		final double[] result = new double[cols];
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0, ri = i * cols; j < cols; j++) { result[j] += data[ri + j]; }
+		}
+		return GamaListFactory.createWithoutCasting(Types.FLOAT, result);
+	}
+
 	/**
 	 * Inverse.
 	 *
@@ -202,13 +275,16 @@ public class MatrixOperators {
 			category = { IOperatorCategory.MATRIX },
 			concept = { IConcept.MATRIX })
 	@doc (
-			value = "The inverse matrix of the given matrix. If no inverse exists, returns a matrix that has properties that resemble that of an inverse.",
+			value = "The inverse matrix of the given matrix. If no inverse exists (i.e. the matrix is singular), an error is raised.",
 			masterDoc = true,
 			examples = { @example (
 					value = "inverse(matrix([[4,3],[3,2]]))",
 					equals = "matrix([[-2.0,3.0],[3.0,-4.0]])") })
 	public static IMatrix<Double> inverse(final IScope scope, final IMatrix m) throws GamaRuntimeException {
-		return toGamaFloatMatrix(new LUDecomposition(getRealMatrix(m)).getSolver().getInverse());
+		final FloatMatrixKernels.LU lu = getDecomposition(scope, m);
+		if (lu.isSingular()) throw GamaRuntimeException.error("The matrix is singular and cannot be inverted", scope);
+		final int n = m.getRows(scope);
+		return new GamaFloatMatrix(n, n, lu.getInverse());
 	}
 
 	/**
@@ -283,6 +359,46 @@ public class MatrixOperators {
 		return a;
 	}
 
+	/**
+	 * Returns the contents of a matrix as a row-major array of doubles: the array of a float matrix itself, which must
+	 * not be modified, or a new one.
+	 *
+	 * @param m
+	 *            the m
+	 * @return the data
+	 */
+	public static double[] getData(final IMatrix m) {
+		if (m instanceof GamaFloatMatrix fm) return fm.getMatrix();
+		if (m instanceof GamaSparseMatrix sm) return sm.toDoubleArray(null);
+		var rows = m.getRows(null);
+		var cols = m.getCols(null);
+		final double[] data = new double[rows * cols];
+		if (m instanceof GamaIntMatrix im) {
+			final int[] ints = im.getMatrix();
+			for (int i = 0; i < data.length; i++) { data[i] = ints[i]; }
+		} else {
+			for (int i = 0; i < rows; i++) {
+				for (int j = 0; j < cols; j++) { data[i * cols + j] = Cast.asFloat(null, m.get(null, j, i)); }
+			}
+		}
+		return data;
+	}
+
+	/**
+	 * Returns the LU decomposition of a square matrix (reused if the matrix has not changed since the last one).
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param m
+	 *            the m
+	 * @return the decomposition
+	 */
+	private static FloatMatrixKernels.LU getDecomposition(final IScope scope, final IMatrix m) {
+		final int n = m.getRows(scope);
+		if (m.getCols(scope) != n) throw GamaRuntimeException.error("The matrix should be square", scope);
+		return FloatMatrixKernels.decomposition(m, getData(m), n);
+	}
+
 	/**
 	 * Gets the real matrix.
 	 *
@@ -293,6 +409,12 @@ public class MatrixOperators {
 	public static RealMatrix getRealMatrix(final IMatrix m) {
 		var rows = m.getRows(null);
 		var cols = m.getCols(null);
+		if (m instanceof GamaFloatMatrix fm) {
+			final double[] data = fm.getMatrix();
+			final double[][] entries = new double[rows][];
+			for (int i = 0; i < rows; i++) { entries[i] = Arrays.copyOfRange(data, i * cols, (i + 1) * cols); }
+			return new Array2DRowRealMatrix(entries, false);
+		}
 		final RealMatrix realMatrix = new Array2DRowRealMatrix(rows, cols);
 		for (int i = 0; i < rows; i++) {
 			for (int j = 0; j < cols; j++) { realMatrix.setEntry(i, j, Cast.asFloat(null, m.get(null, j, i))); }
@@ -0,0 +1,488 @@
+/*******************************************************************************************************
+ *
+ * GamaAccumulator.java, in ummisco.gaml.extensions.stats, is part of the source code of the GAMA modeling and
+ * simulation platform (v.1.9.3).
+ *
+ * (c) 2007-2023 UMI 209 UMMISCO IRD/SU & Partners (IRIT, MIAT, TLU, CTU)
+ *
+ * Visit https://github.com/gama-platform/gama for license information and contacts.
+ *
+ ********************************************************************************************************/
+package ummisco.gaml.extensions.stats;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import msi.gama.common.interfaces.IValue;
+import msi.gama.precompiler.GamlAnnotations.doc;
+import msi.gama.precompiler.GamlAnnotations.getter;
+import msi.gama.precompiler.GamlAnnotations.variable;
+import msi.gama.precompiler.GamlAnnotations.vars;
+import msi.gama.runtime.IScope;
+import msi.gama.runtime.exceptions.GamaRuntimeException;
+import msi.gama.util.GamaListFactory;
+import msi.gama.util.IContainer;
+import msi.gama.util.IList;
+import msi.gaml.types.IType;
+import msi.gaml.types.Types;
+
+/**
+ * Accumulates a stream of numbers without keeping them, so that indicators computed every cycle (mean, variance,
+ * quantiles...) do not need to build and scan a list of all the values.
+ *
+ * The count, sum, extrema, mean and variance are updated for each value (using Welford's algorithm) and read in
+ * constant time. The distribution is summarized by a merging t-digest (Dunning and Ertl, "Computing extremely accurate
+ * quantiles using t-digests", 2019): a small number of weighted centroids, light at the tails and heavier around the
+ * median, from which the quantiles and histograms are estimated. As long as fewer than about 2 x compression values
+ * have been accumulated, each centroid is a single value and the quantiles are exact (they are interpolated the same
+ * way as the quantile operator).
+ *
+ * An accumulator is not thread-safe: it is meant to be fed by one agent, or one thread, at a time. Values produced in
+ * parallel (by the agents of a parallel species, for instance) are accumulated in one accumulator per agent or per
+ * thread, then combined with {@link #merge(GamaAccumulator)}, which merges the moments with the formulas of Chan et
+ * al. and the centroids like any other values. The methods that modify an accumulator (including those that merge its
+ * buffered values into the centroids) claim it first, so that a second thread using it at the same time raises an
+ * error instead of silently corrupting it. A thread that claims it after another one has released it sees all the
+ * values added by the latter.
+ *
+ * @since 1.9.3
+ */
+@vars ({ @variable (
+		name = "count",
+		type = IType.INT,
+		doc = { @doc ("number of values accumulated") }),
+		@variable (
+				name = "sum",
+				type = IType.FLOAT,
+				doc = { @doc ("sum of the values accumulated") }),
+		@variable (
+				name = "min",
+				type = IType.FLOAT,
+				doc = { @doc ("smallest value accumulated (0.0 if none)") }),
+		@variable (
+				name = "max",
+				type = IType.FLOAT,
+				doc = { @doc ("largest value accumulated (0.0 if none)") }),
+		@variable (
+				name = "mean",
+				type = IType.FLOAT,
+				doc = { @doc ("mean of the values accumulated (0.0 if none)") }),
+		@variable (
+				name = "variance",
+				type = IType.FLOAT,
+				doc = { @doc ("variance of the values accumulated, like the variance operator (0.0 if none)") }),
+		@variable (
+				name = "standard_deviation",
+				type = IType.FLOAT,
+				doc = { @doc ("standard deviation of the values accumulated (0.0 if none)") }),
+		@variable (
+				name = "median",
+				type = IType.FLOAT,
+				doc = { @doc ("estimated median of the values accumulated (0.0 if none)") }) })
+public class GamaAccumulator implements IValue {
+
+	/** Claims the accumulator for the thread writing to it. */
+	private static final AtomicReferenceFieldUpdater<GamaAccumulator, Thread> WRITER =
+			AtomicReferenceFieldUpdater.newUpdater(GamaAccumulator.class, Thread.class, "writer");
+
+	/** The default compression, with which a few hundred centroids are kept, even for millions of values. */
+	public static final int DEFAULT_COMPRESSION = 100;
+
+	/** The compression. */
+	final double compression;
+
+	/** The number of values. */
+	long count;
+
+	/** The sum of the values. */
+	double sum;
+
+	/** The extrema. */
+	double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+
+	/** The mean. */
+	double mean;
+
+	/** The sum of the squares of the differences to the mean. */
+	double m2;
+
+	/** The means of the centroids, in increasing order. */
+	double[] centroids = new double[0];
+
+	/** The weights of the centroids. */
+	double[] weights = new double[0];
+
+	/** The number of centroids. */
+	int nbCentroids;
+
+	/** The values not yet merged into the centroids. */
+	final double[] buffer;
+
+	/** The number of values in the buffer. */
+	int buffered;
+
+	/** The thread writing to the accumulator, if any. */
+	private volatile Thread writer;
+
+	/**
+	 * Instantiates a new accumulator with the default compression.
+	 */
+	public GamaAccumulator() {
+		this(DEFAULT_COMPRESSION);
+	}
+
+	/**
+	 * Instantiates a new accumulator.
+	 *
+	 * @param compression
+	 *            the compression: the higher, the more accurate (and larger) the estimation of the distribution
+	 */
+	public GamaAccumulator(final double compression) {
+		this.compression = Math.max(10, compression);
+		buffer = new double[(int) (5 * this.compression)];
+	}
+
+	/**
+	 * Claims the accumulator for the current thread.
+	 *
+	 * @param scope
+	 *            the scope, used to report the error (can be null)
+	 * @return true if the accumulator has been claimed, false if the current thread had already claimed it
+	 * @throws GamaRuntimeException
+	 *             if another thread is writing to the accumulator
+	 */
+	private boolean claim(final IScope scope) throws GamaRuntimeException {
+		final Thread current = Thread.currentThread();
+		if (WRITER.compareAndSet(this, null, current)) return true;
+		if (writer == current) return false;
+		throw GamaRuntimeException.error("An accumulator cannot be used by several threads at once (for instance by "
+				+ "the agents of a parallel species or of a parallel ask). Use one accumulator per agent and merge them",
+				scope);
+	}
+
+	/**
+	 * Releases the accumulator if it has been claimed by {@link #claim(IScope)}.
+	 *
+	 * @param claimed
+	 *            the result of claim()
+	 */
+	private void release(final boolean claimed) {
+		if (claimed) { writer = null; }
+	}
+
+	/**
+	 * Adds a number, or the numbers of a container. Like NaN, values that are not numbers (nil, strings, nested
+	 * containers...) are ignored.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param values
+	 *            a number or a container of numbers
+	 * @throws GamaRuntimeException
+	 *             if another thread is writing to the accumulator
+	 */
+	public void feed(final IScope scope, final Object values) throws GamaRuntimeException {
+		final boolean claimed = claim(scope);
+		try {
+			if (values instanceof IContainer<?, ?> c) {
+				for (final Object o : c.iterable(scope)) { if (o instanceof Number n) { add(n.doubleValue()); } }
+			} else if (values instanceof Number n) { add(n.doubleValue()); }
+		} finally {
+			release(claimed);
+		}
+	}
+
+	/**
+	 * Adds a value. NaN values are ignored. Does not claim the accumulator: used by {@link #feed(IScope, Object)} and
+	 * on accumulators that have not been shared yet.
+	 *
+	 * @param value
+	 *            the value
+	 */
+	public void add(final double value) {
+		if (Double.isNaN(value)) return;
+		count++;
+		sum += value;
+		if (value < min) { min = value; }
+		if (value > max) { max = value; }
+		final double delta = value - mean;
+		mean += delta / count;
+		m2 += delta * (value - mean);
+		buffer[buffered++] = value;
+		if (buffered == buffer.length) { flush(); }
+	}
+
+	/**
+	 * Adds the values accumulated by another accumulator.
+	 *
+	 * @param other
+	 *            the other accumulator, which is not modified
+	 */
+	public void merge(final GamaAccumulator other) {
+		if (other.count == 0) return;
+		// Flushing a copy leaves the other accumulator (which may be this one) unchanged
+		final GamaAccumulator o = other.copy(null);
+		o.flush();
+		final boolean claimed = claim(null);
+		try {
+			final long n = count + o.count;
+			final double delta = o.mean - mean;
+			mean += delta * o.count / n;
+			m2 += o.m2 + delta * delta * count / n * o.count;
+			count = n;
+			sum += o.sum;
+			min = Math.min(min, o.min);
+			max = Math.max(max, o.max);
+			flush();
+			combine(o.centroids, o.weights, o.nbCentroids);
+		} finally {
+			release(claimed);
+		}
+	}
+
+	/**
+	 * Forgets all the values accumulated.
+	 */
+	public void reset() {
+		final boolean claimed = claim(null);
+		count = 0;
+		sum = mean = m2 = 0d;
+		min = Double.POSITIVE_INFINITY;
+		max = Double.NEGATIVE_INFINITY;
+		nbCentroids = buffered = 0;
+		release(claimed);
+	}
+
+	/**
+	 * Merges the buffered values into the centroids.
+	 */
+	private void flush() {
+		if (buffered == 0) return;
+		Arrays.sort(buffer, 0, buffered);
+		combine(buffer, null, buffered);
+		buffered = 0;
+	}
+
+	/**
+	 * Merges sorted centroids with the current ones, then merges the neighbouring centroids whose total weight stays
+	 * under the limit allowed at their quantile (4.W.q.(1-q) / compression, at least 1).
+	 *
+	 * @param means
+	 *            the means of the centroids, in increasing order
+	 * @param w
+	 *            their weights, or null if they are all 1
+	 * @param n
+	 *            the number of centroids
+	 */
+	private void combine(final double[] means, final double[] w, final int n) {
+		double total = 0;
+		for (int i = 0; i < nbCentroids; i++) { total += weights[i]; }
+		if (w == null) {
+			total += n;
+		} else {
+			for (int j = 0; j < n; j++) { total += w[j]; }
+		}
+		final double[] newMeans = new double[nbCentroids + n];
+		final double[] newWeights = new double[nbCentroids + n];
+		double before = 0;
+		int i = 0, j = 0, k = -1;
+		while (i < nbCentroids || j < n) {
+			final double m, weight;
+			if (j == n || i < nbCentroids && centroids[i] <= means[j]) {
+				m = centroids[i];
+				weight = weights[i++];
+			} else {
+				m = means[j];
+				weight = w == null ? 1 : w[j];
+				j++;
+			}
+			if (k >= 0) {
+				final double proposed = newWeights[k] + weight;
+				final double q = (before + proposed / 2) / total;
+				if (proposed <= Math.max(1, 4 * total * q * (1 - q) / compression)) {
+					newMeans[k] += (m - newMeans[k]) * weight / proposed;
+					newWeights[k] = proposed;
+					continue;
+				}
+				before += newWeights[k];
+			}
+			k++;
+			newMeans[k] = m;
+			newWeights[k] = weight;
+		}
+		centroids = newMeans;
+		weights = newWeights;
+		nbCentroids = k + 1;
+	}
+
+	/**
+	 * Estimates a quantile. Like the quantile operator, the value at the index phi * (count - 1) of the sorted values is
+	 * interpolated between its neighbours. Here, the neighbours are the centroids, each one being located at the middle
+	 * of the indices of the values it represents.
+	 *
+	 * @param phi
+	 *            the quantile, between 0 and 1
+	 * @return the estimated value, or 0 if no value has been accumulated
+	 */
+	public double quantile(final double phi) {
+		if (count == 0) return 0d;
+		final boolean claimed = claim(null);
+		try {
+			flush();
+		} finally {
+			release(claimed);
+		}
+		final double index = Math.max(0, Math.min(1, phi)) * (count - 1);
+		double previousIndex = 0, previousValue = min, before = 0;
+		for (int i = 0; i < nbCentroids; i++) {
+			final double center = before + (weights[i] - 1) / 2;
+			if (index <= center) {
+				if (center <= previousIndex) return centroids[i];
+				return previousValue + (centroids[i] - previousValue) * (index - previousIndex) / (center - previousIndex);
+			}
+			previousIndex = center;
+			previousValue = centroids[i];
+			before += weights[i];
+		}
+		final double last = count - 1;
+		if (last <= previousIndex) return previousValue;
+		return previousValue + (max - previousValue) * (index - previousIndex) / (last - previousIndex);
+	}
+
+	/**
+	 * Estimates the number of values in each of nb intervals of the same width between the min and the max.
+	 *
+	 * @param nb
+	 *            the number of intervals
+	 * @return the list of the counts
+	 */
+	public IList<Integer> histogram(final int nb) {
+		final int[] counts = new int[Math.max(1, nb)];
+		if (count > 0) {
+			final boolean claimed = claim(null);
+			try {
+				flush();
+			} finally {
+				release(claimed);
+			}
+			final double width = (max - min) / counts.length;
+			for (int i = 0; i < nbCentroids; i++) {
+				final int bin = width == 0 ? 0 : (int) Math.min(counts.length - 1, (centroids[i] - min) / width);
+				counts[bin] += (int) weights[i];
+			}
+		}
+		final IList<Integer> result = GamaListFactory.create(Types.INT, counts.length);
+		for (final int c : counts) { result.add(c); }
+		return result;
+	}
+
+	/**
+	 * Gets the count.
+	 *
+	 * @return the count
+	 */
+	@getter ("count")
+	public Integer getCount() { return (int) count; }
+
+	/**
+	 * Gets the sum.
+	 *
+	 * @return the sum
+	 */
+	@getter ("sum")
+	public Double getSum() { return sum; }
+
+	/**
+	 * Gets the min.
+	 *
+	 * @return the min
+	 */
+	@getter ("min")
+	public Double getMin() { return count == 0 ? 0d : min; }
+
+	/**
+	 * Gets the max.
+	 *
+	 * @return the max
+	 */
+	@getter ("max")
+	public Double getMax() { return count == 0 ? 0d : max; }
+
+	/**
+	 * Gets the mean.
+	 *
+	 * @return the mean
+	 */
+	@getter ("mean")
+	public Double getMean() { return mean; }
+
+	/**
+	 * Gets the variance.
+	 *
+	 * @return the variance
+	 */
+	@getter ("variance")
+	public Double getVariance() { return count == 0 ? 0d : m2 / count; }
+
+	/**
+	 * Gets the standard deviation.
+	 *
+	 * @return the standard deviation
+	 */
+	@getter ("standard_deviation")
+	public Double getStandardDeviation() { return Math.sqrt(getVariance()); }
+
+	/**
+	 * Gets the median.
+	 *
+	 * @return the median
+	 */
+	@getter ("median")
+	public Double getMedian() { return quantile(0.5); }
+
+	@Override
+	public String serialize(final boolean includingBuiltIn) {
+		return stringValue(null);
+	}
+
+	@Override
+	public IType<?> getGamlType() { return Types.get(GamaAccumulatorType.ID); }
+
+	@Override
+	public String stringValue(final IScope scope) throws GamaRuntimeException {
+		return "accumulator(count: " + count + ", mean: " + mean + ", variance: " + getVariance() + ")";
+	}
+
+	@Override
+	public GamaAccumulator copy(final IScope scope) throws GamaRuntimeException {
+		final GamaAccumulator result = new GamaAccumulator(compression);
+		final boolean claimed = claim(scope);
+		try {
+			result.count = count;
+			result.sum = sum;
+			result.min = min;
+			result.max = max;
+			result.mean = mean;
+			result.m2 = m2;
+			result.centroids = Arrays.copyOf(centroids, nbCentroids);
+			result.weights = Arrays.copyOf(weights, nbCentroids);
+			result.nbCentroids = nbCentroids;
+			System.arraycopy(buffer, 0, result.buffer, 0, buffered);
+			result.buffered = buffered;
+		} finally {
+			release(claimed);
+		}
+		return result;
+	}
+
+	@Override
+	public int intValue(final IScope scope) {
+		return getCount();
+	}
+
+	@Override
+	public double floatValue(final IScope scope) {
+		return getMean();
+	}
+
+}
@@ -0,0 +1,64 @@
+/*******************************************************************************************************
+ *
+ * GamaAccumulatorType.java, in ummisco.gaml.extensions.stats, is part of the source code of the GAMA modeling and
+ * simulation platform (v.1.9.3).
+ *
+ * (c) 2007-2023 UMI 209 UMMISCO IRD/SU & Partners (IRIT, MIAT, TLU, CTU)
+ *
+ * Visit https://github.com/gama-platform/gama for license information and contacts.
+ *
+ ********************************************************************************************************/
+package ummisco.gaml.extensions.stats;
+
+import msi.gama.precompiler.GamlAnnotations.doc;
+import msi.gama.precompiler.GamlAnnotations.type;
+import msi.gama.precompiler.IConcept;
+import msi.gama.precompiler.ISymbolKind;
+import msi.gama.runtime.IScope;
+import msi.gama.runtime.exceptions.GamaRuntimeException;
+import msi.gaml.types.GamaType;
+import msi.gaml.types.IType;
+
+/**
+ * The Class GamaAccumulatorType.
+ *
+ * @since 1.9.3
+ */
+@type (
+		name = "accumulator",
+		id = GamaAccumulatorType.ID,
+		wraps = { GamaAccumulator.class },
+		kind = ISymbolKind.Variable.REGULAR,
+		concept = { IConcept.TYPE, IConcept.STATISTIC },
+		doc = { @doc (
+				value = "Type of variables that accumulate numbers, one by one or by containers, and maintain their "
+						+ "count, sum, min, max, mean, variance and an estimation of their quantiles without keeping "
+						+ "them. Values that are not numbers (like nil) are ignored. An accumulator must not be used by "
+						+ "several threads at once (for instance by the agents of a parallel species or of a parallel "
+						+ "ask), which raises an error: the values produced in parallel can be accumulated in one "
+						+ "accumulator per agent, then combined with the merge operator") })
+public class GamaAccumulatorType extends GamaType<GamaAccumulator> {
+
+	/** The id. */
+	public static final int ID = IType.AVAILABLE_TYPES + 40;
+
+	@Override
+	public boolean canCastToConst() {
+		return false;
+	}
+
+	@Override
+	@doc ("Returns the argument if it is an accumulator (or a copy of it), or a new accumulator containing the numbers "
+			+ "of the argument if it is a container or a number. The values that are not numbers (like nil) are ignored")
+	public GamaAccumulator cast(final IScope scope, final Object obj, final Object param, final boolean copy)
+			throws GamaRuntimeException {
+		if (obj instanceof GamaAccumulator acc) return copy ? acc.copy(scope) : acc;
+		final GamaAccumulator result = new GamaAccumulator();
+		result.feed(scope, obj);
+		return result;
+	}
+
+	@Override
+	public GamaAccumulator getDefault() { return null; }
+
+}
@@ -58,6 +58,7 @@ import msi.gama.util.Collector;
 import msi.gama.util.GamaColor;
 import msi.gama.util.GamaListFactory;
 import msi.gama.util.GamaMapFactory;
+import msi.gama.util.GamaPrimitiveList;
 import msi.gama.util.IContainer;
 import msi.gama.util.IList;
 import msi.gama.util.IMap;
@@ -1611,6 +1612,7 @@ public class Stats {
 			see = { "min" })
 	public static Object opMax(final IScope scope, final IContainer l) {
 		if (l instanceof GamaField) return ((GamaField) l).getMinMax()[1];
+		if (l instanceof GamaPrimitiveList p && p.isUnboxed()) return p.max();
 		Number maxNum = null;
 		GamaPoint maxPoint = null;
 		for (final Object o : l.iterable(scope)) {
@@ -1777,6 +1779,7 @@ public class Stats {
 			see = { "max" })
 	public static Object opMin(final IScope scope, final IContainer l) {
 		if (l instanceof GamaField) return ((GamaField) l).getMinMax()[0];
+		if (l instanceof GamaPrimitiveList p && p.isUnboxed()) return p.min();
 		Number minNum = null;
 		GamaPoint minPoint = null;
 		for (final Object o : l.iterable(scope)) {
@@ -2298,6 +2301,176 @@ public class Stats {
 		return regression.getResiduals();
 	}
 
+	/**
+	 * Adds a number, or the numbers of a container, to an accumulator.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param accumulator
+	 *            the accumulator
+	 * @param values
+	 *            a number or a container of numbers
+	 * @return the accumulator
+	 */
+	@operator (
+			value = "feed",
+			can_be_const = false,
+			type = GamaAccumulatorType.ID,
+			category = { IOperatorCategory.STATISTICAL },
+			concept = { IConcept.STATISTIC })
+	@doc (
+			value = "adds the right operand (a number or a container of numbers) to the accumulator, which is "
+					+ "modified and returned. The count, sum, min, max, mean and variance of the accumulator can then be "
+					+ "read without scanning the values again. Values that are not numbers (like nil) are ignored, as "
+					+ "when casting to accumulator.",
+			comment = "An accumulator must not be fed by several threads at once (for instance by the agents of a "
+					+ "parallel species or of a parallel ask): this raises an error. The values produced in parallel "
+					+ "can be fed to one accumulator per agent, which are then combined with merge.",
+			examples = { @example (
+					value = "my_accumulator <- my_accumulator feed (people collect each.energy);",
+					isExecutable = false) },
+			see = { "merge", "reset" })
+	@test ("(accumulator([1, 2]) feed [3, 4]).mean = 2.5")
+	@test ("(accumulator([1, 2]) feed 6).max = 6.0")
+	@test ("(accumulator([1, 2]) feed [3, nil, 'a', 4]).count = 4")
+	@test ("(accumulator([1, 2]) feed nil).count = 2")
+	@test ("accumulator([1, nil, 'a', 2]).count = (accumulator([1, 2]) feed [nil, 'a']).count")
+	@test ("accumulator('a').count = (accumulator([]) feed 'a').count")
+	public static GamaAccumulator opFeed(final IScope scope, final GamaAccumulator accumulator, final Object values) {
+		accumulator.feed(scope, values);
+		return accumulator;
+	}
+
+	/**
+	 * Merges two accumulators.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param first
+	 *            the first
+	 * @param second
+	 *            the second
+	 * @return a new accumulator
+	 */
+	@operator (
+			value = "merge",
+			can_be_const = false,
+			type = GamaAccumulatorType.ID,
+			category = { IOperatorCategory.STATISTICAL },
+			concept = { IConcept.STATISTIC })
+	@doc (
+			value = "returns a new accumulator containing the values of both operands, which are left unchanged. Allows "
+					+ "for instance several agents or workers to accumulate values separately and to combine them later",
+			examples = { @example (
+					value = "merge(accumulator([1, 2]), accumulator([3, 4])).count",
+					equals = "4") },
+			see = { "feed" })
+	@test ("merge(accumulator([1, 2]), accumulator([3, 4])).count = 4")
+	@test ("merge(accumulator([1, 2]), accumulator([3, 4])).variance = variance([1, 2, 3, 4])")
+	@test ("merge(accumulator([1, 2]), accumulator([])).mean = 1.5")
+	@test ("abs(quantile(merge(accumulator(range(4999)), accumulator(range(5000, 9999))), 0.9) - 8999.1) < 50")
+	public static GamaAccumulator opMerge(final IScope scope, final GamaAccumulator first,
+			final GamaAccumulator second) {
+		final GamaAccumulator result = first.copy(scope);
+		result.merge(second);
+		return result;
+	}
+
+	/**
+	 * Empties an accumulator.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param accumulator
+	 *            the accumulator
+	 * @return the accumulator
+	 */
+	@operator (
+			value = "reset",
+			can_be_const = false,
+			type = GamaAccumulatorType.ID,
+			category = { IOperatorCategory.STATISTICAL },
+			concept = { IConcept.STATISTIC })
+	@doc (
+			value = "forgets all the values of the accumulator, which is modified and returned. Useful to compute "
+					+ "indicators on the values of the current cycle only",
+			examples = { @example (
+					value = "my_accumulator <- reset(my_accumulator);",
+					isExecutable = false) },
+			see = { "feed" })
+	@test ("reset(accumulator([1, 2])).count = 0")
+	public static GamaAccumulator opReset(final IScope scope, final GamaAccumulator accumulator) {
+		accumulator.reset();
+		return accumulator;
+	}
+
+	/**
+	 * Estimates a quantile of the values of an accumulator.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param accumulator
+	 *            the accumulator
+	 * @param phi
+	 *            the phi
+	 * @return the double
+	 */
+	@operator (
+			value = "quantile",
+			can_be_const = false,
+			type = IType.FLOAT,
+			category = { IOperatorCategory.STATISTICAL },
+			concept = { IConcept.STATISTIC })
+	@doc (
+			value = "Returns the phi-quantile of the values of the accumulator. It is exact (and equal to the one "
+					+ "computed on the list of the values) for the first hundreds of values, and estimated afterwards",
+			examples = { @example (
+					value = "quantile(accumulator([1,3,5,6,9,11,12,13,19,21,22,32,35,36,45,44,55,68,79,80,81,88,90,91,92,100]), 0.5)",
+					equals = "35.5") })
+	@test ("quantile(accumulator([1,3,5,6,9,11,12,13,19,21,22,32,35,36,45,44,55,68,79,80,81,88,90,91,92,100]), 0.5) = 35.5")
+	@test ("quantile(accumulator([10, 3, 1, 2]), 0.25) = quantile([1, 2, 3, 10], 0.25)")
+	@test ("quantile(accumulator([]), 0.5) = 0.0")
+	// Beyond a few hundred values, the estimates stay within 0.5% of the range of the values
+	@test ("abs(quantile(accumulator(shuffle(range(9999))), 0.5) - 4999.5) < 50")
+	@test ("abs(quantile(accumulator(shuffle(range(9999))), 0.01) - 99.99) < 50")
+	public static Double opQuantile(final IScope scope, final GamaAccumulator accumulator, final Double phi) {
+		return accumulator.quantile(phi);
+	}
+
+	/**
+	 * Estimates the histogram of the values of an accumulator.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @param accumulator
+	 *            the accumulator
+	 * @param nb
+	 *            the number of bins
+	 * @return the list of counts
+	 */
+	@operator (
+			value = "histogram_of",
+			can_be_const = false,
+			type = IType.LIST,
+			content_type = IType.INT,
+			category = { IOperatorCategory.STATISTICAL },
+			concept = { IConcept.STATISTIC, IConcept.CHART })
+	@doc (
+			value = "Returns the number of values of the accumulator in each of n intervals of the same width between "
+					+ "its min and its max. It is exact for the first hundreds of values, and estimated afterwards",
+			examples = { @example (
+					value = "histogram_of(accumulator([1, 1, 2, 4]), 3)",
+					equals = "[2, 1, 1]") },
+			see = { "distribution_of" })
+	@test ("histogram_of(accumulator([1, 1, 2, 4]), 3) = [2, 1, 1]")
+	@test ("sum(histogram_of(accumulator(shuffle(range(9999))), 10)) = 10000")
+	// Beyond a few hundred values, the counts of the bins stay within 15% of the exact ones
+	@test ("histogram_of(accumulator(shuffle(range(9999))), 10) all_match (abs(each - 1000) <= 150)")
+	public static IList<Integer> opHistogram(final IScope scope, final GamaAccumulator accumulator, final Integer nb) {
+		if (nb == null || nb < 1) throw GamaRuntimeException.error("The number of bins must be positive", scope);
+		return accumulator.histogram(nb);
+	}
+
 	/**
 	 *
 	 * @param scope